@@ -0,0 +1,103 @@
+package user.biblio4.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cloison d'un groupe de routes : au plus {@code maxConcurrent} requêtes en
+ * cours et {@code maxQueue} en attente, chacune pendant {@code queueTimeoutMs}
+ * au maximum. Une file pleine est refusée sans attendre.
+ *
+ * Métriques (tag {@code bulkhead}) : {@code bulkhead.active}, {@code bulkhead.queued},
+ * {@code bulkhead.wait} et {@code bulkhead.rejected} (tag {@code reason}).
+ */
+public class Bulkhead {
+
+    public enum Outcome { ACQUIRED, QUEUE_FULL, TIMED_OUT }
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTimeoutMs;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter queueFull;
+    private final Counter timedOut;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, long queueTimeoutMs, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.waitTimer = Timer.builder("bulkhead.wait")
+                .description("Attente d'une place dans la cloison")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        this.queueFull = rejectionCounter(meterRegistry, "queue_full");
+        this.timedOut = rejectionCounter(meterRegistry, "timeout");
+        Gauge.builder("bulkhead.active", permits, p -> maxConcurrent - p.availablePermits())
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.queued", queued, AtomicInteger::get)
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Entrer dans la cloison ; {@link #release()} doit suivre un {@code ACQUIRED}
+     */
+    public Outcome acquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            waitTimer.record(0, TimeUnit.NANOSECONDS);
+            return Outcome.ACQUIRED;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            queueFull.increment();
+            return Outcome.QUEUE_FULL;
+        }
+        long start = System.nanoTime();
+        try {
+            if (permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return Outcome.ACQUIRED;
+            }
+            timedOut.increment();
+            return Outcome.TIMED_OUT;
+        } finally {
+            queued.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    private Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("bulkhead.rejected")
+                .description("Requêtes refusées par la cloison")
+                .tag("bulkhead", name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
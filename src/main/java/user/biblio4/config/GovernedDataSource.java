@@ -0,0 +1,127 @@
+package user.biblio4.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Régulateur de concurrence base de données : un sémaphore équitable, de la
+ * taille du pool Hikari, précède chaque emprunt de connexion.
+ *
+ * Avec des threads virtuels, des milliers de requêtes peuvent demander une
+ * connexion en même temps ; elles attendent ici dans une file FIFO peu coûteuse
+ * (le thread virtuel est démonté, sans épingler son porteur) au lieu d'échouer
+ * sur le {@code connection-timeout} du pool. Le permis est rendu à la fermeture
+ * de la connexion.
+ *
+ * Métriques : {@code db.governor.wait}, {@code db.governor.waiting},
+ * {@code db.governor.available} et {@code db.governor.rejected}.
+ */
+public class GovernedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public GovernedDataSource(DataSource target, int maxConcurrency, long acquireTimeoutMs, MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.waitTimer = Timer.builder("db.governor.wait")
+                .description("Attente d'un permis avant l'emprunt d'une connexion")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("db.governor.rejected")
+                .description("Demandes de connexion abandonnées après le délai d'attente")
+                .register(meterRegistry);
+        Gauge.builder("db.governor.waiting", permits, Semaphore::getQueueLength).register(meterRegistry);
+        Gauge.builder("db.governor.available", permits, Semaphore::availablePermits).register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return governed(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return governed(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompu en attente d'une connexion", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new SQLTransientConnectionException(
+                    "Aucune connexion disponible après " + acquireTimeoutMs + " ms (régulateur base de données)");
+        }
+    }
+
+    // Connexion dont la fermeture rend le permis (une seule fois)
+    private Connection governed(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    try {
+                        return invoke(connection, method, args);
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                default:
+                    return invoke(connection, method, args);
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, handler);
+    }
+
+    private static Object invoke(Connection target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
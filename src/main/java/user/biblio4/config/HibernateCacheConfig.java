@@ -0,0 +1,83 @@
+package user.biblio4.config;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Cache de second niveau Hibernate (JCache, Ehcache en local) pour le catalogue :
+ * mots, traductions et questions de quiz, plus le cache de requêtes.
+ *
+ * Chaque région est bornée en nombre d'entrées et expire après un délai ;
+ * une région absente de cette liste fait échouer le démarrage.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String LEVEL_WORD_REGION = "catalog.level_word";
+    public static final String LEVEL_WORD_TRANSLATIONS_REGION = "catalog.level_word.translations";
+    public static final String TRANSLATION_REGION = "catalog.translation";
+    public static final String QUIZ_QUESTION_REGION = "catalog.quiz_question";
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${catalog.cache.level-word.max-entries:5000}") long levelWords,
+            @Value("${catalog.cache.translation.max-entries:20000}") long translations,
+            @Value("${catalog.cache.quiz-question.max-entries:5000}") long questions,
+            @Value("${catalog.cache.query.max-entries:10000}") long queries,
+            @Value("${catalog.cache.ttl-minutes:60}") long ttlMinutes
+    ) {
+        // Gestionnaire propre au contexte (plusieurs contextes de test cohabitent dans la JVM)
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:biblio4:hibernate:" + UUID.randomUUID()),
+                new DefaultConfiguration(provider.getDefaultClassLoader()));
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        createRegion(cacheManager, LEVEL_WORD_REGION, levelWords, ttl);
+        createRegion(cacheManager, LEVEL_WORD_TRANSLATIONS_REGION, levelWords, ttl);
+        createRegion(cacheManager, TRANSLATION_REGION, translations, ttl);
+        createRegion(cacheManager, QUIZ_QUESTION_REGION, questions, ttl);
+        createRegion(cacheManager, QUERY_RESULTS_REGION, queries, ttl);
+        // Horodatages des tables : une entrée par table, jamais expirée
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 1000, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, long maxEntries, Duration ttl) {
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries));
+        if (ttl != null) {
+            builder = builder.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl));
+        }
+        cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(builder));
+    }
+}
@@ -0,0 +1,18 @@
+package user.biblio4.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sérialisation JSON : accesseurs générés (LambdaMetafactory) au lieu de la réflexion
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
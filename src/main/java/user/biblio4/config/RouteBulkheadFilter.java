@@ -0,0 +1,178 @@
+package user.biblio4.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cloisons par groupe de routes, appliquées avant Spring Security et les
+ * contrôleurs : une rafale de soumissions de quiz ou un export admin ne peut
+ * occuper que les places de son groupe, les lectures du catalogue gardent
+ * les leurs.
+ *
+ * Groupes (première correspondance) : {@code admin}, {@code auth}, {@code quiz},
+ * {@code progress} (écritures sur niveaux, progression, révision, synchronisation)
+ * et {@code catalog} (lectures des traductions et des niveaux). Les autres
+ * routes ne sont pas cloisonnées.
+ *
+ * Limites : {@code bulkhead.<groupe>.max-concurrent}, {@code .max-queue} et
+ * {@code .queue-timeout-ms}. File pleine : 429 ; attente expirée : 503 ;
+ * les deux avec {@code Retry-After}.
+ */
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class RouteBulkheadFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD");
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private record Route(String group, boolean reads, boolean writes, List<String> patterns) {}
+
+    private static final List<Route> ROUTES = List.of(
+            new Route("admin", true, true, List.of("/api/admin/**", "/api/users/admin/**")),
+            new Route("auth", true, true, List.of("/api/auth/**")),
+            new Route("quiz", true, true, List.of("/api/quiz/**")),
+            new Route("progress", false, true,
+                    List.of("/api/levels/**", "/api/progress/**", "/api/review/**", "/api/sync/**")),
+            new Route("catalog", true, false, List.of("/api/translations/**", "/api/levels/**"))
+    );
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+    private final ObjectMapper objectMapper;
+
+    public RouteBulkheadFilter(Environment environment, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (Route route : ROUTES) {
+            String prefix = "bulkhead." + route.group() + ".";
+            bulkheads.put(route.group(), new Bulkhead(route.group(),
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, 20),
+                    environment.getProperty(prefix + "max-queue", Integer.class, 20),
+                    environment.getProperty(prefix + "queue-timeout-ms", Long.class, 250L),
+                    meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Bulkhead bulkhead = bulkheadFor(request);
+        if (bulkhead == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead.Outcome outcome;
+        try {
+            outcome = bulkhead.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Requête interrompue en attente");
+            return;
+        }
+        if (outcome == Bulkhead.Outcome.QUEUE_FULL) {
+            log.debug("Bulkhead {} full, rejecting {} {}", bulkhead.getName(), request.getMethod(), request.getRequestURI());
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Trop de requêtes, réessayez plus tard");
+            return;
+        }
+        if (outcome == Bulkhead.Outcome.TIMED_OUT) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Service momentanément saturé, réessayez plus tard");
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Réponse en flux (export) : la place est rendue à la fin du traitement asynchrone
+                request.getAsyncContext().addListener(new ReleaseOnComplete(bulkhead));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod());
+    }
+
+    Bulkhead bulkheadFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean read = READ_METHODS.contains(request.getMethod());
+        for (Route route : ROUTES) {
+            if (read ? !route.reads() : !route.writes()) {
+                continue;
+            }
+            for (String pattern : route.patterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return bulkheads.get(route.group());
+                }
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", message));
+    }
+
+    private static final class ReleaseOnComplete implements AsyncListener {
+
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnComplete(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package user.biblio4.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches planifiées (vidage des compteurs, relais, réconciliation)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
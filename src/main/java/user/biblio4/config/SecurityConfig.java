@@ -55,6 +55,7 @@ public class SecurityConfig {
                 
                 // Routes protégées par rôles
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
                 .requestMatchers("/api/prof/**").hasAnyRole("ADMIN", "PROF")
                 .requestMatchers("/api/student/**").hasAnyRole("ADMIN", "PROF", "STUDENT")
                 
@@ -121,7 +122,10 @@ public class SecurityConfig {
             "Content-Type",
             "Access-Control-Allow-Origin",
             "Access-Control-Allow-Credentials",
-            "X-Auth-Token"
+            "X-Auth-Token",
+            "X-Next-Cursor",
+            "X-Next-Page",
+            "Retry-After"
         ));
         
         // Autoriser les credentials
@@ -0,0 +1,102 @@
+package user.biblio4.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Mode threads virtuels (optionnel, {@code spring.threads.virtual.enabled=true}) :
+ * Spring Boot exécute alors les requêtes Tomcat, les tâches planifiées et
+ * asynchrones sur des threads virtuels. Cette configuration y ajoute :
+ *
+ * <ul>
+ *   <li>le régulateur {@link GovernedDataSource} autour du pool Hikari
+ *   ({@code db.governor.enabled}, actif par défaut avec les threads virtuels) ;</li>
+ *   <li>le diagnostic d'épinglage ({@code diagnostics.pinning.enabled}) : un flux JFR
+ *   sur {@code jdk.VirtualThreadPinned} journalise la pile des blocages au-delà
+ *   du seuil et alimente {@code jvm.threads.virtual.pinned}.</li>
+ * </ul>
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    @ConditionalOnExpression("${db.governor.enabled:${spring.threads.virtual.enabled:false}}")
+    public static BeanPostProcessor databaseGovernor(Environment environment,
+                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    long timeout = environment.getProperty("db.governor.acquire-timeout-ms", Long.class, 60_000L);
+                    // Taille non renseignée : -1 tant que le pool n'a pas démarré, Hikari retiendra 10
+                    int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+                    return new GovernedDataSource((DataSource) bean, poolSize, timeout, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "diagnostics.pinning.enabled", havingValue = "true")
+    public PinningDiagnostics pinningDiagnostics(MeterRegistry meterRegistry, Environment environment) {
+        long thresholdMs = environment.getProperty("diagnostics.pinning.threshold-ms", Long.class, 20L);
+        return new PinningDiagnostics(meterRegistry, Duration.ofMillis(thresholdMs));
+    }
+
+    /**
+     * Écoute JFR des épinglages de threads virtuels (JDBC, blocs synchronized)
+     */
+    @Slf4j
+    public static class PinningDiagnostics {
+
+        private static final int MAX_FRAMES = 12;
+
+        private final RecordingStream stream = new RecordingStream();
+
+        public PinningDiagnostics(MeterRegistry meterRegistry, Duration threshold) {
+            var pinned = meterRegistry.timer("jvm.threads.virtual.pinned");
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+            stream.onEvent("jdk.VirtualThreadPinned", event -> {
+                pinned.record(event.getDuration());
+                log.warn("Virtual thread pinned for {} ms:\n{}", event.getDuration().toMillis(), frames(event));
+            });
+            stream.startAsync();
+        }
+
+        private static String frames(RecordedEvent event) {
+            if (event.getStackTrace() == null) {
+                return "\t(pile indisponible)";
+            }
+            List<RecordedFrame> frames = event.getStackTrace().getFrames();
+            return frames.stream().limit(MAX_FRAMES)
+                    .map(f -> "\tat " + f.getMethod().getType().getName() + "." + f.getMethod().getName()
+                            + ":" + f.getLineNumber())
+                    .collect(Collectors.joining("\n"));
+        }
+
+        @PreDestroy
+        public void close() {
+            stream.close();
+        }
+    }
+}
@@ -96,17 +96,6 @@ public class AuthController {
                         .body(createErrorResponse("Format d'email invalide"));
             }
 
-            // Vérifier si l'utilisateur existe déjà
-            if (userService.usernameExists(registerRequest.getUsername())) {
-                return ResponseEntity.badRequest()
-                        .body(createErrorResponse("Ce nom d'utilisateur est déjà utilisé"));
-            }
-
-            if (userService.emailExists(registerRequest.getEmail())) {
-                return ResponseEntity.badRequest()
-                        .body(createErrorResponse("Cet email est déjà utilisé"));
-            }
-
             // Hasher le mot de passe
             String passwordHash1 = passwordEncoder.encode(registerRequest.getPassword());
 
@@ -164,6 +153,31 @@ public class AuthController {
         }
     }
 
+    /**
+     * Disponibilité d'un nom d'utilisateur et/ou d'un email (saisie du formulaire d'inscription)
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> checkAvailability(@RequestParam(required = false) String username,
+                                               @RequestParam(required = false) String email) {
+        try {
+            if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+                return ResponseEntity.badRequest()
+                        .body(createErrorResponse("Le nom d'utilisateur ou l'email est requis"));
+            }
+            Map<String, Object> response = new HashMap<>();
+            if (username != null && !username.isBlank()) {
+                response.put("usernameAvailable", !userService.usernameExists(username.trim()));
+            }
+            if (email != null && !email.isBlank()) {
+                response.put("emailAvailable", !userService.emailExists(email.trim()));
+            }
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Erreur lors de la vérification: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/refresh")
     public ResponseEntity<?> refreshToken(@RequestHeader("Authorization") String authorizationHeader) {
         try {
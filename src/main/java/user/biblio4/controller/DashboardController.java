@@ -0,0 +1,43 @@
+package user.biblio4.controller;
+
+import user.biblio4.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Écran d'accueil en un seul appel : statistiques, niveaux, semaine,
+ * récompenses et classement (réponse partielle si une partie est trop lente)
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @Autowired
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getDashboard(@RequestParam Long userId) {
+        try {
+            Map<String, Object> dashboard = dashboardService.getDashboard(userId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.putAll(dashboard);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+}
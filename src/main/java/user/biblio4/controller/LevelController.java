@@ -1,5 +1,9 @@
 package user.biblio4.controller;
 
+import user.biblio4.dto.FieldSet;
+import user.biblio4.dto.LevelInfoDTO;
+import user.biblio4.dto.LevelPageDTO;
+import user.biblio4.dto.UserStatsDTO;
 import user.biblio4.model.UserProgress;
 import user.biblio4.service.LevelService;
 import user.biblio4.service.ProgressService;
@@ -28,10 +32,12 @@ public class LevelController {
     public ResponseEntity<Map<String, Object>> getLevel(
             @PathVariable Integer levelNumber,
             @RequestParam Long userId,
-            @RequestParam(defaultValue = "ar") String language) {
+            @RequestParam(defaultValue = "ar") String language,
+            @RequestParam(required = false) String fields) {
 
         try {
-            Map<String, Object> levelData = levelService.getLevelWithProgress(userId, levelNumber, language);
+            FieldSet fieldSet = FieldSet.parse(fields, LevelService.LEVEL_FIELDS);
+            LevelPageDTO levelData = levelService.getLevelWithProgress(userId, levelNumber, language, fieldSet);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -72,10 +78,11 @@ public class LevelController {
     public ResponseEntity<Map<String, Object>> masterWord(
             @PathVariable Integer levelNumber,
             @RequestParam Long userId,
-            @RequestParam String wordKey) {
+            @RequestParam String wordKey,
+            @RequestParam(required = false) String language) {
 
         try {
-            Map<String, Object> result = levelService.masterWord(userId, levelNumber, wordKey);
+            Map<String, Object> result = levelService.masterWord(userId, levelNumber, wordKey, language);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -130,7 +137,7 @@ public class LevelController {
     @GetMapping("/user/stats")
     public ResponseEntity<Map<String, Object>> getUserStats(@RequestParam Long userId) {
         try {
-            Map<String, Object> stats = levelService.getUserStats(userId);
+            UserStatsDTO stats = levelService.getUserStats(userId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -148,7 +155,7 @@ public class LevelController {
     @GetMapping("/user/levels")
     public ResponseEntity<Map<String, Object>> getUserLevels(@RequestParam Long userId) {
         try {
-            java.util.List<Map<String, Object>> levels = levelService.getUserLevels(userId);
+            java.util.List<LevelInfoDTO> levels = levelService.getUserLevels(userId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -1,7 +1,10 @@
 package user.biblio4.controller;
 
+import user.biblio4.dto.LeaderboardEntryDTO;
+import user.biblio4.dto.OverallProgressDTO;
 import user.biblio4.service.ProgressService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,7 +25,7 @@ public class ProgressController {
     @GetMapping("/overall")
     public ResponseEntity<Map<String, Object>> getOverallProgress(@RequestParam Long userId) {
         try {
-            Map<String, Object> progress = progressService.getOverallProgress(userId);
+            OverallProgressDTO progress = progressService.getOverallProgress(userId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -37,6 +40,37 @@ public class ProgressController {
         }
     }
 
+    /**
+     * Synchronisation différentielle : seulement les lignes modifiées depuis le jeton {@code since}.
+     * Répond 304 si l'ETag fourni correspond à la version courante.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Map<String, Object>> getChanges(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "0") Long since,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        try {
+            long version = progressService.getChangeVersion(userId);
+            String etag = "\"" + userId + "-" + version + "\"";
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+
+            Map<String, Object> changes = progressService.getChangesSince(userId, since, version);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("changes", changes);
+
+            return ResponseEntity.ok().eTag(etag).body(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     @GetMapping("/level")
     public ResponseEntity<Map<String, Object>> getLevelProgress(
             @RequestParam Long userId,
@@ -82,7 +116,7 @@ public class ProgressController {
             @RequestParam(defaultValue = "10") Integer limit) {
 
         try {
-            java.util.List<Map<String, Object>> leaderboard = progressService.getLeaderboard(type, limit);
+            java.util.List<LeaderboardEntryDTO> leaderboard = progressService.getLeaderboard(type, limit);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -1,5 +1,6 @@
 package user.biblio4.controller;
 
+import user.biblio4.dto.FieldSet;
 import user.biblio4.model.QuizQuestion;
 import user.biblio4.service.QuizService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,10 +24,12 @@ public class QuizController {
     @PostMapping("/start")
     public ResponseEntity<Map<String, Object>> startQuiz(
             @RequestParam Long userId,
-            @RequestParam Integer levelNumber) {
+            @RequestParam Integer levelNumber,
+            @RequestParam(required = false) String fields) {
 
         try {
-            Map<String, Object> quizSession = quizService.startQuiz(userId, levelNumber);
+            FieldSet fieldSet = FieldSet.parse(fields, QuizService.QUESTION_FIELDS);
+            Map<String, Object> quizSession = quizService.startQuiz(userId, levelNumber, fieldSet);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -97,9 +100,12 @@ public class QuizController {
     }
 
     @GetMapping("/history")
-    public ResponseEntity<Map<String, Object>> getQuizHistory(@RequestParam Long userId) {
+    public ResponseEntity<Map<String, Object>> getQuizHistory(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String fields) {
         try {
-            java.util.List<Map<String, Object>> history = quizService.getQuizHistory(userId);
+            FieldSet fieldSet = FieldSet.parse(fields, QuizService.HISTORY_FIELDS);
+            java.util.List<Map<String, Object>> history = quizService.getQuizHistory(userId, fieldSet);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -0,0 +1,67 @@
+package user.biblio4.controller;
+
+import user.biblio4.service.ReviewService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Révision espacée des mots maîtrisés
+ */
+@RestController
+@RequestMapping("/api/review")
+public class ReviewController {
+
+    private final ReviewService reviewService;
+
+    @Autowired
+    public ReviewController(ReviewService reviewService) {
+        this.reviewService = reviewService;
+    }
+
+    @GetMapping("/next")
+    public ResponseEntity<Map<String, Object>> getNextReviews(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "20") Integer limit) {
+
+        try {
+            Map<String, Object> result = reviewService.getNextReviews(userId, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.putAll(result);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PostMapping("/answers")
+    public ResponseEntity<Map<String, Object>> submitReviews(
+            @RequestParam Long userId,
+            @RequestBody Map<String, List<Map<String, Object>>> request) {
+
+        try {
+            Map<String, Object> result = reviewService.submitReviews(userId, request.get("answers"));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.putAll(result);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package user.biblio4.controller;
+
+import user.biblio4.dto.DifficultyRankDTO;
+import user.biblio4.model.ItemDifficultyStat;
+import user.biblio4.service.DifficultyStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistiques pédagogiques réservées aux administrateurs
+ */
+@RestController
+@RequestMapping("/api/admin/stats")
+public class StatsController {
+
+    private final DifficultyStatsService difficultyStatsService;
+
+    @Autowired
+    public StatsController(DifficultyStatsService difficultyStatsService) {
+        this.difficultyStatsService = difficultyStatsService;
+    }
+
+    @GetMapping("/difficulty")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getDifficultyRanking(
+            @RequestParam Integer levelNumber,
+            @RequestParam(required = false) String language,
+            @RequestParam(defaultValue = "question") String type,
+            @RequestParam(defaultValue = "5") Long minAttempts,
+            @RequestParam(defaultValue = "20") Integer limit) {
+
+        try {
+            ItemDifficultyStat.ItemType itemType = ItemDifficultyStat.ItemType.valueOf(type.toUpperCase());
+            List<DifficultyRankDTO> ranking = difficultyStatsService
+                    .getDifficultyRanking(itemType, levelNumber, language, minAttempts, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("levelNumber", levelNumber);
+            response.put("language", DifficultyStatsService.normalizeLanguage(language));
+            response.put("type", itemType);
+            response.put("ranking", ranking);
+            response.put("count", ranking.size());
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Type invalide. Options: question, word");
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+}
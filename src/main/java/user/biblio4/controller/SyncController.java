@@ -0,0 +1,46 @@
+package user.biblio4.controller;
+
+import user.biblio4.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synchronisation des événements enregistrés hors ligne
+ */
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @Autowired
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> sync(
+            @RequestParam Long userId,
+            @RequestBody Map<String, List<Map<String, Object>>> request) {
+
+        try {
+            Map<String, Object> result = syncService.sync(userId, request.get("events"));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.putAll(result);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+}
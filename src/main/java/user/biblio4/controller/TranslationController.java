@@ -1,5 +1,6 @@
 package user.biblio4.controller;
 
+import user.biblio4.dto.FieldSet;
 import user.biblio4.service.TranslationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -31,10 +32,12 @@ public class TranslationController {
     @GetMapping("/word")
     public ResponseEntity<Map<String, Object>> getWordTranslation(
             @RequestParam String wordKey,
-            @RequestParam(defaultValue = "ar") String language) {
+            @RequestParam(defaultValue = "ar") String language,
+            @RequestParam(required = false) String fields) {
 
         try {
-            Map<String, Object> translation = translationService.getWordTranslation(wordKey, language);
+            FieldSet fieldSet = FieldSet.parse(fields, TranslationService.TRANSLATION_FIELDS);
+            Map<String, Object> translation = translationService.getWordTranslation(wordKey, language, fieldSet);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -52,9 +55,12 @@ public class TranslationController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Map<String, Object>> getAllTranslations(@RequestParam String wordKey) {
+    public ResponseEntity<Map<String, Object>> getAllTranslations(
+            @RequestParam String wordKey,
+            @RequestParam(required = false) String fields) {
         try {
-            Map<String, Object> translations = translationService.getAllTranslations(wordKey);
+            FieldSet fieldSet = FieldSet.parse(fields, TranslationService.TRANSLATION_FIELDS);
+            Map<String, Object> translations = translationService.getAllTranslations(wordKey, fieldSet);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -73,10 +79,12 @@ public class TranslationController {
     @GetMapping("/search")
     public ResponseEntity<Map<String, Object>> searchWords(
             @RequestParam String query,
-            @RequestParam(defaultValue = "ar") String language) {
+            @RequestParam(defaultValue = "ar") String language,
+            @RequestParam(required = false) String fields) {
 
         try {
-            java.util.List<Map<String, Object>> results = translationService.searchWords(query, language);
+            FieldSet fieldSet = FieldSet.parse(fields, TranslationService.WORD_LIST_FIELDS);
+            java.util.List<Map<String, Object>> results = translationService.searchWords(query, language, fieldSet);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -99,10 +107,12 @@ public class TranslationController {
     @GetMapping("/category")
     public ResponseEntity<Map<String, Object>> getWordsByCategory(
             @RequestParam String category,
-            @RequestParam(defaultValue = "ar") String language) {
+            @RequestParam(defaultValue = "ar") String language,
+            @RequestParam(required = false) String fields) {
 
         try {
-            java.util.List<Map<String, Object>> words = translationService.getWordsByCategory(category, language);
+            FieldSet fieldSet = FieldSet.parse(fields, TranslationService.WORD_LIST_FIELDS);
+            java.util.List<Map<String, Object>> words = translationService.getWordsByCategory(category, language, fieldSet);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
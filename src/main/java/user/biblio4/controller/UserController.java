@@ -1,14 +1,21 @@
 package user.biblio4.controller;
 
+import user.biblio4.dto.ProvisioningRowDTO;
+import user.biblio4.dto.UserSearchHitDTO;
+import user.biblio4.dto.UserSummaryDTO;
 import user.biblio4.model.User;
+import user.biblio4.service.UserProvisioningService;
 import user.biblio4.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -28,11 +35,17 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class UserController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String NEXT_PAGE_HEADER = "X-Next-Page";
+
     private final UserService userService;
+    private final UserProvisioningService userProvisioningService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserProvisioningService userProvisioningService) {
         this.userService = userService;
+        this.userProvisioningService = userProvisioningService;
     }
 
     @GetMapping("/welcome")
@@ -155,10 +168,11 @@ public class UserController {
 
     @GetMapping("/admin/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Long after,
+                                         @RequestParam(defaultValue = "100") int size) {
         try {
-            List<User> users = userService.getAllUsers();
-            return ResponseEntity.ok(users);
+            List<UserSummaryDTO> users = userService.getUserSummaries(after, size);
+            return page(users, size);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createErrorResponse("Erreur lors de la récupération des utilisateurs: " + e.getMessage()));
@@ -169,7 +183,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getUserById(@PathVariable Long id) {
         try {
-            Optional<User> user = userService.getUserById(id);
+            Optional<UserSummaryDTO> user = userService.getUserSummaryById(id);
 
             if (user.isPresent()) {
                 return ResponseEntity.ok(user.get());
@@ -246,6 +260,39 @@ public class UserController {
         }
     }
 
+    /**
+     * Création d'une cohorte (JSON : tableau de CreateUserRequest)
+     */
+    @PostMapping(value = "/admin/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> provisionCohort(@RequestBody List<CreateUserRequest> cohort) {
+        try {
+            return ResponseEntity.ok(createProvisioningResponse(userProvisioningService.provision(cohort)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Erreur lors de l'import de la cohorte: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Création d'une cohorte (CSV avec ligne d'en-tête)
+     */
+    @PostMapping(value = "/admin/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> provisionCohortCsv(@RequestBody String csv) {
+        try {
+            List<CreateUserRequest> cohort = userProvisioningService.parseCsv(csv);
+            return ResponseEntity.ok(createProvisioningResponse(userProvisioningService.provision(cohort)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Erreur lors de l'import de la cohorte: " + e.getMessage()));
+        }
+    }
+
     @PutMapping("/admin/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody UpdateUserRequest updateRequest) {
@@ -336,7 +383,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getUserByUsername(@PathVariable String username) {
         try {
-            Optional<User> user = userService.getUserByUsername(username);
+            Optional<UserSummaryDTO> user = userService.getUserSummaryByUsername(username);
 
             if (user.isPresent()) {
                 return ResponseEntity.ok(user.get());
@@ -354,7 +401,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getUserByEmail(@PathVariable String email) {
         try {
-            Optional<User> user = userService.getUserByEmail(email);
+            Optional<UserSummaryDTO> user = userService.getUserSummaryByEmail(email);
 
             if (user.isPresent()) {
                 return ResponseEntity.ok(user.get());
@@ -368,12 +415,37 @@ public class UserController {
         }
     }
 
+    @GetMapping("/admin/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> searchUsers(@RequestParam("q") String query,
+                                         @RequestParam(required = false) String role,
+                                         @RequestParam(required = false) String level,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size) {
+        try {
+            List<UserSearchHitDTO> hits = userService.searchUsers(query, role, level, page, size);
+            if (hits.size() < Math.max(1, Math.min(size, UserService.MAX_PAGE_SIZE))) {
+                return ResponseEntity.ok(hits);
+            }
+            return ResponseEntity.ok()
+                    .header(NEXT_PAGE_HEADER, String.valueOf(Math.max(0, page) + 1))
+                    .body(hits);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Erreur lors de la recherche: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/admin/search/name/{nomComplet}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> searchUsersByNomComplet(@PathVariable String nomComplet) {
+    public ResponseEntity<?> searchUsersByNomComplet(@PathVariable String nomComplet,
+                                                     @RequestParam(required = false) Long after,
+                                                     @RequestParam(defaultValue = "100") int size) {
         try {
-            List<User> users = userService.searchUsersByNomComplet(nomComplet);
-            return ResponseEntity.ok(users);
+            List<UserSummaryDTO> users = userService.searchUserSummariesByNomComplet(nomComplet, after, size);
+            return page(users, size);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createErrorResponse("Erreur lors de la recherche: " + e.getMessage()));
@@ -382,10 +454,12 @@ public class UserController {
 
     @GetMapping("/admin/role/{role}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getUsersByRole(@PathVariable String role) {
+    public ResponseEntity<?> getUsersByRole(@PathVariable String role,
+                                            @RequestParam(required = false) Long after,
+                                            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<User> users = userService.getUsersByRole(role);
-            return ResponseEntity.ok(users);
+            List<UserSummaryDTO> users = userService.getUserSummariesByRole(role, after, size);
+            return page(users, size);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createErrorResponse("Erreur lors de la recherche par rôle: " + e.getMessage()));
@@ -396,28 +470,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getUsersCount() {
         try {
-            List<User> users = userService.getAllUsers();
-            Map<String, Object> response = new HashMap<>();
-            response.put("total", users.size());
-
-            // Compter par rôle
-            long adminCount = users.stream().filter(u -> u.getRole() == User.Role.ADMIN).count();
-            long profCount = users.stream().filter(u -> u.getRole() == User.Role.PROF).count();
-            long studentCount = users.stream().filter(u -> u.getRole() == User.Role.STUDENT).count();
-
-            response.put("admins", adminCount);
-            response.put("profs", profCount);
-            response.put("students", studentCount);
-
-            // Compter par niveau
-            long beginnerCount = users.stream().filter(u -> u.getLevel() == User.Level.BEGINNER).count();
-            long intermediateCount = users.stream().filter(u -> u.getLevel() == User.Level.INTERMEDIATE).count();
-            long advancedCount = users.stream().filter(u -> u.getLevel() == User.Level.ADVANCED).count();
-
-            response.put("beginners", beginnerCount);
-            response.put("intermediates", intermediateCount);
-            response.put("advanced", advancedCount);
-
+            Map<String, Object> response = userService.getUserCounts();
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -425,8 +478,32 @@ public class UserController {
         }
     }
 
+    /**
+     * Export NDJSON de tous les utilisateurs, écrit au fil de la lecture
+     */
+    @GetMapping(value = "/admin/export", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) String role) {
+        StreamingResponseBody body = out -> userService.exportUsers(out, role);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(body);
+    }
+
     // === Méthodes utilitaires ===
 
+    // Page pleine : le curseur de la page suivante est le dernier identifiant renvoyé
+    private ResponseEntity<List<UserSummaryDTO>> page(List<UserSummaryDTO> users, int size) {
+        int limit = Math.max(1, Math.min(size, UserService.MAX_PAGE_SIZE));
+        if (users.size() < limit) {
+            return ResponseEntity.ok(users);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).id()))
+                .body(users);
+    }
+
     private Map<String, Object> createUserResponse(User user) {
         Map<String, Object> response = new HashMap<>();
         response.put("id", user.getId());
@@ -439,6 +516,16 @@ public class UserController {
         return response;
     }
 
+    private Map<String, Object> createProvisioningResponse(List<ProvisioningRowDTO> rows) {
+        long created = rows.stream().filter(row -> ProvisioningRowDTO.CREATED.equals(row.status())).count();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", created + " utilisateur(s) créé(s) sur " + rows.size());
+        response.put("created", created);
+        response.put("rejected", rows.size() - created);
+        response.put("rows", rows);
+        return response;
+    }
+
     private Map<String, String> createErrorResponse(String message) {
         Map<String, String> errorResponse = new HashMap<>();
         errorResponse.put("error", message);
@@ -0,0 +1,20 @@
+package user.biblio4.dto;
+
+import user.biblio4.model.ItemDifficultyStat.ItemType;
+import java.time.LocalDateTime;
+
+/**
+ * Élément du classement de difficulté (taux d'échec arrondi à 4 décimales)
+ */
+public record DifficultyRankDTO(
+        int rank,
+        ItemType itemType,
+        String itemKey,
+        Integer levelNumber,
+        String language,
+        Long attempts,
+        Long correct,
+        double failureRate,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,82 @@
+package user.biblio4.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Champs demandés par le paramètre {@code fields=a,b,c} (sans paramètre : tous).
+ * Les services le consultent avant de lire les données, pour ne charger ni
+ * jointure ni colonne inutile.
+ */
+public final class FieldSet {
+
+    public static final FieldSet ALL = new FieldSet(null);
+
+    // null : tous les champs
+    private final Set<String> fields;
+
+    private FieldSet(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Analyser le paramètre ; un champ hors de {@code allowed} est refusé
+     */
+    public static FieldSet parse(String spec, Set<String> allowed) {
+        if (spec == null || spec.isBlank()) {
+            return ALL;
+        }
+        Set<String> fields = new TreeSet<>();
+        for (String field : spec.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new RuntimeException("Champ inconnu : " + name + " (champs possibles : "
+                        + String.join(", ", new TreeSet<>(allowed)) + ")");
+            }
+            fields.add(name);
+        }
+        return fields.isEmpty() ? ALL : new FieldSet(Collections.unmodifiableSet(fields));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    public boolean includesAny(String... candidates) {
+        return fields == null || Arrays.stream(candidates).anyMatch(fields::contains);
+    }
+
+    /**
+     * Clé stable pour les caches et le regroupement des requêtes simultanées
+     */
+    public String key() {
+        return fields == null ? "*" : String.join(",", fields);
+    }
+
+    /**
+     * Ne garder que les champs demandés, plus les champs toujours renvoyés
+     */
+    public Map<String, Object> retain(Map<String, Object> values, Set<String> alwaysIncluded) {
+        if (fields == null) {
+            return values;
+        }
+        Map<String, Object> retained = new LinkedHashMap<>();
+        values.forEach((name, value) -> {
+            if (fields.contains(name) || alwaysIncluded.contains(name)) {
+                retained.put(name, value);
+            }
+        });
+        return retained;
+    }
+}
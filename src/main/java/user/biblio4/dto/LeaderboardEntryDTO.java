@@ -0,0 +1,22 @@
+package user.biblio4.dto;
+
+import user.biblio4.model.User;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne du classement
+ */
+public record LeaderboardEntryDTO(
+        Long id,
+        String username,
+        String email,
+        User.Role role,
+        User.Level level,
+        LocalDateTime createdAt
+) {
+
+    public static LeaderboardEntryDTO of(User user) {
+        return new LeaderboardEntryDTO(user.getId(), user.getUsername(), user.getEmail(),
+                user.getRole(), user.getLevel(), user.getCreatedAt());
+    }
+}
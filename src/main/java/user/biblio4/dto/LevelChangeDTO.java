@@ -0,0 +1,15 @@
+package user.biblio4.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Niveau modifié dans le flux de changements : les champs de {@link LevelInfoDTO}
+ * au même niveau que les compteurs de tentatives et la version
+ */
+public record LevelChangeDTO(
+        @JsonUnwrapped LevelInfoDTO level,
+        Integer attempts,
+        Integer bestScore,
+        Long changeVersion
+) {
+}
@@ -0,0 +1,22 @@
+package user.biblio4.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progression d'un utilisateur sur un niveau, avec son état
+ * ({@code locked}, {@code unlocked}, {@code in_progress}, {@code ready_for_quiz}, {@code completed})
+ */
+public record LevelInfoDTO(
+        Integer levelNumber,
+        int completedWords,
+        int masteredWords,
+        int totalPoints,
+        boolean quizPassed,
+        Integer quizScore,
+        LocalDateTime unlockedAt,
+        LocalDateTime completedAt,
+        LocalDateTime lastAttempt,
+        String status,
+        int progressPercentage
+) {
+}
@@ -0,0 +1,55 @@
+package user.biblio4.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Page d'un niveau avec l'état de chaque mot (/api/levels/{levelNumber})
+ */
+public record LevelPageDTO(
+        int levelNumber,
+        int totalWords,
+        int learnedWords,
+        int masteredWords,
+        int progressPercentage,
+        Integer totalPoints,
+        boolean quizAvailable,
+        boolean quizPassed,
+        Integer quizScore,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<Word> words,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Boolean nextLevelUnlocked,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Integer nextLevelNumber
+) {
+
+    /**
+     * Mot du niveau : fragment JSON du catalogue (voir CatalogFragmentCache)
+     * complété par l'état d'apprentissage de l'utilisateur
+     */
+    public record Word(SerializedString catalog, boolean learned, boolean mastered) implements JsonSerializable {
+
+        private static final SerializedString[] FLAGS = {
+                new SerializedString(",\"learned\":false,\"mastered\":false}"),
+                new SerializedString(",\"learned\":false,\"mastered\":true}"),
+                new SerializedString(",\"learned\":true,\"mastered\":false}"),
+                new SerializedString(",\"learned\":true,\"mastered\":true}")
+        };
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeRawValue(catalog);
+            gen.writeRaw(FLAGS[(learned ? 2 : 0) + (mastered ? 1 : 0)]);
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen, SerializerProvider serializers,
+                                      TypeSerializer typeSer) throws IOException {
+            serialize(gen, serializers);
+        }
+    }
+}
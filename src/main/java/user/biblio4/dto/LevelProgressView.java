@@ -0,0 +1,41 @@
+package user.biblio4.dto;
+
+import user.biblio4.model.UserProgress;
+import java.time.LocalDateTime;
+
+/**
+ * Projection en lecture seule d'une progression de niveau,
+ * avec le nombre de mots calculé en SQL plutôt que par chargement des collections
+ */
+public record LevelProgressView(
+        Integer levelNumber,
+        Integer completedWords,
+        Integer masteredWords,
+        Integer totalPoints,
+        Boolean quizPassed,
+        Integer quizScore,
+        Integer attempts,
+        Integer bestScore,
+        LocalDateTime unlockedAt,
+        LocalDateTime completedAt,
+        LocalDateTime lastAttempt
+) {
+
+    /**
+     * Même vue construite depuis une entité déjà chargée (chemins d'écriture)
+     */
+    public static LevelProgressView of(UserProgress progress) {
+        return new LevelProgressView(
+                progress.getLevelNumber(),
+                progress.getCompletedWords() != null ? progress.getCompletedWords().size() : 0,
+                progress.getMasteredWords() != null ? progress.getMasteredWords().size() : 0,
+                progress.getTotalPoints(),
+                progress.getQuizPassed(),
+                progress.getQuizScore(),
+                progress.getAttempts(),
+                progress.getBestScore(),
+                progress.getUnlockedAt(),
+                progress.getCompletedAt(),
+                progress.getLastAttempt());
+    }
+}
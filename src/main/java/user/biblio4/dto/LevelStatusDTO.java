@@ -0,0 +1,25 @@
+package user.biblio4.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+
+/**
+ * État d'un niveau pour un utilisateur (niveau non ouvert : compteurs à zéro)
+ */
+public record LevelStatusDTO(
+        Integer levelNumber,
+        Long userId,
+        boolean unlocked,
+        LocalDateTime unlockedAt,
+        Integer completedWords,
+        Integer masteredWords,
+        boolean quizPassed,
+        Integer quizScore,
+        int totalPoints,
+        @JsonProperty("isQuizAvailable") boolean isQuizAvailable
+) {
+
+    public static LevelStatusDTO locked(Long userId, Integer levelNumber) {
+        return new LevelStatusDTO(levelNumber, userId, false, null, 0, 0, false, null, 0, false);
+    }
+}
@@ -0,0 +1,47 @@
+package user.biblio4.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Vue d'ensemble de la progression d'un utilisateur (/api/progress/overall)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverallProgressDTO {
+    private Long userId;
+    private int totalXP;
+    private int coins;
+    private int currentLevel;
+    private int streakDays;
+    private int levelsUnlocked;
+    private int levelsCompleted;
+    private long totalWords;
+    private long wordsLearned;
+    private long wordsMastered;
+    private int totalPoints;
+    private double averageQuizScore;
+    private int completionPercentage;
+    private List<LevelCompletion> levels;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LevelCompletion {
+        private int levelNumber;
+        private long totalWords;
+        private boolean unlocked;
+        private long completedWords;
+        private long masteredWords;
+        private int completionPercentage;
+        private boolean quizPassed;
+        private Integer quizScore;
+        private Integer bestScore;
+    }
+}
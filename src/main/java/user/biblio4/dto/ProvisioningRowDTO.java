@@ -0,0 +1,27 @@
+package user.biblio4.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Résultat d'une ligne d'un import de cohorte (numérotée à partir de 1)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProvisioningRowDTO(
+        int row,
+        String username,
+        String status,
+        Long id,
+        String error
+) {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    public static ProvisioningRowDTO created(int row, String username, Long id) {
+        return new ProvisioningRowDTO(row, username, CREATED, id, null);
+    }
+
+    public static ProvisioningRowDTO rejected(int row, String username, String error) {
+        return new ProvisioningRowDTO(row, username, REJECTED, null, error);
+    }
+}
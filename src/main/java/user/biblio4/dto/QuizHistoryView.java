@@ -0,0 +1,17 @@
+package user.biblio4.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection en lecture seule d'un résultat de quiz par niveau
+ */
+public record QuizHistoryView(
+        Integer levelNumber,
+        Integer quizScore,
+        Boolean quizPassed,
+        Integer attempts,
+        Integer bestScore,
+        LocalDateTime lastAttempt,
+        Integer totalPoints
+) {
+}
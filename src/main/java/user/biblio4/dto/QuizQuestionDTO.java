@@ -0,0 +1,18 @@
+package user.biblio4.dto;
+
+import java.util.List;
+
+/**
+ * Question envoyée au client au démarrage d'un quiz (sans la bonne réponse)
+ */
+public record QuizQuestionDTO(
+        Long id,
+        String questionType,
+        String questionText,
+        List<String> options,
+        String gifUrl,
+        int timeLimit,
+        int points,
+        int requiredScore
+) {
+}
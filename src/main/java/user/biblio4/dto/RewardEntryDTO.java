@@ -0,0 +1,29 @@
+package user.biblio4.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+
+/**
+ * Récompense obtenue par un utilisateur ; seuls les champs du type concerné sont renseignés
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RewardEntryDTO(
+        String type,
+        Integer level,
+        Integer streakDays,
+        String milestone,
+        LocalDateTime date
+) {
+
+    public static RewardEntryDTO levelCompletion(int level, LocalDateTime date) {
+        return new RewardEntryDTO("level_completion", level, null, null, date);
+    }
+
+    public static RewardEntryDTO weeklyStreak(int streakDays, LocalDateTime date) {
+        return new RewardEntryDTO("weekly_streak", null, streakDays, null, date);
+    }
+
+    public static RewardEntryDTO xpMilestone(String milestone, LocalDateTime date) {
+        return new RewardEntryDTO("xp_milestone", null, null, milestone, date);
+    }
+}
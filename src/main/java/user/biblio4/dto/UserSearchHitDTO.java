@@ -0,0 +1,11 @@
+package user.biblio4.dto;
+
+/**
+ * Résultat classé de la recherche d'utilisateurs.
+ * Le score n'est comparable qu'entre résultats d'une même recherche.
+ */
+public record UserSearchHitDTO(
+        UserSummaryDTO user,
+        double score
+) {
+}
@@ -0,0 +1,16 @@
+package user.biblio4.dto;
+
+/**
+ * Statistiques d'apprentissage d'un utilisateur, lues dans le résumé dénormalisé
+ */
+public record UserStatsDTO(
+        Long userId,
+        Long totalWordsLearned,
+        Long totalWordsMastered,
+        Long totalPoints,
+        Long levelsCompleted,
+        double averageQuizScore,
+        Long totalLevelsUnlocked,
+        long timeSpentMinutes
+) {
+}
@@ -0,0 +1,18 @@
+package user.biblio4.dto;
+
+import user.biblio4.model.User;
+import java.time.LocalDateTime;
+
+/**
+ * Projection en lecture seule d'un utilisateur (sans mot de passe)
+ */
+public record UserSummaryDTO(
+        Long id,
+        String username,
+        String email,
+        String nomComplet,
+        User.Role role,
+        User.Level level,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,8 @@
+package user.biblio4.event;
+
+/**
+ * Tous les mots requis d'un niveau appris
+ */
+public record LevelCompletedEvent(Long userId, Integer levelNumber, int xp, int coins)
+        implements RewardEvent {
+}
@@ -0,0 +1,13 @@
+package user.biblio4.event;
+
+/**
+ * Niveau suivant débloqué
+ */
+public record LevelUnlockedEvent(Long userId, Integer levelNumber, int xp, int coins)
+        implements RewardEvent {
+
+    @Override
+    public Integer unlockedLevel() {
+        return levelNumber;
+    }
+}
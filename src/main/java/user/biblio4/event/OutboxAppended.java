@@ -0,0 +1,7 @@
+package user.biblio4.event;
+
+/**
+ * Signal local : de nouveaux événements ont été écrits dans l'outbox
+ */
+public record OutboxAppended(String eventType) {
+}
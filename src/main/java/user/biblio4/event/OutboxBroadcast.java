@@ -0,0 +1,8 @@
+package user.biblio4.event;
+
+/**
+ * Événement relayé depuis l'outbox et republié localement sur chaque nœud.
+ * Peut être reçu plusieurs fois : les écouteurs doivent être idempotents.
+ */
+public record OutboxBroadcast(Long outboxId, RewardEvent event) {
+}
@@ -0,0 +1,9 @@
+package user.biblio4.event;
+
+import java.util.Set;
+
+/**
+ * Publié après le commit d'une transaction ayant modifié la progression ou les récompenses
+ */
+public record ProgressChangedEvent(Set<Long> userIds) {
+}
@@ -0,0 +1,8 @@
+package user.biblio4.event;
+
+/**
+ * Quiz d'un niveau réussi
+ */
+public record QuizPassedEvent(Long userId, Integer levelNumber, Integer score, int xp, int coins)
+        implements RewardEvent {
+}
@@ -0,0 +1,23 @@
+package user.biblio4.event;
+
+/**
+ * Événement métier portant un gain d'XP / de pièces à appliquer
+ * à {@code user_reward_progress} après validation de la transaction
+ */
+public interface RewardEvent {
+
+    Long userId();
+
+    Integer levelNumber();
+
+    int xp();
+
+    int coins();
+
+    /**
+     * Niveau à retenir comme niveau courant (max), null si sans effet
+     */
+    default Integer unlockedLevel() {
+        return null;
+    }
+}
@@ -0,0 +1,7 @@
+package user.biblio4.event;
+
+/**
+ * Publié quand les données d'un utilisateur supprimé ont été purgées
+ */
+public record UserPurgedEvent(Long userId) {
+}
@@ -0,0 +1,8 @@
+package user.biblio4.event;
+
+/**
+ * Mot maîtrisé dans un niveau
+ */
+public record WordMasteredEvent(Long userId, Integer levelNumber, String wordKey, int xp, int coins)
+        implements RewardEvent {
+}
@@ -0,0 +1,52 @@
+package user.biblio4.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Version du catalogue (mots, traductions, questions de quiz), ligne unique.
+ * Toute modification du catalogue, y compris par script d'import, doit
+ * l'incrémenter : {@code UPDATE catalog_version SET version = version + 1 WHERE id = 1}.
+ */
+@Entity
+@Table(name = "catalog_version")
+public class CatalogVersion {
+
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Constructeurs
+    public CatalogVersion() {}
+
+    // Getters et Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,119 @@
+package user.biblio4.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Agrégats de difficulté par question de quiz ou par mot,
+ * alimentés par lots depuis les compteurs en mémoire
+ */
+@Entity
+@Table(name = "item_difficulty_stats",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"item_type", "item_key", "language_code"}),
+       indexes = @Index(name = "idx_difficulty_level_lang", columnList = "level_number, language_code"))
+public class ItemDifficultyStat {
+
+    public enum ItemType {
+        QUESTION,
+        WORD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "item_type", nullable = false, length = 20)
+    private ItemType itemType;
+
+    @Column(name = "item_key", nullable = false, length = 100)
+    private String itemKey;
+
+    @Column(name = "level_number", nullable = false)
+    private Integer levelNumber;
+
+    @Column(name = "language_code", nullable = false, length = 8)
+    private String languageCode;
+
+    @Column(name = "attempts", nullable = false)
+    private Long attempts = 0L;
+
+    @Column(name = "correct", nullable = false)
+    private Long correct = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Constructeurs
+    public ItemDifficultyStat() {}
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ItemType getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(ItemType itemType) {
+        this.itemType = itemType;
+    }
+
+    public String getItemKey() {
+        return itemKey;
+    }
+
+    public void setItemKey(String itemKey) {
+        this.itemKey = itemKey;
+    }
+
+    public Integer getLevelNumber() {
+        return levelNumber;
+    }
+
+    public void setLevelNumber(Integer levelNumber) {
+        this.levelNumber = levelNumber;
+    }
+
+    public String getLanguageCode() {
+        return languageCode;
+    }
+
+    public void setLanguageCode(String languageCode) {
+        this.languageCode = languageCode;
+    }
+
+    public Long getAttempts() {
+        return attempts != null ? attempts : 0L;
+    }
+
+    public void setAttempts(Long attempts) {
+        this.attempts = attempts;
+    }
+
+    public Long getCorrect() {
+        return correct != null ? correct : 0L;
+    }
+
+    public void setCorrect(Long correct) {
+        this.correct = correct;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Méthodes utilitaires
+    public double getFailureRate() {
+        return getAttempts() > 0 ? (double) (getAttempts() - getCorrect()) / getAttempts() : 0.0;
+    }
+}
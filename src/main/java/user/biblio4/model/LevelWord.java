@@ -1,6 +1,8 @@
 package user.biblio4.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import user.biblio4.config.HibernateCacheConfig;
 import lombok.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -8,6 +10,8 @@ import java.util.List;
 
 
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.LEVEL_WORD_REGION)
 @Table(name = "level_word", 
        uniqueConstraints = @UniqueConstraint(columnNames = {"level_number", "display_order"}))
 @Data
@@ -81,6 +85,8 @@ public class LevelWord {
 	}
 	
     @OneToMany(mappedBy = "levelWord", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+            region = HibernateCacheConfig.LEVEL_WORD_TRANSLATIONS_REGION)
     private List<Translation> translations;
 	@Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,13 +1,19 @@
 package user.biblio4.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import user.biblio4.config.HibernateCacheConfig;
 import lombok.*;
+import user.biblio4.service.AnswerGrader;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.QUIZ_QUESTION_REGION)
 @Table(name = "quiz_question")
 @Data
 @NoArgsConstructor
@@ -53,6 +59,7 @@ public class QuizQuestion {
 
 	public void setCorrectAnswer(String correctAnswer) {
 		this.correctAnswer = correctAnswer;
+		this.answerKey = null;
 	}
 
 	public String getOptionsJson() {
@@ -139,6 +146,51 @@ public class QuizQuestion {
     @Column(name = "explanation", length = 500)
     private String explanation;
     
+    // Nombre de fautes de frappe acceptées (questions "typed"), null = selon la longueur
+    @Column(name = "answer_tolerance")
+    private Integer answerTolerance;
+    
+    // Clé de réponse normalisée, calculée une seule fois au chargement
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private AnswerGrader.AnswerKey answerKey;
+    
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    protected void compileAnswerKey() {
+        this.answerKey = AnswerGrader.compile(correctAnswer);
+    }
+    
+    @JsonIgnore
+    public AnswerGrader.AnswerKey getAnswerKey() {
+        if (answerKey == null) {
+            compileAnswerKey();
+        }
+        return answerKey;
+    }
+    
+    /**
+     * Réponse saisie librement, corrigée avec normalisation et tolérance
+     */
+    @JsonIgnore
+    public boolean isTyped() {
+        return AnswerGrader.TYPED.equalsIgnoreCase(questionType);
+    }
+    
+    /**
+     * Tolérance effective : 0 pour les choix multiples, configurée ou dérivée pour "typed"
+     */
+    @JsonIgnore
+    public int getEffectiveTolerance() {
+        if (!isTyped()) {
+            return 0;
+        }
+        return answerTolerance != null ? answerTolerance : AnswerGrader.defaultTolerance(getAnswerKey());
+    }
+    
     public List<String> getOptions() {
         try {
             ObjectMapper mapper = new ObjectMapper();
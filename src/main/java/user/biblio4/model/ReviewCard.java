@@ -0,0 +1,148 @@
+package user.biblio4.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Carte de révision espacée (SM-2) d'un mot maîtrisé par un utilisateur
+ */
+@Entity
+@Table(name = "review_card",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "level_number", "word_key"}),
+       indexes = @Index(name = "idx_review_user_due", columnList = "user_id, due_at"))
+public class ReviewCard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "level_number", nullable = false)
+    private Integer levelNumber;
+
+    @Column(name = "word_key", nullable = false, length = 100)
+    private String wordKey;
+
+    // Intervalle courant en jours
+    @Column(name = "interval_days", nullable = false)
+    private Float intervalDays = 1f;
+
+    @Column(name = "ease", nullable = false)
+    private Float ease = 2.5f;
+
+    @Column(name = "repetitions", nullable = false)
+    private Integer repetitions = 0;
+
+    @Column(name = "lapses", nullable = false)
+    private Integer lapses = 0;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(name = "last_reviewed_at")
+    private LocalDateTime lastReviewedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Constructeurs
+    public ReviewCard() {}
+
+    public ReviewCard(Long userId, Integer levelNumber, String wordKey, LocalDateTime dueAt) {
+        this.userId = userId;
+        this.levelNumber = levelNumber;
+        this.wordKey = wordKey;
+        this.dueAt = dueAt;
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Integer getLevelNumber() {
+        return levelNumber;
+    }
+
+    public void setLevelNumber(Integer levelNumber) {
+        this.levelNumber = levelNumber;
+    }
+
+    public String getWordKey() {
+        return wordKey;
+    }
+
+    public void setWordKey(String wordKey) {
+        this.wordKey = wordKey;
+    }
+
+    public Float getIntervalDays() {
+        return intervalDays;
+    }
+
+    public void setIntervalDays(Float intervalDays) {
+        this.intervalDays = intervalDays;
+    }
+
+    public Float getEase() {
+        return ease;
+    }
+
+    public void setEase(Float ease) {
+        this.ease = ease;
+    }
+
+    public Integer getRepetitions() {
+        return repetitions;
+    }
+
+    public void setRepetitions(Integer repetitions) {
+        this.repetitions = repetitions;
+    }
+
+    public Integer getLapses() {
+        return lapses;
+    }
+
+    public void setLapses(Integer lapses) {
+        this.lapses = lapses;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(LocalDateTime dueAt) {
+        this.dueAt = dueAt;
+    }
+
+    public LocalDateTime getLastReviewedAt() {
+        return lastReviewedAt;
+    }
+
+    public void setLastReviewedAt(LocalDateTime lastReviewedAt) {
+        this.lastReviewedAt = lastReviewedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,117 @@
+package user.biblio4.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Accusé de réception d'un événement hors ligne rejoué via /api/sync,
+ * pour ignorer les doublons envoyés par le client
+ */
+@Entity
+@Table(name = "sync_receipt",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "client_event_id"}))
+public class SyncReceipt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "client_event_id", nullable = false, length = 64)
+    private String clientEventId;
+
+    @Column(name = "event_type", nullable = false, length = 30)
+    private String eventType;
+
+    @Column(name = "level_number")
+    private Integer levelNumber;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "client_timestamp")
+    private LocalDateTime clientTimestamp;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt = LocalDateTime.now();
+
+    // Constructeurs
+    public SyncReceipt() {}
+
+    public SyncReceipt(Long userId, String clientEventId, String eventType, Integer levelNumber,
+                       String status, LocalDateTime clientTimestamp) {
+        this.userId = userId;
+        this.clientEventId = clientEventId;
+        this.eventType = eventType;
+        this.levelNumber = levelNumber;
+        this.status = status;
+        this.clientTimestamp = clientTimestamp;
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getClientEventId() {
+        return clientEventId;
+    }
+
+    public void setClientEventId(String clientEventId) {
+        this.clientEventId = clientEventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public Integer getLevelNumber() {
+        return levelNumber;
+    }
+
+    public void setLevelNumber(Integer levelNumber) {
+        this.levelNumber = levelNumber;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getClientTimestamp() {
+        return clientTimestamp;
+    }
+
+    public void setClientTimestamp(LocalDateTime clientTimestamp) {
+        this.clientTimestamp = clientTimestamp;
+    }
+
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+
+    public void setReceivedAt(LocalDateTime receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+}
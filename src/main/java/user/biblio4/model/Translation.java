@@ -1,9 +1,13 @@
 package user.biblio4.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import user.biblio4.config.HibernateCacheConfig;
 import lombok.*;
 
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.TRANSLATION_REGION)
 @Table(name = "translation", 
        uniqueConstraints = @UniqueConstraint(columnNames = {"word_key", "language_code"}))
 @Data
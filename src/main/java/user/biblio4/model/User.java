@@ -1,6 +1,7 @@
 package user.biblio4.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
 import java.time.LocalDateTime;
 
 /**
@@ -13,6 +14,8 @@ import java.time.LocalDateTime;
            @UniqueConstraint(columnNames = "username"),
            @UniqueConstraint(columnNames = "email")
        })
+// Utilisateurs supprimés : invisibles dès la suppression, purgés ensuite par UserPurgeService
+@SQLRestriction("deleted_at IS NULL")
 public class User {
     
     @Id
@@ -42,6 +45,9 @@ public class User {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt; // date de création automatique
     
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt; // suppression demandée, purge en attente
+    
     // Constructeurs
     public User() {
         this.createdAt = LocalDateTime.now();
@@ -131,6 +137,14 @@ public class User {
         this.createdAt = createdAt;
     }
     
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+    
     // Énumérations pour les rôles et niveaux
     public enum Role {
         ADMIN,
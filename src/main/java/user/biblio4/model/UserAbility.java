@@ -0,0 +1,61 @@
+package user.biblio4.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Estimation de niveau (Elo) d'un utilisateur pour chaque niveau,
+ * stockée sous forme de blob compact (voir AbilityService pour le format)
+ */
+@Entity
+@Table(name = "user_ability")
+public class UserAbility {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "ratings", nullable = false, length = 2048)
+    private byte[] ratings;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Constructeurs
+    public UserAbility() {}
+
+    public UserAbility(Long userId, byte[] ratings) {
+        this.userId = userId;
+        this.ratings = ratings;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters et Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public byte[] getRatings() {
+        return ratings;
+    }
+
+    public void setRatings(byte[] ratings) {
+        this.ratings = ratings;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
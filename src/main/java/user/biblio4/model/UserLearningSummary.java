@@ -0,0 +1,154 @@
+package user.biblio4.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Résumé dénormalisé de l'apprentissage d'un utilisateur, tenu à jour
+ * par incréments dans les chemins d'écriture (voir LearningSummaryService)
+ */
+@Entity
+@Table(name = "user_learning_summary")
+public class UserLearningSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "words_learned", nullable = false)
+    private Long wordsLearned = 0L;
+
+    @Column(name = "words_mastered", nullable = false)
+    private Long wordsMastered = 0L;
+
+    @Column(name = "total_points", nullable = false)
+    private Long totalPoints = 0L;
+
+    @Column(name = "levels_unlocked", nullable = false)
+    private Long levelsUnlocked = 0L;
+
+    @Column(name = "levels_completed", nullable = false)
+    private Long levelsCompleted = 0L;
+
+    // Niveaux dont le quiz a été tenté (quiz_passed non nul)
+    @Column(name = "quizzes_taken", nullable = false)
+    private Long quizzesTaken = 0L;
+
+    @Column(name = "quiz_score_sum", nullable = false)
+    private Long quizScoreSum = 0L;
+
+    @Column(name = "quiz_score_count", nullable = false)
+    private Long quizScoreCount = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Constructeurs
+    public UserLearningSummary() {}
+
+    public UserLearningSummary(Long userId, long[] values) {
+        this.userId = userId;
+        this.wordsLearned = values[0];
+        this.wordsMastered = values[1];
+        this.totalPoints = values[2];
+        this.levelsUnlocked = values[3];
+        this.levelsCompleted = values[4];
+        this.quizzesTaken = values[5];
+        this.quizScoreSum = values[6];
+        this.quizScoreCount = values[7];
+    }
+
+    // Getters et Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getWordsLearned() {
+        return wordsLearned;
+    }
+
+    public void setWordsLearned(Long wordsLearned) {
+        this.wordsLearned = wordsLearned;
+    }
+
+    public Long getWordsMastered() {
+        return wordsMastered;
+    }
+
+    public void setWordsMastered(Long wordsMastered) {
+        this.wordsMastered = wordsMastered;
+    }
+
+    public Long getTotalPoints() {
+        return totalPoints;
+    }
+
+    public void setTotalPoints(Long totalPoints) {
+        this.totalPoints = totalPoints;
+    }
+
+    public Long getLevelsUnlocked() {
+        return levelsUnlocked;
+    }
+
+    public void setLevelsUnlocked(Long levelsUnlocked) {
+        this.levelsUnlocked = levelsUnlocked;
+    }
+
+    public Long getLevelsCompleted() {
+        return levelsCompleted;
+    }
+
+    public void setLevelsCompleted(Long levelsCompleted) {
+        this.levelsCompleted = levelsCompleted;
+    }
+
+    public Long getQuizzesTaken() {
+        return quizzesTaken;
+    }
+
+    public void setQuizzesTaken(Long quizzesTaken) {
+        this.quizzesTaken = quizzesTaken;
+    }
+
+    public Long getQuizScoreSum() {
+        return quizScoreSum;
+    }
+
+    public void setQuizScoreSum(Long quizScoreSum) {
+        this.quizScoreSum = quizScoreSum;
+    }
+
+    public Long getQuizScoreCount() {
+        return quizScoreCount;
+    }
+
+    public void setQuizScoreCount(Long quizScoreCount) {
+        this.quizScoreCount = quizScoreCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Méthodes utilitaires
+    public double getAverageQuizScore() {
+        if (quizScoreCount == null || quizScoreCount == 0) {
+            return 0.0;
+        }
+        return Math.round((double) quizScoreSum / quizScoreCount * 100.0) / 100.0;
+    }
+
+    // Estimation : chaque mot = 5 minutes, chaque quiz = 10 minutes
+    public long getTimeSpentMinutes() {
+        return wordsLearned * 5 + quizzesTaken * 10;
+    }
+}
@@ -1,12 +1,15 @@
 package user.biblio4.model;
 
+import user.biblio4.service.ProgressChangeListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "user_progress")
+@Table(name = "user_progress",
+       indexes = @Index(name = "idx_progress_user_change", columnList = "user_id, change_version"))
+@EntityListeners(ProgressChangeListener.class)
 public class UserProgress {
     
     @Id
@@ -55,6 +58,10 @@ public class UserProgress {
     
     @Column(name = "last_attempt")
     private LocalDateTime lastAttempt;
+
+    // Version de synchronisation (compteur monotone par utilisateur)
+    @Column(name = "change_version")
+    private Long changeVersion;
     
     // Constructeurs
     public UserProgress() {}
@@ -197,4 +204,12 @@ public class UserProgress {
     public boolean isQuizAvailable() {
         return getCompletedWords().size() >= 10;
     }
-}
\ No newline at end of file
+
+    public Long getChangeVersion() {
+        return changeVersion != null ? changeVersion : 0L;
+    }
+
+    public void setChangeVersion(Long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
+}
@@ -1,10 +1,12 @@
 package user.biblio4.model;
 
+import user.biblio4.service.ProgressChangeListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "user_reward_progress")
+@EntityListeners(ProgressChangeListener.class)
 public class UserRewardProgress {
     
     @Id
@@ -38,6 +40,10 @@ public class UserRewardProgress {
     
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Version de synchronisation (compteur monotone par utilisateur)
+    @Column(name = "change_version")
+    private Long changeVersion;
     
     // Constructeurs
     public UserRewardProgress() {}
@@ -160,4 +166,12 @@ public class UserRewardProgress {
     public void resetStreak() {
         this.streakDays = 0;
     }
-}
\ No newline at end of file
+
+    public Long getChangeVersion() {
+        return changeVersion != null ? changeVersion : 0L;
+    }
+
+    public void setChangeVersion(Long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
+}
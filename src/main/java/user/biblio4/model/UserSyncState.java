@@ -0,0 +1,52 @@
+package user.biblio4.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Compteur de versions d'un utilisateur pour la synchronisation différentielle.
+ * La ligne est verrouillée par chaque transaction qui modifie la progression,
+ * ce qui ordonne les versions dans l'ordre des commits.
+ */
+@Entity
+@Table(name = "user_sync_state")
+public class UserSyncState {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Constructeurs
+    public UserSyncState() {}
+
+    // Getters et Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
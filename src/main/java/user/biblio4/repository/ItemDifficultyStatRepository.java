@@ -0,0 +1,27 @@
+package user.biblio4.repository;
+
+import user.biblio4.model.ItemDifficultyStat;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ItemDifficultyStatRepository extends JpaRepository<ItemDifficultyStat, Long> {
+
+    // Classement par taux d'échec décroissant pour un niveau et une langue
+    @Query("SELECT s FROM ItemDifficultyStat s WHERE s.itemType = :itemType " +
+           "AND s.levelNumber = :levelNumber AND s.languageCode = :language " +
+           "AND s.attempts >= :minAttempts " +
+           "ORDER BY (s.attempts - s.correct) * 1.0 / s.attempts DESC, s.attempts DESC")
+    List<ItemDifficultyStat> findHardest(@Param("itemType") ItemDifficultyStat.ItemType itemType,
+                                         @Param("levelNumber") Integer levelNumber,
+                                         @Param("language") String language,
+                                         @Param("minAttempts") long minAttempts,
+                                         Pageable pageable);
+
+    List<ItemDifficultyStat> findByItemTypeAndLevelNumber(ItemDifficultyStat.ItemType itemType, Integer levelNumber);
+}
@@ -1,8 +1,11 @@
 package user.biblio4.repository;
 
 import user.biblio4.model.LevelWord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,14 +17,18 @@ public interface LevelWordRepository extends JpaRepository<LevelWord, Long> {
     
     List<LevelWord> findByLevelNumber(Integer levelNumber);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<LevelWord> findByLevelNumberOrderByDisplayOrderAsc(Integer levelNumber);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<LevelWord> findByWordKey(String wordKey);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<LevelWord> findByWordKeyAndLevelNumber(String wordKey, Integer levelNumber);
     
     List<LevelWord> findByCategory(String category);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(l) FROM LevelWord l WHERE l.levelNumber = :levelNumber")
     Integer countByLevelNumber(@Param("levelNumber") Integer levelNumber);
 }
\ No newline at end of file
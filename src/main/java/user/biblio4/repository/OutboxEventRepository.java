@@ -0,0 +1,16 @@
+package user.biblio4.repository;
+
+import user.biblio4.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Nombre d'événements pas encore relayés
+    long countByProcessedAtIsNull();
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    Long findMaxId();
+}
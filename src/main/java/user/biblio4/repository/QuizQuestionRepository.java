@@ -1,8 +1,11 @@
 package user.biblio4.repository;
 
 import user.biblio4.model.QuizQuestion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +15,7 @@ import java.util.List;
 public interface QuizQuestionRepository extends JpaRepository<QuizQuestion, Long> {
     
     // Trouver les questions par niveau
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<QuizQuestion> findByLevelNumber(Integer levelNumber);
     
     // Trouver des questions aléatoires pour un niveau
@@ -20,6 +24,11 @@ public interface QuizQuestionRepository extends JpaRepository<QuizQuestion, Long
     List<QuizQuestion> findRandomQuestionsByLevel(@Param("levelNumber") Integer levelNumber, 
                                                   @Param("count") int count);
     
+    // Identifiants des questions d'un niveau (sans charger les entités)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT q.id FROM QuizQuestion q WHERE q.levelNumber = :levelNumber ORDER BY q.id")
+    List<Long> findIdsByLevelNumber(@Param("levelNumber") Integer levelNumber);
+    
     // Compter les questions par niveau
     long countByLevelNumber(Integer levelNumber);
 }
\ No newline at end of file
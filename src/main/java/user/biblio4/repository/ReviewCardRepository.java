@@ -0,0 +1,32 @@
+package user.biblio4.repository;
+
+import user.biblio4.model.ReviewCard;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReviewCardRepository extends JpaRepository<ReviewCard, Long> {
+
+    // Prochaines échéances d'un utilisateur (index user_id, due_at)
+    @Query("SELECT c.id, c.dueAt FROM ReviewCard c WHERE c.userId = :userId ORDER BY c.dueAt ASC")
+    List<Object[]> findUpcomingDue(@Param("userId") Long userId, Pageable pageable);
+
+    List<ReviewCard> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    Optional<ReviewCard> findByUserIdAndLevelNumberAndWordKey(Long userId, Integer levelNumber, String wordKey);
+
+    long countByUserIdAndDueAtLessThanEqual(Long userId, LocalDateTime date);
+
+    @Modifying
+    @Query("DELETE FROM ReviewCard c WHERE c.userId = :userId AND c.levelNumber = :levelNumber")
+    int deleteByUserIdAndLevelNumber(@Param("userId") Long userId, @Param("levelNumber") Integer levelNumber);
+}
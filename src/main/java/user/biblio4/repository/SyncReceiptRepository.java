@@ -0,0 +1,18 @@
+package user.biblio4.repository;
+
+import user.biblio4.model.SyncReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SyncReceiptRepository extends JpaRepository<SyncReceipt, Long> {
+
+    // Identifiants client déjà reçus parmi ceux d'un lot
+    @Query("SELECT r.clientEventId FROM SyncReceipt r WHERE r.userId = :userId AND r.clientEventId IN :ids")
+    List<String> findReceivedIds(@Param("userId") Long userId, @Param("ids") Collection<String> ids);
+}
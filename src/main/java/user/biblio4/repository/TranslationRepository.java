@@ -1,26 +1,39 @@
 package user.biblio4.repository;
 
 import user.biblio4.model.Translation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TranslationRepository extends JpaRepository<Translation, Long> {
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Translation> findByWordKeyAndLanguageCode(String wordKey, String languageCode);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Translation> findByWordKey(String wordKey);
     
     List<Translation> findByLanguageCode(String languageCode);
+
+    List<Translation> findByWordKeyInAndLanguageCode(Collection<String> wordKeys, String languageCode);
     List<Translation> findByLanguageCodeAndTextContainingIgnoreCase(String languageCode, String query);
     
     @Query("SELECT t FROM Translation t WHERE t.text LIKE %:query% AND t.languageCode = :language")
     List<Translation> findByTextContainingAndLanguageCode(
             @Param("query") String query, 
             @Param("language") String language);
+
+    @Query("SELECT t.wordKey FROM Translation t WHERE t.languageCode = :language AND t.wordKey IN :wordKeys")
+    List<String> findTranslatedWordKeys(
+            @Param("language") String language,
+            @Param("wordKeys") Collection<String> wordKeys);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package user.biblio4.repository;
+
+import user.biblio4.model.UserAbility;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserAbilityRepository extends JpaRepository<UserAbility, Long> {
+}
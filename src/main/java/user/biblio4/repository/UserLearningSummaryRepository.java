@@ -0,0 +1,9 @@
+package user.biblio4.repository;
+
+import user.biblio4.model.UserLearningSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserLearningSummaryRepository extends JpaRepository<UserLearningSummary, Long> {
+}
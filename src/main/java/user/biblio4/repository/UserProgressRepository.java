@@ -1,5 +1,7 @@
 package user.biblio4.repository;
 
+import user.biblio4.dto.LevelProgressView;
+import user.biblio4.dto.QuizHistoryView;
 import user.biblio4.model.UserProgress;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -7,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +21,12 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
     
     // Trouver tous les progrès d'un utilisateur
     List<UserProgress> findByUserId(Long userId);
+
+    // Progrès modifiés depuis une version de synchronisation (index user_id, change_version)
+    List<UserProgress> findByUserIdAndChangeVersionGreaterThanOrderByLevelNumberAsc(Long userId, Long version);
+
+    // Trouver les progrès d'un utilisateur pour plusieurs niveaux en une requête
+    List<UserProgress> findByUserIdAndLevelNumberIn(Long userId, Collection<Integer> levelNumbers);
     
     // Trouver les progrès récents après une certaine date
     @Query("SELECT up FROM UserProgress up WHERE up.user.id = :userId AND up.lastAttempt >= :date")
@@ -42,4 +51,24 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
     // Compter les niveaux complétés
     @Query("SELECT COUNT(up) FROM UserProgress up WHERE up.user.id = :userId AND up.quizPassed = true")
     Long countCompletedLevelsByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    // ========== PROJECTIONS EN LECTURE SEULE ==========
+
+    @Query("SELECT new user.biblio4.dto.LevelProgressView(up.levelNumber, SIZE(up.completedWords), " +
+           "SIZE(up.masteredWords), up.totalPoints, up.quizPassed, up.quizScore, up.attempts, up.bestScore, " +
+           "up.unlockedAt, up.completedAt, up.lastAttempt) " +
+           "FROM UserProgress up WHERE up.user.id = :userId ORDER BY up.levelNumber")
+    List<LevelProgressView> findLevelViewsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new user.biblio4.dto.LevelProgressView(up.levelNumber, SIZE(up.completedWords), " +
+           "SIZE(up.masteredWords), up.totalPoints, up.quizPassed, up.quizScore, up.attempts, up.bestScore, " +
+           "up.unlockedAt, up.completedAt, up.lastAttempt) " +
+           "FROM UserProgress up WHERE up.user.id = :userId AND up.levelNumber = :levelNumber")
+    Optional<LevelProgressView> findLevelView(@Param("userId") Long userId, @Param("levelNumber") Integer levelNumber);
+
+    @Query("SELECT new user.biblio4.dto.QuizHistoryView(up.levelNumber, up.quizScore, up.quizPassed, " +
+           "up.attempts, up.bestScore, up.lastAttempt, up.totalPoints) " +
+           "FROM UserProgress up WHERE up.user.id = :userId AND up.quizScore IS NOT NULL " +
+           "ORDER BY CASE WHEN up.lastAttempt IS NULL THEN 1 ELSE 0 END, up.lastAttempt DESC")
+    List<QuizHistoryView> findQuizHistoryByUserId(@Param("userId") Long userId);
+}
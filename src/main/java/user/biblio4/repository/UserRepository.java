@@ -1,6 +1,8 @@
 package user.biblio4.repository;
 
+import user.biblio4.dto.UserSummaryDTO;
 import user.biblio4.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,9 +26,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Vérification d'existence
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
-    
-    // Recherche par nom complet (avec LIKE)
-    List<User> findByNomCompletContainingIgnoreCase(String nomComplet);
+
+    // Unicité sur la table brute : un utilisateur supprimé garde son nom et son email jusqu'à la purge
+    @Query(value = "SELECT COUNT(*) FROM utilisateurs WHERE username = :username", nativeQuery = true)
+    long countByUsernameIncludingDeleted(@Param("username") String username);
+
+    @Query(value = "SELECT COUNT(*) FROM utilisateurs WHERE email = :email", nativeQuery = true)
+    long countByEmailIncludingDeleted(@Param("email") String email);
     
     // Recherche par rôle (enum)
     List<User> findByRole(User.Role role);
@@ -37,21 +43,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Recherche par rôle et niveau
     List<User> findByRoleAndLevel(User.Role role, User.Level level);
     
-    // Recherche avancée avec plusieurs critères
-    @Query("SELECT u FROM User u WHERE " +
-           "(:username IS NULL OR u.username LIKE %:username%) AND " +
-           "(:email IS NULL OR u.email LIKE %:email%) AND " +
-           "(:nomComplet IS NULL OR u.nomComplet LIKE %:nomComplet%) AND " +
-           "(:role IS NULL OR u.role = :role) AND " +
-           "(:level IS NULL OR u.level = :level)")
-    List<User> searchUsers(
-        @Param("username") String username,
-        @Param("email") String email,
-        @Param("nomComplet") String nomComplet,
-        @Param("role") User.Role role,
-        @Param("level") User.Level level
-    );
-    
     // Compter les utilisateurs par rôle
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role")
     Long countByRole(@Param("role") User.Role role);
@@ -60,9 +51,41 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.level = :level")
     Long countByLevel(@Param("level") User.Level level);
     
+    // Compter les utilisateurs par couple (rôle, niveau) en une seule requête
+    @Query("SELECT u.role, u.level, COUNT(u) FROM User u GROUP BY u.role, u.level")
+    List<Object[]> countGroupedByRoleAndLevel();
+    
     // Trouver les utilisateurs créés après une certaine date
     List<User> findByCreatedAtAfter(java.time.LocalDateTime date);
     
     // Trouver les utilisateurs créés entre deux dates
     List<User> findByCreatedAtBetween(java.time.LocalDateTime start, java.time.LocalDateTime end);
-}
\ No newline at end of file
+
+    // ========== PROJECTIONS EN LECTURE SEULE (sans mot de passe) ==========
+
+    String SUMMARY_SELECT = "SELECT new user.biblio4.dto.UserSummaryDTO(u.id, u.username, u.email, " +
+            "u.nomComplet, u.role, u.level, u.createdAt) FROM User u ";
+
+    // Pagination par curseur : identifiants strictement supérieurs au dernier de la page précédente
+
+    @Query(SUMMARY_SELECT + "WHERE u.id > :after ORDER BY u.id")
+    List<UserSummaryDTO> findSummariesAfter(@Param("after") Long after, Pageable page);
+
+    @Query(SUMMARY_SELECT + "WHERE u.id = :id")
+    Optional<UserSummaryDTO> findSummaryById(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + "WHERE u.username = :username")
+    Optional<UserSummaryDTO> findSummaryByUsername(@Param("username") String username);
+
+    @Query(SUMMARY_SELECT + "WHERE u.email = :email")
+    Optional<UserSummaryDTO> findSummaryByEmail(@Param("email") String email);
+
+    @Query(SUMMARY_SELECT + "WHERE LOWER(u.nomComplet) LIKE LOWER(CONCAT('%', :nomComplet, '%')) " +
+           "AND u.id > :after ORDER BY u.id")
+    List<UserSummaryDTO> findSummariesByNomCompletAfter(@Param("nomComplet") String nomComplet,
+                                                        @Param("after") Long after, Pageable page);
+
+    @Query(SUMMARY_SELECT + "WHERE u.role = :role AND u.id > :after ORDER BY u.id")
+    List<UserSummaryDTO> findSummariesByRoleAfter(@Param("role") User.Role role,
+                                                  @Param("after") Long after, Pageable page);
+}
@@ -0,0 +1,16 @@
+package user.biblio4.repository;
+
+import user.biblio4.model.UserSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserSyncStateRepository extends JpaRepository<UserSyncState, Long> {
+
+    @Query("SELECT s.version FROM UserSyncState s WHERE s.userId = :userId")
+    Optional<Long> findVersion(@Param("userId") Long userId);
+}
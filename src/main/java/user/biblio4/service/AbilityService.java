@@ -0,0 +1,360 @@
+package user.biblio4.service;
+
+import user.biblio4.event.UserPurgedEvent;
+import user.biblio4.model.ItemDifficultyStat;
+import user.biblio4.model.UserAbility;
+import user.biblio4.repository.ItemDifficultyStatRepository;
+import user.biblio4.repository.QuizQuestionRepository;
+import user.biblio4.repository.UserAbilityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sélection adaptative des questions de quiz.
+ *
+ * Chaque utilisateur a une estimation Elo par niveau, mise à jour à chaque
+ * soumission et persistée en blob compact dans {@code user_ability}.
+ * La difficulté des questions est dérivée des agrégats de
+ * {@link DifficultyStatsService} et conservée par niveau dans des tableaux
+ * primitifs triés par identifiant.
+ *
+ * Les estimations en cache ne sont jamais modifiées en place : une soumission
+ * travaille sur une copie, visible de la suite de sa transaction et publiée
+ * dans le cache après le commit.
+ */
+@Service
+@Slf4j
+public class AbilityService {
+
+    static final float INITIAL_RATING = 1500f;
+
+    private static final byte BLOB_VERSION = 1;
+    private static final float MIN_RATING = 800f;
+    private static final float MAX_RATING = 2200f;
+    private static final float SELECTION_JITTER = 60f;
+
+    private final QuizQuestionRepository quizQuestionRepository;
+    private final ItemDifficultyStatRepository statRepository;
+    private final UserAbilityRepository abilityRepository;
+
+    private final ConcurrentHashMap<Integer, QuestionPool> pools = new ConcurrentHashMap<>();
+    private final Map<Long, Ratings> ratingsCache;
+
+    public AbilityService(
+            QuizQuestionRepository quizQuestionRepository,
+            ItemDifficultyStatRepository statRepository,
+            UserAbilityRepository abilityRepository,
+            @Value("${quiz.adaptive.cache-size:10000}") int cacheSize
+    ) {
+        this.quizQuestionRepository = quizQuestionRepository;
+        this.statRepository = statRepository;
+        this.abilityRepository = abilityRepository;
+        this.ratingsCache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Ratings> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Questions d'un niveau : identifiants triés et difficultés aux mêmes indices
+     */
+    static final class QuestionPool {
+        final long[] ids;
+        final float[] difficulty;
+
+        QuestionPool(long[] ids, float[] difficulty) {
+            this.ids = ids;
+            this.difficulty = difficulty;
+        }
+
+        float difficultyOf(long questionId) {
+            int index = Arrays.binarySearch(ids, questionId);
+            return index >= 0 ? difficulty[index] : INITIAL_RATING;
+        }
+    }
+
+    /**
+     * Estimations d'un utilisateur, indexées par numéro de niveau
+     */
+    static final class Ratings {
+        private float[] rating;
+        private int[] games;
+
+        Ratings(float[] rating, int[] games) {
+            this.rating = rating;
+            this.games = games;
+        }
+
+        synchronized Ratings copy() {
+            return new Ratings(rating.clone(), games.clone());
+        }
+
+        synchronized float get(int level) {
+            return level < rating.length && games[level] > 0 ? rating[level] : INITIAL_RATING;
+        }
+
+        synchronized void update(int level, float questionDifficulty, boolean correct) {
+            if (level >= rating.length) {
+                int size = level + 1;
+                float[] grownRating = Arrays.copyOf(rating, size);
+                int[] grownGames = Arrays.copyOf(games, size);
+                Arrays.fill(grownRating, rating.length, size, INITIAL_RATING);
+                rating = grownRating;
+                games = grownGames;
+            }
+            float current = games[level] > 0 ? rating[level] : INITIAL_RATING;
+            double expected = 1.0 / (1.0 + Math.pow(10.0, (questionDifficulty - current) / 400.0));
+            float k = games[level] < 30 ? 32f : 16f;
+            rating[level] = clamp((float) (current + k * ((correct ? 1.0 : 0.0) - expected)));
+            games[level]++;
+        }
+
+        // Format : version (1 octet), nombre d'entrées (2), puis niveau (2) / note (4) / parties (4)
+        synchronized byte[] encode() {
+            int count = 0;
+            for (int level = 0; level < rating.length; level++) {
+                if (games[level] > 0) {
+                    count++;
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(3 + count * 10);
+            buffer.put(BLOB_VERSION);
+            buffer.putShort((short) count);
+            for (int level = 0; level < rating.length; level++) {
+                if (games[level] > 0) {
+                    buffer.putShort((short) level);
+                    buffer.putFloat(rating[level]);
+                    buffer.putInt(games[level]);
+                }
+            }
+            return buffer.array();
+        }
+
+        static Ratings decode(byte[] blob) {
+            if (blob == null || blob.length < 3 || blob[0] != BLOB_VERSION) {
+                return empty();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(blob);
+            buffer.get();
+            int count = buffer.getShort();
+            float[] rating = new float[0];
+            int[] games = new int[0];
+            for (int i = 0; i < count && buffer.remaining() >= 10; i++) {
+                int level = buffer.getShort();
+                if (level >= rating.length) {
+                    rating = Arrays.copyOf(rating, level + 1);
+                    games = Arrays.copyOf(games, level + 1);
+                }
+                rating[level] = buffer.getFloat();
+                games[level] = buffer.getInt();
+            }
+            return new Ratings(rating, games);
+        }
+
+        static Ratings empty() {
+            return new Ratings(new float[0], new int[0]);
+        }
+    }
+
+    /**
+     * Estimation courante d'un utilisateur pour un niveau
+     */
+    @Transactional(readOnly = true)
+    public float getRating(Long userId, Integer levelNumber) {
+        return ratingsOf(userId).get(levelNumber);
+    }
+
+    /**
+     * Choisir les questions dont la difficulté est la plus proche de l'estimation de l'utilisateur
+     */
+    @Transactional(readOnly = true)
+    public List<Long> selectQuestionIds(Long userId, Integer levelNumber, int count) {
+        QuestionPool pool = poolOf(levelNumber);
+        int n = pool.ids.length;
+        if (n == 0 || count <= 0) {
+            return List.of();
+        }
+        int k = Math.min(count, n);
+        float target = ratingsOf(userId).get(levelNumber);
+
+        // Top-k par insertion : O(n·k) sans tri ni allocation par candidat
+        long[] bestIds = new long[k];
+        float[] bestScores = new float[k];
+        Arrays.fill(bestScores, Float.MAX_VALUE);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int i = 0; i < n; i++) {
+            float score = Math.abs(pool.difficulty[i] - target) + random.nextFloat() * SELECTION_JITTER;
+            if (score >= bestScores[k - 1]) {
+                continue;
+            }
+            int j = k - 1;
+            while (j > 0 && bestScores[j - 1] > score) {
+                bestScores[j] = bestScores[j - 1];
+                bestIds[j] = bestIds[j - 1];
+                j--;
+            }
+            bestScores[j] = score;
+            bestIds[j] = pool.ids[i];
+        }
+
+        List<Long> selected = new ArrayList<>(k);
+        for (long id : bestIds) {
+            selected.add(id);
+        }
+        return selected;
+    }
+
+    /**
+     * Mettre à jour l'estimation après correction d'un quiz
+     */
+    @Transactional
+    public float recordResults(Long userId, Integer levelNumber, long[] questionIds, boolean[] correct, int count) {
+        QuestionPool pool = poolOf(levelNumber);
+        Ratings ratings = ratingsOf(userId).copy();
+        for (int i = 0; i < count; i++) {
+            ratings.update(levelNumber, pool.difficultyOf(questionIds[i]), correct[i]);
+        }
+        abilityRepository.save(new UserAbility(userId, ratings.encode()));
+        Map<Long, Ratings> pending = pending();
+        if (pending != null) {
+            pending.put(userId, ratings);
+        } else {
+            ratingsCache.put(userId, ratings);
+        }
+        return ratings.get(levelNumber);
+    }
+
+    @EventListener
+    public void onUserPurged(UserPurgedEvent event) {
+        ratingsCache.remove(event.userId());
+    }
+
+    /**
+     * Oublier le pool d'un niveau (nouvelle question créée)
+     */
+    public void evictLevel(Integer levelNumber) {
+        pools.remove(levelNumber);
+    }
+
+    /**
+     * Reconstruire les pools à partir des derniers agrégats vidés
+     */
+    @Scheduled(fixedDelayString = "${quiz.adaptive.pool-refresh-ms:60000}")
+    public void refreshPools() {
+        pools.clear();
+    }
+
+    private Ratings ratingsOf(Long userId) {
+        Map<Long, Ratings> pending = pending();
+        if (pending != null && pending.containsKey(userId)) {
+            return pending.get(userId);
+        }
+        Ratings cached = ratingsCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        // Chargement paresseux du blob
+        Ratings loaded = abilityRepository.findById(userId)
+                .map(ability -> Ratings.decode(ability.getRatings()))
+                .orElseGet(Ratings::empty);
+        Ratings existing = ratingsCache.putIfAbsent(userId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Estimations modifiées par la transaction courante, publiées au commit.
+     * Sans transaction : null, le cache est mis à jour directement.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, Ratings> pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Map<Long, Ratings> pending = (Map<Long, Ratings>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, Ratings> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ratingsCache.putAll(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AbilityService.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private QuestionPool poolOf(Integer levelNumber) {
+        QuestionPool pool = pools.get(levelNumber);
+        if (pool == null) {
+            pool = buildPool(levelNumber);
+            pools.put(levelNumber, pool);
+        }
+        return pool;
+    }
+
+    private QuestionPool buildPool(Integer levelNumber) {
+        List<Long> questionIds = quizQuestionRepository.findIdsByLevelNumber(levelNumber);
+        long[] ids = new long[questionIds.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = questionIds.get(i);
+        }
+        Arrays.sort(ids);
+
+        // Agréger tentatives / réussites toutes langues confondues
+        long[] attempts = new long[ids.length];
+        long[] correct = new long[ids.length];
+        for (ItemDifficultyStat stat : statRepository
+                .findByItemTypeAndLevelNumber(ItemDifficultyStat.ItemType.QUESTION, levelNumber)) {
+            int index;
+            try {
+                index = Arrays.binarySearch(ids, Long.parseLong(stat.getItemKey()));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (index >= 0) {
+                attempts[index] += stat.getAttempts();
+                correct[index] += stat.getCorrect();
+            }
+        }
+
+        float[] difficulty = new float[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            difficulty[i] = difficultyFrom(attempts[i], correct[i]);
+        }
+        log.debug("Built adaptive question pool for level {} ({} questions)", levelNumber, ids.length);
+        return new QuestionPool(ids, difficulty);
+    }
+
+    /**
+     * Taux de réussite lissé (Laplace) converti sur l'échelle Elo
+     */
+    static float difficultyFrom(long attempts, long correct) {
+        double successRate = (correct + 1.0) / (attempts + 2.0);
+        return clamp((float) (INITIAL_RATING + 400.0 * Math.log10((1.0 - successRate) / successRate)));
+    }
+
+    private static float clamp(float rating) {
+        return Math.max(MIN_RATING, Math.min(MAX_RATING, rating));
+    }
+}
@@ -0,0 +1,239 @@
+package user.biblio4.service;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * Correction tolérante des réponses saisies (questions de type "typed").
+ *
+ * La clé de réponse est normalisée une seule fois au chargement de la question
+ * (NFKC, suppression des accents / tashkeel, casse) puis comparée à la réponse
+ * de l'apprenant avec la distance d'édition bit-parallèle de Myers.
+ * La comparaison n'alloue rien : les tampons sont réutilisés par thread.
+ */
+public final class AnswerGrader {
+
+    public static final String TYPED = "typed";
+
+    private static final int MAX_BUFFER = 512;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[MAX_BUFFER]);
+    private static final ThreadLocal<int[]> ROW = ThreadLocal.withInitial(() -> new int[MAX_BUFFER + 1]);
+
+    private AnswerGrader() {
+    }
+
+    /**
+     * Clé de réponse précalculée : texte normalisé et table Peq de Myers.
+     */
+    public static final class AnswerKey {
+        private final char[] text;
+        private final char[] alphabet;
+        private final long[] masks;
+
+        private AnswerKey(char[] text) {
+            this.text = text;
+
+            char[] sorted = text.clone();
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            this.alphabet = Arrays.copyOf(sorted, distinct);
+            this.masks = new long[distinct];
+
+            if (text.length <= 64) {
+                for (int i = 0; i < text.length; i++) {
+                    masks[Arrays.binarySearch(alphabet, text[i])] |= 1L << i;
+                }
+            }
+        }
+
+        public int length() {
+            return text.length;
+        }
+
+        public String text() {
+            return new String(text);
+        }
+
+        private long peq(char c) {
+            int index = Arrays.binarySearch(alphabet, c);
+            return index >= 0 ? masks[index] : 0L;
+        }
+    }
+
+    /**
+     * Normaliser une clé de réponse (appelé une fois par question chargée)
+     */
+    public static AnswerKey compile(String correctAnswer) {
+        if (correctAnswer == null) {
+            return new AnswerKey(new char[0]);
+        }
+        String decomposed = Normalizer.normalize(correctAnswer, Normalizer.Form.NFKD);
+        char[] out = new char[decomposed.length()];
+        int length = fold(decomposed, out);
+        return new AnswerKey(Arrays.copyOf(out, length));
+    }
+
+    /**
+     * Tolérance par défaut selon la longueur de la clé normalisée
+     */
+    public static int defaultTolerance(AnswerKey key) {
+        int length = key.length();
+        if (length <= 4) {
+            return 0;
+        } else if (length <= 8) {
+            return 1;
+        }
+        return 2;
+    }
+
+    /**
+     * Vérifier si la réponse est à au plus {@code tolerance} modifications de la clé
+     */
+    public static boolean matches(AnswerKey key, String answer, int tolerance) {
+        if (answer == null) {
+            return false;
+        }
+
+        String source = answer;
+        if (!isAscii(answer)) {
+            // Seul cas qui alloue : décomposition des caractères accentués / arabes
+            source = Normalizer.normalize(answer, Normalizer.Form.NFKD);
+        }
+        if (source.length() > MAX_BUFFER) {
+            return false;
+        }
+
+        char[] buffer = BUFFER.get();
+        int length = fold(source, buffer);
+
+        if (Math.abs(length - key.length()) > tolerance) {
+            return false;
+        }
+        if (key.length() == 0) {
+            return length == 0;
+        }
+        if (key.length() <= 64) {
+            return myers(key, buffer, length, tolerance) <= tolerance;
+        }
+        return levenshtein(key.text, buffer, length, tolerance) <= tolerance;
+    }
+
+    /**
+     * Distance d'édition globale de Myers/Hyyrö pour une clé de 64 caractères au plus
+     */
+    private static int myers(AnswerKey key, char[] text, int length, int tolerance) {
+        int m = key.length();
+        long highBit = 1L << (m - 1);
+        long pv = m == 64 ? -1L : (1L << m) - 1;
+        long mv = 0L;
+        int score = m;
+
+        for (int j = 0; j < length; j++) {
+            long eq = key.peq(text[j]);
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+
+            if ((ph & highBit) != 0) {
+                score++;
+            } else if ((mh & highBit) != 0) {
+                score--;
+            }
+
+            // Le score ne peut baisser que d'une unité par caractère restant
+            if (score - (length - j - 1) > tolerance) {
+                return score;
+            }
+
+            ph = (ph << 1) | 1L;
+            mh = mh << 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+        }
+        return score;
+    }
+
+    /**
+     * Repli en programmation dynamique pour les clés plus longues que 64 caractères
+     */
+    private static int levenshtein(char[] key, char[] text, int length, int tolerance) {
+        int[] row = ROW.get();
+        for (int j = 0; j <= length; j++) {
+            row[j] = j;
+        }
+        for (int i = 1; i <= key.length; i++) {
+            int diagonal = row[0];
+            row[0] = i;
+            int rowMin = row[0];
+            for (int j = 1; j <= length; j++) {
+                int above = row[j];
+                int cost = key[i - 1] == text[j - 1] ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j] + 1, row[j - 1] + 1), diagonal + cost);
+                diagonal = above;
+                rowMin = Math.min(rowMin, row[j]);
+            }
+            if (rowMin > tolerance) {
+                return rowMin;
+            }
+        }
+        return row[length];
+    }
+
+    /**
+     * Replier une chaîne décomposée : suppression des diacritiques et du tatweel,
+     * casse, variantes de lettres arabes, espaces et ponctuation compactés.
+     */
+    private static int fold(String source, char[] out) {
+        int length = 0;
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            int type = Character.getType(c);
+
+            if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                    || type == Character.FORMAT || c == 'ـ') {
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                pendingSpace = length > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out[length++] = ' ';
+                pendingSpace = false;
+            }
+            out[length++] = foldLetter(c);
+        }
+        return length;
+    }
+
+    private static char foldLetter(char c) {
+        switch (c) {
+            case 'ى': // alif maqsura
+                return 'ي';
+            case 'ة': // taa marbuta
+                return 'ه';
+            case 'ß':
+                return 's';
+            default:
+                return Character.toLowerCase(c);
+        }
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
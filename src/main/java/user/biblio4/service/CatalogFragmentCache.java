@@ -0,0 +1,261 @@
+package user.biblio4.service;
+
+import user.biblio4.dto.FieldSet;
+import user.biblio4.dto.QuizQuestionDTO;
+import user.biblio4.model.LevelWord;
+import user.biblio4.model.QuizQuestion;
+import user.biblio4.model.Translation;
+import user.biblio4.repository.TranslationRepository;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Fragments JSON pré-sérialisés du catalogue, communs à tous les apprenants.
+ *
+ * Un mot (par langue) est mis en cache sous forme d'objet JSON ouvert, sans
+ * accolade fermante : la page de niveau y ajoute les indicateurs propres à
+ * l'utilisateur. Une question de quiz est mise en cache entière. Les octets
+ * UTF-8 sont calculés une fois et recopiés tels quels dans la réponse.
+ *
+ * L'ensemble des fragments est lié à la version du catalogue
+ * ({@code catalog_version}) ; un changement de version les remplace tous
+ * et vide les régions du catalogue dans le cache de second niveau.
+ */
+@Service
+@Slf4j
+public class CatalogFragmentCache {
+
+    private static final String ENSURE_SQL =
+            "INSERT INTO catalog_version (id, version, updated_at) VALUES (1, 0, ?) " +
+            "ON DUPLICATE KEY UPDATE id = id";
+    private static final String BUMP_SQL =
+            "UPDATE catalog_version SET version = version + 1, updated_at = ? WHERE id = 1";
+
+    private final TranslationRepository translationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int maxEntries;
+
+    private volatile Fragments fragments = new Fragments(-1);
+
+    public CatalogFragmentCache(
+            TranslationRepository translationRepository,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${catalog.fragments.max-entries:50000}") int maxEntries
+    ) {
+        this.translationRepository = translationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.maxEntries = maxEntries;
+    }
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate.update(ENSURE_SQL, Timestamp.valueOf(LocalDateTime.now()));
+        refreshVersion();
+    }
+
+    /**
+     * Fragment d'un mot dans une langue : objet JSON sans accolade fermante.
+     * La traduction n'est lue qu'en l'absence de fragment.
+     */
+    public SerializedString wordFragment(LevelWord word, String language) {
+        Fragments current = fragments;
+        String key = word.getId() + ":" + language;
+        SerializedString fragment = current.words.get(key);
+        if (fragment != null) {
+            return fragment;
+        }
+        Translation translation = translationRepository
+                .findByWordKeyAndLanguageCode(word.getWordKey(), language)
+                .orElse(null);
+        String json = write(new WordEntry(
+                word.getId(),
+                word.getWordKey(),
+                word.getCategory(),
+                word.getPoints() != null ? word.getPoints() : 10,
+                word.getDisplayOrder() != null ? word.getDisplayOrder() : 0,
+                translation != null ? translation.getText() : null,
+                translation != null ? translation.getGifUrl() : null,
+                translation != null ? translation.getAudioUrl() : null));
+        return current.put(current.words, key, json.substring(0, json.length() - 1));
+    }
+
+    /**
+     * Fragment d'un mot réduit aux champs demandés ({@code wordKey} toujours présent).
+     * La traduction n'est lue que si le texte ou un média est demandé.
+     */
+    public SerializedString wordFragment(LevelWord word, String language, FieldSet fields) {
+        if (fields.isAll()) {
+            return wordFragment(word, language);
+        }
+        boolean withTranslation = fields.includesAny("text", "gifUrl", "audioUrl");
+        Fragments current = fragments;
+        String key = "w:" + word.getId() + ":" + (withTranslation ? language : "-") + ":" + fields.key();
+        SerializedString fragment = current.sparse.get(key);
+        if (fragment != null) {
+            return fragment;
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        if (fields.includes("id")) {
+            entry.put("id", word.getId());
+        }
+        entry.put("wordKey", word.getWordKey());
+        if (fields.includes("category")) {
+            entry.put("category", word.getCategory());
+        }
+        if (fields.includes("points")) {
+            entry.put("points", word.getPoints() != null ? word.getPoints() : 10);
+        }
+        if (fields.includes("displayOrder")) {
+            entry.put("displayOrder", word.getDisplayOrder() != null ? word.getDisplayOrder() : 0);
+        }
+        if (withTranslation) {
+            translationRepository.findByWordKeyAndLanguageCode(word.getWordKey(), language).ifPresent(translation -> {
+                putIfRequested(entry, fields, "text", translation.getText());
+                putIfRequested(entry, fields, "gifUrl", translation.getGifUrl());
+                putIfRequested(entry, fields, "audioUrl", translation.getAudioUrl());
+            });
+        }
+        String json = write(entry);
+        return current.put(current.sparse, key, json.substring(0, json.length() - 1));
+    }
+
+    /**
+     * Fragment complet d'une question de quiz
+     */
+    public SerializedString questionFragment(QuizQuestion question, Function<QuizQuestion, QuizQuestionDTO> mapper) {
+        Fragments current = fragments;
+        SerializedString fragment = current.questions.get(question.getId());
+        if (fragment != null) {
+            return fragment;
+        }
+        return current.put(current.questions, question.getId(), write(mapper.apply(question)));
+    }
+
+    /**
+     * Fragment d'une question réduit aux champs demandés
+     */
+    public SerializedString questionFragment(QuizQuestion question, FieldSet fields,
+                                             Function<QuizQuestion, Map<String, Object>> mapper) {
+        Fragments current = fragments;
+        String key = "q:" + question.getId() + ":" + fields.key();
+        SerializedString fragment = current.sparse.get(key);
+        if (fragment != null) {
+            return fragment;
+        }
+        return current.put(current.sparse, key, write(mapper.apply(question)));
+    }
+
+    public long getCatalogVersion() {
+        return fragments.version;
+    }
+
+    /**
+     * Incrémenter la version après une modification du catalogue par l'application
+     */
+    public void bumpVersion() {
+        jdbcTemplate.update(BUMP_SQL, Timestamp.valueOf(LocalDateTime.now()));
+        refreshVersion();
+    }
+
+    /**
+     * Relire la version : les autres instances et les imports la font évoluer
+     */
+    @Scheduled(fixedDelayString = "${catalog.version.poll-ms:30000}")
+    public void refreshVersion() {
+        Long version = jdbcTemplate.queryForObject(
+                "SELECT version FROM catalog_version WHERE id = 1", Long.class);
+        if (version != null && version != fragments.version) {
+            log.info("Catalog version {} -> {}, dropping JSON fragments and cached catalog entities",
+                    fragments.version, version);
+            fragments = new Fragments(version);
+            evictSecondLevelCache();
+        }
+    }
+
+    /**
+     * Les imports passent hors d'Hibernate : vider aussi les régions du catalogue
+     */
+    private void evictSecondLevelCache() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(LevelWord.class);
+        cache.evictEntityData(Translation.class);
+        cache.evictEntityData(QuizQuestion.class);
+        cache.evictCollectionData(LevelWord.class.getName() + ".translations");
+        cache.evictQueryRegions();
+    }
+
+    private static void putIfRequested(Map<String, Object> entry, FieldSet fields, String name, Object value) {
+        if (value != null && fields.includes(name)) {
+            entry.put(name, value);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Sérialisation du catalogue impossible", e);
+        }
+    }
+
+    /**
+     * Partie d'un mot identique pour tous les apprenants
+     */
+    record WordEntry(
+            Long id,
+            String wordKey,
+            String category,
+            int points,
+            int displayOrder,
+            @JsonInclude(JsonInclude.Include.NON_NULL) String text,
+            @JsonInclude(JsonInclude.Include.NON_NULL) String gifUrl,
+            @JsonInclude(JsonInclude.Include.NON_NULL) String audioUrl
+    ) {
+    }
+
+    private final class Fragments {
+        final long version;
+        final Map<String, SerializedString> words = new ConcurrentHashMap<>();
+        final Map<Long, SerializedString> questions = new ConcurrentHashMap<>();
+        // Variantes réduites par le paramètre fields (mots et questions)
+        final Map<String, SerializedString> sparse = new ConcurrentHashMap<>();
+
+        Fragments(long version) {
+            this.version = version;
+        }
+
+        <K> SerializedString put(Map<K, SerializedString> target, K key, String json) {
+            SerializedString fragment = new SerializedString(json);
+            fragment.asUnquotedUTF8(); // encoder une seule fois
+            if (words.size() + questions.size() + sparse.size() < maxEntries) {
+                target.put(key, fragment);
+            }
+            return fragment;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package user.biblio4.service;
+
+import user.biblio4.event.ProgressChangedEvent;
+import user.biblio4.repository.UserSyncStateRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Versions monotones par utilisateur pour la synchronisation différentielle.
+ *
+ * Une transaction qui modifie la progression d'un utilisateur incrémente une
+ * seule fois son compteur dans {@code user_sync_state} ; toutes les lignes
+ * écrites par cette transaction portent la même version. Après le commit,
+ * un {@link ProgressChangedEvent} signale les utilisateurs modifiés.
+ */
+@Service
+public class ChangeTracker {
+
+    private static final String BUMP_SQL =
+            "INSERT INTO user_sync_state (user_id, version, updated_at) VALUES (?, 1, ?) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1, updated_at = VALUES(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserSyncStateRepository syncStateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ChangeTracker(JdbcTemplate jdbcTemplate, UserSyncStateRepository syncStateRepository,
+                         ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.syncStateRepository = syncStateRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Version attribuée aux écritures de la transaction courante pour un utilisateur
+     */
+    public long versionFor(Long userId) {
+        return versionsFor(List.of(userId)).get(userId);
+    }
+
+    /**
+     * Versions de plusieurs utilisateurs, incrémentées par lot
+     */
+    public Map<Long, Long> versionsFor(Collection<Long> userIds) {
+        Map<Long, Long> assigned = transactionVersions();
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (!assigned.containsKey(userId) && !missing.contains(userId)) {
+                missing.add(userId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> batch = new ArrayList<>(missing.size());
+            for (Long userId : missing) {
+                batch.add(new Object[] { userId, now });
+            }
+            jdbcTemplate.batchUpdate(BUMP_SQL, batch);
+
+            String placeholders = String.join(",", Collections.nCopies(missing.size(), "?"));
+            jdbcTemplate.query("SELECT user_id, version FROM user_sync_state WHERE user_id IN (" + placeholders + ")",
+                    rs -> {
+                        assigned.put(rs.getLong("user_id"), rs.getLong("version"));
+                    }, missing.toArray());
+        }
+
+        Map<Long, Long> versions = new HashMap<>();
+        for (Long userId : userIds) {
+            versions.put(userId, assigned.get(userId));
+        }
+        return versions;
+    }
+
+    /**
+     * Dernière version validée d'un utilisateur (0 si aucune écriture)
+     */
+    public long currentVersion(Long userId) {
+        return syncStateRepository.findVersion(userId).orElse(0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Long> transactionVersions() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashMap<>();
+        }
+        Map<Long, Long> versions = (Map<Long, Long>) TransactionSynchronizationManager.getResource(this);
+        if (versions == null) {
+            Map<Long, Long> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // Invalidation des caches locaux par utilisateur
+                    eventPublisher.publishEvent(new ProgressChangedEvent(Set.copyOf(created.keySet())));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeTracker.this);
+                }
+            });
+            versions = created;
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,136 @@
+package user.biblio4.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Tableau de bord de l'écran d'accueil : statistiques, niveaux, semaine,
+ * récompenses et classement lus en parallèle sur des threads virtuels.
+ *
+ * Chaque partie s'exécute dans sa propre transaction en lecture seule, avec le
+ * contexte de sécurité de la requête. Une partie qui dépasse
+ * {@code dashboard.part-timeout-ms} (ou qui échoue) est omise : la réponse
+ * reste partielle et liste les parties manquantes.
+ */
+@Service
+@Slf4j
+public class DashboardService {
+
+    public static final String TIMEOUT = "timeout";
+    public static final String ERROR = "error";
+
+    private final LevelService levelService;
+    private final ProgressService progressService;
+    private final RewardService rewardService;
+    private final TransactionTemplate readOnlyTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long partTimeoutMs;
+    private final int leaderboardSize;
+
+    private final ExecutorService partExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dashboard-", 0).factory());
+
+    public DashboardService(
+            LevelService levelService,
+            ProgressService progressService,
+            RewardService rewardService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${dashboard.part-timeout-ms:1000}") long partTimeoutMs,
+            @Value("${dashboard.leaderboard-size:10}") int leaderboardSize
+    ) {
+        this.levelService = levelService;
+        this.progressService = progressService;
+        this.rewardService = rewardService;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.partTimeoutMs = partTimeoutMs;
+        this.leaderboardSize = leaderboardSize;
+    }
+
+    /**
+     * Parties disponibles ({@code parts}) et parties omises ({@code missing}, avec la cause)
+     */
+    public Map<String, Object> getDashboard(Long userId) {
+        Map<String, Supplier<Object>> parts = new LinkedHashMap<>();
+        parts.put("stats", () -> levelService.getUserStats(userId));
+        parts.put("levels", () -> levelService.getUserLevels(userId));
+        parts.put("weeklyStats", () -> progressService.getWeeklyStats(userId));
+        parts.put("rewards", () -> rewardService.getUserProgress(userId));
+        parts.put("leaderboard", () -> progressService.getLeaderboard("xp", leaderboardSize));
+
+        // Même principal pour toutes les parties
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        long start = System.nanoTime();
+        Map<String, Future<Object>> futures = new LinkedHashMap<>();
+        parts.forEach((name, part) -> futures.put(name, partExecutor.submit(
+                DelegatingSecurityContextCallable.create(() -> readOnlyTemplate.execute(status -> part.get()),
+                        securityContext))));
+
+        Map<String, Object> found = new LinkedHashMap<>();
+        Map<String, String> missing = new LinkedHashMap<>();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(partTimeoutMs);
+        for (Map.Entry<String, Future<Object>> entry : futures.entrySet()) {
+            String name = entry.getKey();
+            Future<Object> future = entry.getValue();
+            String outcome = "ok";
+            try {
+                found.put(name, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // Sans interruption : la requête JDBC en cours se termine et rend sa connexion
+                future.cancel(false);
+                outcome = TIMEOUT;
+            } catch (ExecutionException e) {
+                log.warn("Dashboard part {} failed for user {}: {}", name, userId, e.getCause().getMessage());
+                outcome = ERROR;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(false);
+                outcome = TIMEOUT;
+            }
+            if (!"ok".equals(outcome)) {
+                missing.put(name, outcome);
+            }
+            partTimer(name, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        dashboard.put("parts", found);
+        dashboard.put("missing", missing);
+        dashboard.put("partial", !missing.isEmpty());
+        return dashboard;
+    }
+
+    private Timer partTimer(String part, String outcome) {
+        return Timer.builder("dashboard.part")
+                .description("Durée d'une partie du tableau de bord jusqu'à sa réception")
+                .tag("part", part)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,182 @@
+package user.biblio4.service;
+
+import user.biblio4.dto.DifficultyRankDTO;
+import user.biblio4.model.ItemDifficultyStat;
+import user.biblio4.model.ItemDifficultyStat.ItemType;
+import user.biblio4.repository.ItemDifficultyStatRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Statistiques de difficulté par question et par mot.
+ *
+ * Le chemin critique (correction d'un quiz, maîtrise d'un mot) incrémente
+ * uniquement des compteurs {@link LongAdder} en mémoire ; une tâche planifiée
+ * vide les deltas par lots dans {@code item_difficulty_stats}.
+ */
+@Service
+@Slf4j
+public class DifficultyStatsService {
+
+    static final String UNKNOWN_LANGUAGE = "und";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO item_difficulty_stats " +
+            "(item_type, item_key, level_number, language_code, attempts, correct, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE attempts = attempts + VALUES(attempts), " +
+            "correct = correct + VALUES(correct), level_number = VALUES(level_number), " +
+            "updated_at = VALUES(updated_at)";
+
+    private final ItemDifficultyStatRepository statRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<StatKey, Counter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public DifficultyStatsService(ItemDifficultyStatRepository statRepository, JdbcTemplate jdbcTemplate) {
+        this.statRepository = statRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    private record StatKey(ItemType type, String itemKey, int levelNumber, String language) {
+    }
+
+    private static final class Counter {
+        final LongAdder attempts = new LongAdder();
+        final LongAdder correct = new LongAdder();
+    }
+
+    /**
+     * Enregistrer une réponse à une question de quiz
+     */
+    public void recordQuestion(Long questionId, Integer levelNumber, String language, boolean correct) {
+        if (questionId == null || levelNumber == null) {
+            return;
+        }
+        record(new StatKey(ItemType.QUESTION, questionId.toString(), levelNumber, normalizeLanguage(language)), correct);
+    }
+
+    /**
+     * Enregistrer une tentative de maîtrise d'un mot
+     */
+    public void recordWord(String wordKey, Integer levelNumber, String language, boolean correct) {
+        if (wordKey == null || levelNumber == null) {
+            return;
+        }
+        record(new StatKey(ItemType.WORD, wordKey, levelNumber, normalizeLanguage(language)), correct);
+    }
+
+    private void record(StatKey key, boolean correct) {
+        Counter counter = counters.computeIfAbsent(key, k -> new Counter());
+        counter.attempts.increment();
+        if (correct) {
+            counter.correct.increment();
+        }
+    }
+
+    /**
+     * Vider les compteurs en mémoire vers la table des statistiques
+     */
+    @Scheduled(fixedDelayString = "${stats.difficulty.flush-interval-ms:30000}")
+    public int flush() {
+        // Verrou explicite plutôt que synchronized : l'écriture JDBC ne bloque pas un thread porteur
+        flushLock.lock();
+        try {
+            return flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushLocked() {
+        List<Object[]> batch = new ArrayList<>();
+        List<StatKey> keys = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (Map.Entry<StatKey, Counter> entry : counters.entrySet()) {
+            // Bonnes réponses lues d'abord : record() incrémente les tentatives avant, les
+            // totaux en base ne comptent donc jamais plus de bonnes réponses que de tentatives
+            long correct = entry.getValue().correct.sumThenReset();
+            long attempts = entry.getValue().attempts.sumThenReset();
+            if (attempts == 0 && correct == 0) {
+                continue;
+            }
+            StatKey key = entry.getKey();
+            keys.add(key);
+            batch.add(new Object[] {
+                    key.type().name(), key.itemKey(), key.levelNumber(), key.language(), attempts, correct, now
+            });
+        }
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+        } catch (RuntimeException e) {
+            // Remettre les deltas dans les compteurs pour le prochain passage
+            for (int i = 0; i < keys.size(); i++) {
+                Counter counter = counters.computeIfAbsent(keys.get(i), k -> new Counter());
+                counter.attempts.add((Long) batch.get(i)[4]);
+                counter.correct.add((Long) batch.get(i)[5]);
+            }
+            log.warn("Difficulty stats flush failed, {} counters kept in memory: {}", keys.size(), e.getMessage());
+            return 0;
+        }
+        log.debug("Flushed {} difficulty counters", batch.size());
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Difficulty stats flush on shutdown failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Classement des éléments les plus difficiles d'un niveau pour une langue
+     */
+    @Transactional(readOnly = true)
+    public List<DifficultyRankDTO> getDifficultyRanking(ItemType type, Integer levelNumber, String language,
+            long minAttempts, int limit) {
+        List<ItemDifficultyStat> stats = statRepository.findHardest(
+                type, levelNumber, normalizeLanguage(language), minAttempts,
+                PageRequest.of(0, Math.min(Math.max(limit, 1), 100)));
+
+        List<DifficultyRankDTO> ranking = new ArrayList<>(stats.size());
+        int rank = 1;
+        for (ItemDifficultyStat stat : stats) {
+            ranking.add(new DifficultyRankDTO(rank++, stat.getItemType(), stat.getItemKey(),
+                    stat.getLevelNumber(), stat.getLanguageCode(), stat.getAttempts(), stat.getCorrect(),
+                    Math.round(stat.getFailureRate() * 10000.0) / 10000.0, stat.getUpdatedAt()));
+        }
+        return ranking;
+    }
+
+    /**
+     * Langue telle qu'elle est enregistrée : minuscules, {@code und} si absente
+     */
+    public static String normalizeLanguage(String language) {
+        if (language == null || language.isBlank()) {
+            return UNKNOWN_LANGUAGE;
+        }
+        return language.trim().toLowerCase(Locale.ROOT);
+    }
+}
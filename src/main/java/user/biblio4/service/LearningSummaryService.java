@@ -0,0 +1,288 @@
+package user.biblio4.service;
+
+import user.biblio4.model.UserLearningSummary;
+import user.biblio4.model.UserProgress;
+import user.biblio4.repository.UserLearningSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Résumé d'apprentissage par utilisateur ({@code user_learning_summary}).
+ *
+ * Les chemins d'écriture capturent l'état d'une progression avant et après
+ * modification et appliquent la différence en un seul UPDATE. Les endpoints
+ * de statistiques lisent la ligne par clé primaire ; elle est construite à
+ * partir des progressions au premier accès. Une tâche planifiée la compare
+ * régulièrement aux lignes sources et corrige les écarts.
+ */
+@Service
+@Slf4j
+public class LearningSummaryService {
+
+    // Ordre des compteurs dans les tableaux et en base
+    private static final String[] COLUMNS = {
+            "words_learned", "words_mastered", "total_points", "levels_unlocked",
+            "levels_completed", "quizzes_taken", "quiz_score_sum", "quiz_score_count"
+    };
+    private static final int WORDS_LEARNED = 0;
+    private static final int WORDS_MASTERED = 1;
+
+    private static final String INCREMENT_SQL;
+    private static final String OVERWRITE_SQL;
+    private static final String INSERT_SQL;
+
+    static {
+        StringJoiner increments = new StringJoiner(", ");
+        StringJoiner assignments = new StringJoiner(", ");
+        for (String column : COLUMNS) {
+            increments.add(column + " = " + column + " + ?");
+            assignments.add(column + " = ?");
+        }
+        INCREMENT_SQL = "UPDATE user_learning_summary SET " + increments + ", updated_at = ? WHERE user_id = ?";
+        OVERWRITE_SQL = "UPDATE user_learning_summary SET " + assignments + ", updated_at = ? WHERE user_id = ?";
+        INSERT_SQL = "INSERT INTO user_learning_summary (user_id, " + String.join(", ", COLUMNS) +
+                ", updated_at) VALUES (?" + ", ?".repeat(COLUMNS.length) + ", ?) " +
+                "ON DUPLICATE KEY UPDATE user_id = user_id";
+    }
+
+    private final UserLearningSummaryRepository summaryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int reconcileBatchSize;
+
+    public LearningSummaryService(
+            UserLearningSummaryRepository summaryRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${summary.reconcile.batch-size:500}") int reconcileBatchSize
+    ) {
+        this.summaryRepository = summaryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileBatchSize = reconcileBatchSize;
+    }
+
+    /**
+     * Valeurs d'une progression pour le calcul des différences.
+     * Une collection non chargée vaut -1 : elle n'a pas pu être modifiée.
+     */
+    public long[] snapshot(UserProgress progress) {
+        return snapshot(progress, false);
+    }
+
+    /**
+     * Variante qui charge les listes de mots, pour les écritures qui les remplacent
+     */
+    public long[] snapshot(UserProgress progress, boolean initializeWords) {
+        long[] values = new long[COLUMNS.length];
+        if (progress == null) {
+            return values;
+        }
+        if (initializeWords) {
+            Hibernate.initialize(progress.getCompletedWords());
+            Hibernate.initialize(progress.getMasteredWords());
+        }
+        values[WORDS_LEARNED] = sizeIfLoaded(progress.getCompletedWords());
+        values[WORDS_MASTERED] = sizeIfLoaded(progress.getMasteredWords());
+        values[2] = progress.getTotalPoints() != null ? progress.getTotalPoints() : 0;
+        values[3] = 1;
+        values[4] = Boolean.TRUE.equals(progress.getQuizPassed()) ? 1 : 0;
+        values[5] = progress.getQuizPassed() != null ? 1 : 0;
+        values[6] = progress.getQuizScore() != null ? progress.getQuizScore() : 0;
+        values[7] = progress.getQuizScore() != null ? 1 : 0;
+        return values;
+    }
+
+    /**
+     * Appliquer au résumé la différence entre deux états d'une progression
+     */
+    public void recordChange(Long userId, long[] before, UserProgress after) {
+        long[] current = snapshot(after);
+        Object[] args = new Object[COLUMNS.length + 2];
+        boolean changed = false;
+        for (int i = 0; i < COLUMNS.length; i++) {
+            long delta = before[i] < 0 || current[i] < 0 ? 0 : current[i] - before[i];
+            args[i] = delta;
+            changed |= delta != 0;
+        }
+        if (!changed) {
+            return;
+        }
+        args[COLUMNS.length] = Timestamp.valueOf(LocalDateTime.now());
+        args[COLUMNS.length + 1] = userId;
+        // Aucune ligne : le résumé sera construit depuis les sources à la prochaine lecture
+        jdbcTemplate.update(INCREMENT_SQL, args);
+    }
+
+    /**
+     * Résumé d'un utilisateur (lecture par clé primaire).
+     *
+     * Au premier accès, la ligne est construite dans la transaction de l'appelant
+     * (ou une nouvelle s'il n'en a pas), jamais sur une seconde connexion. Dans une
+     * transaction en lecture seule, les valeurs sont calculées sans être écrites :
+     * la ligne sera créée au prochain accès ou par la réconciliation.
+     */
+    public UserLearningSummary getSummary(Long userId) {
+        Optional<UserLearningSummary> summary = summaryRepository.findById(userId);
+        if (summary.isPresent()) {
+            return summary.get();
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return new UserLearningSummary(userId, computeFromSource(List.of(userId))
+                    .getOrDefault(userId, new long[COLUMNS.length]));
+        }
+        return transactionTemplate.execute(status -> {
+            long[] values = computeFromSource(List.of(userId)).getOrDefault(userId, new long[COLUMNS.length]);
+            jdbcTemplate.update(INSERT_SQL, insertArgs(userId, values));
+            return new UserLearningSummary(userId, values);
+        });
+    }
+
+    /**
+     * Comparer les résumés aux progressions, par pages d'utilisateurs
+     */
+    @Scheduled(fixedDelayString = "${summary.reconcile-interval-ms:3600000}",
+               initialDelayString = "${summary.reconcile-initial-delay-ms:600000}")
+    public int reconcile() {
+        long cursor = 0;
+        int fixed = 0;
+        while (true) {
+            long from = cursor;
+            List<Long> userIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM utilisateurs WHERE id > ? AND deleted_at IS NULL ORDER BY id LIMIT ?", Long.class, from, reconcileBatchSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            Integer pageFixed = transactionTemplate.execute(status -> reconcilePage(userIds));
+            fixed += pageFixed != null ? pageFixed : 0;
+            cursor = userIds.get(userIds.size() - 1);
+            if (userIds.size() < reconcileBatchSize) {
+                break;
+            }
+        }
+        if (fixed > 0) {
+            log.warn("Learning summary reconciliation corrected {} rows", fixed);
+        }
+        return fixed;
+    }
+
+    private int reconcilePage(List<Long> userIds) {
+        String in = placeholders(userIds.size());
+
+        // Verrouiller d'abord les résumés : les écritures concurrentes attendent la fin de la page
+        Map<Long, long[]> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, " + String.join(", ", COLUMNS) +
+                " FROM user_learning_summary WHERE user_id IN (" + in + ") FOR UPDATE", rs -> {
+            long[] values = new long[COLUMNS.length];
+            for (int i = 0; i < COLUMNS.length; i++) {
+                values[i] = rs.getLong(COLUMNS[i]);
+            }
+            stored.put(rs.getLong("user_id"), values);
+        }, userIds.toArray());
+
+        Map<Long, long[]> source = computeFromSource(userIds);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> overwrites = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+
+        for (Long userId : userIds) {
+            long[] expected = source.get(userId);
+            long[] actual = stored.get(userId);
+            if (actual == null) {
+                if (expected != null) {
+                    inserts.add(insertArgs(userId, expected));
+                }
+                continue;
+            }
+            if (expected == null) {
+                expected = new long[COLUMNS.length];
+            }
+            if (!Arrays.equals(expected, actual)) {
+                log.debug("Learning summary drift for user {}: stored={} source={}",
+                        userId, Arrays.toString(actual), Arrays.toString(expected));
+                Object[] args = new Object[COLUMNS.length + 2];
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    args[i] = expected[i];
+                }
+                args[COLUMNS.length] = now;
+                args[COLUMNS.length + 1] = userId;
+                overwrites.add(args);
+            }
+        }
+        if (!overwrites.isEmpty()) {
+            jdbcTemplate.batchUpdate(OVERWRITE_SQL, overwrites);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        return overwrites.size() + inserts.size();
+    }
+
+    /**
+     * Recalculer les compteurs depuis les tables sources (trois requêtes groupées)
+     */
+    private Map<Long, long[]> computeFromSource(List<Long> userIds) {
+        String in = placeholders(userIds.size());
+        Map<Long, long[]> values = new HashMap<>();
+
+        jdbcTemplate.query("SELECT user_id, COUNT(*) AS unlocked, " +
+                "SUM(CASE WHEN quiz_passed = TRUE THEN 1 ELSE 0 END) AS completed, " +
+                "SUM(CASE WHEN quiz_passed IS NOT NULL THEN 1 ELSE 0 END) AS taken, " +
+                "COALESCE(SUM(total_points), 0) AS points, " +
+                "COALESCE(SUM(quiz_score), 0) AS score_sum, COUNT(quiz_score) AS score_count " +
+                "FROM user_progress WHERE user_id IN (" + in + ") GROUP BY user_id", rs -> {
+            long[] row = values.computeIfAbsent(rs.getLong("user_id"), id -> new long[COLUMNS.length]);
+            row[2] = rs.getLong("points");
+            row[3] = rs.getLong("unlocked");
+            row[4] = rs.getLong("completed");
+            row[5] = rs.getLong("taken");
+            row[6] = rs.getLong("score_sum");
+            row[7] = rs.getLong("score_count");
+        }, userIds.toArray());
+
+        countWords("user_progress_completed_words", in, userIds, values, WORDS_LEARNED);
+        countWords("user_progress_mastered_words", in, userIds, values, WORDS_MASTERED);
+        return values;
+    }
+
+    private void countWords(String table, String in, List<Long> userIds, Map<Long, long[]> values, int index) {
+        jdbcTemplate.query("SELECT p.user_id, COUNT(*) AS words FROM " + table + " w " +
+                "JOIN user_progress p ON p.id = w.progress_id WHERE p.user_id IN (" + in + ") GROUP BY p.user_id",
+                rs -> {
+                    values.computeIfAbsent(rs.getLong("user_id"), id -> new long[COLUMNS.length])[index] =
+                            rs.getLong("words");
+                }, userIds.toArray());
+    }
+
+    private static Object[] insertArgs(Long userId, long[] values) {
+        Object[] args = new Object[COLUMNS.length + 2];
+        args[0] = userId;
+        for (int i = 0; i < COLUMNS.length; i++) {
+            args[i + 1] = values[i];
+        }
+        args[COLUMNS.length + 1] = Timestamp.valueOf(LocalDateTime.now());
+        return args;
+    }
+
+    private static long sizeIfLoaded(List<String> words) {
+        if (words == null) {
+            return 0;
+        }
+        return Hibernate.isInitialized(words) ? words.size() : -1;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
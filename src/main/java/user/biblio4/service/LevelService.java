@@ -1,18 +1,25 @@
 package user.biblio4.service;
 
+import user.biblio4.dto.FieldSet;
+import user.biblio4.dto.LevelInfoDTO;
+import user.biblio4.dto.LevelPageDTO;
+import user.biblio4.dto.LevelProgressView;
+import user.biblio4.dto.LevelStatusDTO;
+import user.biblio4.dto.UserStatsDTO;
 import user.biblio4.model.*;
 import user.biblio4.repository.*;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.io.SerializedString;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class LevelService {
 
@@ -22,96 +29,125 @@ public class LevelService {
 	    private final UserProgressRepository userProgressRepository;
 	    private final UserRepository userRepository;
 	    private final RewardService rewardService;
+	    private final DifficultyStatsService difficultyStatsService;
+	    private final ReviewService reviewService;
+	    private final LearningSummaryService learningSummaryService;
+	    private final CatalogFragmentCache catalogFragmentCache;
+	    private final SingleFlight singleFlight;
+	    private final TransactionTemplate readOnlyTemplate;
 	    public LevelService(
 	            LevelWordRepository levelWordRepository,
 	            TranslationRepository translationRepository,
 	            UserProgressRepository userProgressRepository,
 	            UserRepository userRepository,
-	            RewardService rewardService
+	            RewardService rewardService,
+	            DifficultyStatsService difficultyStatsService,
+	            ReviewService reviewService,
+	            LearningSummaryService learningSummaryService,
+	            CatalogFragmentCache catalogFragmentCache,
+	            SingleFlight singleFlight,
+	            PlatformTransactionManager transactionManager
 	    ) {
 	        this.levelWordRepository = levelWordRepository;
 	        this.translationRepository = translationRepository;
 	        this.userProgressRepository = userProgressRepository;
 	        this.userRepository = userRepository;
 	        this.rewardService = rewardService;
+	        this.difficultyStatsService = difficultyStatsService;
+	        this.reviewService = reviewService;
+	        this.learningSummaryService = learningSummaryService;
+	        this.catalogFragmentCache = catalogFragmentCache;
+	        this.singleFlight = singleFlight;
+	        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+	        this.readOnlyTemplate.setReadOnly(true);
 	    }
-    @Transactional(readOnly = true)
-    public Map<String, Object> getLevelWithProgress(Long userId, Integer levelNumber, String language) {
-        // Récupérer les mots du niveau
-        List<LevelWord> words = levelWordRepository.findByLevelNumberOrderByDisplayOrderAsc(levelNumber);
+
+    /**
+     * Champs possibles de {@code fields} sur la page d'un niveau. Les compteurs sont
+     * toujours renvoyés ; {@code words} seul donne les mots réduits à leur clé et à
+     * leur état, {@code stats} seul les compteurs sans aucun mot.
+     */
+    private static final String[] WORD_FIELDS =
+            {"words", "id", "category", "points", "displayOrder", "text", "gifUrl", "audioUrl"};
+    public static final Set<String> LEVEL_FIELDS = Set.of(
+            "stats", "words", "id", "category", "points", "displayOrder", "text", "gifUrl", "audioUrl");
+
+    /**
+     * Mot du catalogue d'un niveau dans une langue, partagé entre les requêtes simultanées
+     */
+    private record CatalogWord(String wordKey, String category, int points, int displayOrder,
+                               SerializedString fragment) {
+    }
+
+    public LevelPageDTO getLevelWithProgress(Long userId, Integer levelNumber, String language, FieldSet fields) {
+        // Mots du niveau lus avant la transaction : les requêtes en attente du chargement
+        // partagé n'occupent pas de connexion
+        List<CatalogWord> words = fields.isAll()
+                ? levelCatalog(levelNumber, language)
+                : sparseLevelCatalog(levelNumber, language, fields);
 
         if (words.isEmpty()) {
             throw new RuntimeException("Niveau non trouvé : " + levelNumber);
         }
+        return readOnlyTemplate.execute(status -> buildLevelPage(userId, levelNumber, words, fields));
+    }
+
+    private LevelPageDTO buildLevelPage(Long userId, Integer levelNumber, List<CatalogWord> words, FieldSet fields) {
+        boolean withWords = fields.includesAny(WORD_FIELDS);
 
         // Récupérer ou créer la progression de l'utilisateur
         UserProgress progress = getOrCreateUserProgress(userId, levelNumber);
+        Set<String> completed = progress.getCompletedWords() != null
+                ? new HashSet<>(progress.getCompletedWords()) : Set.of();
+        Set<String> mastered = progress.getMasteredWords() != null
+                ? new HashSet<>(progress.getMasteredWords()) : Set.of();
 
         // Construire la liste des mots avec leur état
-        List<Map<String, Object>> wordList = new ArrayList<>();
-
-        for (LevelWord word : words) {
-            // Récupérer les traductions
-            Optional<Translation> translation = translationRepository
-                    .findByWordKeyAndLanguageCode(word.getWordKey(), language);
-
-            Map<String, Object> wordData = new HashMap<>();
-            wordData.put("id", word.getId());
-            wordData.put("wordKey", word.getWordKey());
-            wordData.put("category", word.getCategory());
-            wordData.put("points", word.getPoints() != null ? word.getPoints() : 10);
-            wordData.put("displayOrder", word.getDisplayOrder() != null ? word.getDisplayOrder() : 0);
-
-            // Ajouter les traductions si trouvées
-            translation.ifPresent(t -> {
-                wordData.put("text", t.getText());
-                wordData.put("gifUrl", t.getGifUrl());
-                wordData.put("audioUrl", t.getAudioUrl());
-            });
+        List<LevelPageDTO.Word> wordList = withWords ? new ArrayList<>(words.size()) : null;
+        int learnedWords = 0;
+        int masteredWords = 0;
 
+        for (CatalogWord word : words) {
             // État d'apprentissage
-            wordData.put("learned", progress.getCompletedWords() != null &&
-                    progress.getCompletedWords().contains(word.getWordKey()));
-            wordData.put("mastered", progress.getMasteredWords() != null &&
-                    progress.getMasteredWords().contains(word.getWordKey()));
-
-            wordList.add(wordData);
+            boolean learned = completed.contains(word.wordKey());
+            boolean isMastered = mastered.contains(word.wordKey());
+            learnedWords += learned ? 1 : 0;
+            masteredWords += isMastered ? 1 : 0;
+
+            // Partie commune (mot + traduction) servie depuis le cache de fragments
+            if (withWords) {
+                wordList.add(new LevelPageDTO.Word(word.fragment(), learned, isMastered));
+            }
         }
 
         // Statistiques du niveau
         int totalWords = words.size();
-        int learnedWords = (int) wordList.stream()
-                .filter(w -> (Boolean) w.get("learned"))
-                .count();
-        int masteredWords = (int) wordList.stream()
-                .filter(w -> (Boolean) w.get("mastered"))
-                .count();
-
         int progressPercentage = totalWords > 0 ? (learnedWords * 100) / totalWords : 0;
-
-        // Construire le résultat
-        Map<String, Object> result = new HashMap<>();
-        result.put("levelNumber", levelNumber);
-        result.put("totalWords", totalWords);
-        result.put("learnedWords", learnedWords);
-        result.put("masteredWords", masteredWords);
-        result.put("progressPercentage", progressPercentage);
-        result.put("totalPoints", progress.getTotalPoints());
-        result.put("quizAvailable", isQuizAvailable(progress));
-        result.put("quizPassed", progress.getQuizPassed() != null ? progress.getQuizPassed() : false);
-        result.put("quizScore", progress.getQuizScore());
-        result.put("words", wordList);
+        boolean quizPassed = progress.getQuizPassed() != null && progress.getQuizPassed();
 
         // Vérifier si le niveau suivant peut être débloqué
-        if (progress.getQuizPassed() != null && progress.getQuizPassed()) {
-            boolean canUnlockNext = canUnlockNextLevel(userId, levelNumber);
-            result.put("nextLevelUnlocked", canUnlockNext);
-            if (canUnlockNext) {
-                result.put("nextLevelNumber", levelNumber + 1);
+        Boolean nextLevelUnlocked = null;
+        Integer nextLevelNumber = null;
+        if (quizPassed) {
+            nextLevelUnlocked = canUnlockNextLevel(userId, levelNumber);
+            if (nextLevelUnlocked) {
+                nextLevelNumber = levelNumber + 1;
             }
         }
 
-        return result;
+        return new LevelPageDTO(
+                levelNumber,
+                totalWords,
+                learnedWords,
+                masteredWords,
+                progressPercentage,
+                progress.getTotalPoints(),
+                isQuizAvailable(progress),
+                quizPassed,
+                progress.getQuizScore(),
+                wordList,
+                nextLevelUnlocked,
+                nextLevelNumber);
     }
 
     @Transactional
@@ -125,27 +161,35 @@ public class LevelService {
             throw new RuntimeException("Mot non trouvé dans ce niveau");
         }
 
-        LevelWord word = wordOpt.get();
+        return applyCompleteWord(userId, progress, wordOpt.get(), levelWordRepository.countByLevelNumber(levelNumber));
+    }
+
+    /**
+     * Compléter un mot sur une progression déjà chargée (utilisé aussi par la synchronisation)
+     */
+    Map<String, Object> applyCompleteWord(Long userId, UserProgress progress, LevelWord word, int totalWordsInLevel) {
+        Integer levelNumber = progress.getLevelNumber();
+        String wordKey = word.getWordKey();
 
         // Ajouter le mot aux complétés s'il n'existe pas
         List<String> completedWords = progress.getCompletedWords();
         if (!completedWords.contains(wordKey)) {
+            long[] before = learningSummaryService.snapshot(progress);
             completedWords.add(wordKey);
             progress.setCompletedWords(completedWords);
             progress.setTotalPoints(progress.getTotalPoints() + (word.getPoints() != null ? word.getPoints() : 10));
             progress.setLastAttempt(LocalDateTime.now());
             userProgressRepository.save(progress);
-
+            learningSummaryService.recordChange(userId, before, progress);
         }
 
         // Vérifier si tous les mots du niveau sont complétés
-        int totalWordsInLevel = levelWordRepository.countByLevelNumber(levelNumber);
         boolean allWordsCompleted = completedWords.size() >= Math.min(totalWordsInLevel, 10);
 
-        // Attribuer des récompenses
+        // Attribuer des récompenses (appliquées après commit par RewardWorker)
         Map<String, Object> reward = new HashMap<>();
         if (allWordsCompleted) {
-            reward = rewardService.awardLevelCompletion(userId, levelNumber);
+            reward = rewardService.grantLevelCompletion(userId, levelNumber);
         }
 
         // Construire la réponse
@@ -167,26 +211,47 @@ public class LevelService {
 
     @Transactional
     public Map<String, Object> masterWord(Long userId, Integer levelNumber, String wordKey) {
+        return masterWord(userId, levelNumber, wordKey, null);
+    }
+
+    @Transactional
+    public Map<String, Object> masterWord(Long userId, Integer levelNumber, String wordKey, String language) {
         // Récupérer la progression de l'utilisateur
         UserProgress progress = userProgressRepository
                 .findByUserIdAndLevelNumber(userId, levelNumber)
                 .orElseThrow(() -> new RuntimeException("Niveau non ouvert"));
 
+        return applyMasterWord(userId, progress, wordKey, language);
+    }
+
+    /**
+     * Maîtriser un mot sur une progression déjà chargée (utilisé aussi par la synchronisation)
+     */
+    Map<String, Object> applyMasterWord(Long userId, UserProgress progress, String wordKey, String language) {
+        Integer levelNumber = progress.getLevelNumber();
+
         // Vérifier que le mot est complété d'abord
         List<String> completedWords = progress.getCompletedWords();
         if (!completedWords.contains(wordKey)) {
+            // Erreur d'enchaînement, pas une mauvaise réponse : rien n'est compté
             throw new RuntimeException("Vous devez apprendre le mot avant de le maîtriser");
         }
+        difficultyStatsService.recordWord(wordKey, levelNumber, language, true);
 
         // Ajouter le mot aux maîtrisés s'il n'existe pas
         List<String> masteredWords = progress.getMasteredWords();
         if (!masteredWords.contains(wordKey)) {
+            long[] before = learningSummaryService.snapshot(progress);
             masteredWords.add(wordKey);
             progress.setMasteredWords(masteredWords);
             progress.setLastAttempt(LocalDateTime.now());
             userProgressRepository.save(progress);
+            learningSummaryService.recordChange(userId, before, progress);
 
-            Map<String, Object> reward = rewardService.awardWordMastery(userId, wordKey);
+            // Planifier la première révision espacée
+            reviewService.enroll(userId, levelNumber, wordKey);
+
+            Map<String, Object> reward = rewardService.grantWordMastery(userId, levelNumber, wordKey);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -241,7 +306,7 @@ public class LevelService {
         UserProgress nextProgress = createUserProgress(userId, nextLevel);
 
         // Attribuer une récompense pour l'ouverture d'un nouveau niveau
-        Map<String, Object> reward = rewardService.awardLevelUnlock(userId, nextLevel);
+        Map<String, Object> reward = rewardService.grantLevelUnlock(userId, nextLevel);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -252,86 +317,92 @@ public class LevelService {
         return response;
     }
 
-    @Transactional(readOnly = true)
-    public Map<String, Object> getUserStats(Long userId) {
-        // Récupérer toutes les progressions de l'utilisateur
-        List<UserProgress> allProgress = userProgressRepository.findByUserId(userId);
-
-        // Calculer les statistiques
-        int totalWordsLearned = allProgress.stream()
-                .mapToInt(p -> p.getCompletedWords() != null ? p.getCompletedWords().size() : 0)
-                .sum();
-
-        int totalWordsMastered = allProgress.stream()
-                .mapToInt(p -> p.getMasteredWords() != null ? p.getMasteredWords().size() : 0)
-                .sum();
-
-        int totalPoints = allProgress.stream()
-                .mapToInt(p -> p.getTotalPoints() != null ? p.getTotalPoints() : 0)
-                .sum();
-
-        long levelsCompleted = allProgress.stream()
-                .filter(p -> p.getQuizPassed() != null && p.getQuizPassed())
-                .count();
-
-        // Construire le résultat
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("userId", userId);
-        stats.put("totalWordsLearned", totalWordsLearned);
-        stats.put("totalWordsMastered", totalWordsMastered);
-        stats.put("totalPoints", totalPoints);
-        stats.put("levelsCompleted", levelsCompleted);
-        stats.put("averageQuizScore", calculateAverageScore(allProgress));
-        stats.put("totalLevelsUnlocked", allProgress.size());
-
-        return stats;
+    // Sans transaction englobante : le premier accès construit le résumé dans une transaction courte
+    public UserStatsDTO getUserStats(Long userId) {
+        // Résumé dénormalisé : une lecture par clé primaire
+        UserLearningSummary summary = learningSummaryService.getSummary(userId);
+
+        return new UserStatsDTO(
+                userId,
+                summary.getWordsLearned(),
+                summary.getWordsMastered(),
+                summary.getTotalPoints(),
+                summary.getLevelsCompleted(),
+                summary.getAverageQuizScore(),
+                summary.getLevelsUnlocked(),
+                summary.getTimeSpentMinutes());
     }
 
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getUserLevels(Long userId) {
-        List<UserProgress> progressList = userProgressRepository.findByUserId(userId);
-
-        return progressList.stream()
-                .sorted(Comparator.comparing(UserProgress::getLevelNumber))
-                .map(this::mapProgressToLevelInfo)
+    public List<LevelInfoDTO> getUserLevels(Long userId) {
+        // Projection : les nombres de mots sont calculés en SQL, sans charger les listes
+        return userProgressRepository.findLevelViewsByUserId(userId).stream()
+                .map(this::mapLevelInfo)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
-    public Map<String, Object> getLevelStatus(Long userId, Integer levelNumber) {
-        Optional<UserProgress> progressOpt = userProgressRepository
-                .findByUserIdAndLevelNumber(userId, levelNumber);
+    public LevelStatusDTO getLevelStatus(Long userId, Integer levelNumber) {
+        return userProgressRepository.findLevelView(userId, levelNumber)
+                .map(view -> new LevelStatusDTO(
+                        levelNumber,
+                        userId,
+                        true,
+                        view.unlockedAt(),
+                        view.completedWords(),
+                        view.masteredWords(),
+                        view.quizPassed() != null ? view.quizPassed() : false,
+                        view.quizScore(),
+                        view.totalPoints() != null ? view.totalPoints() : 0,
+                        isQuizAvailable(view)))
+                .orElseGet(() -> LevelStatusDTO.locked(userId, levelNumber));
+    }
 
-        Map<String, Object> status = new HashMap<>();
-        status.put("levelNumber", levelNumber);
-        status.put("userId", userId);
-
-        if (progressOpt.isPresent()) {
-            UserProgress progress = progressOpt.get();
-            status.put("unlocked", true);
-            status.put("unlockedAt", progress.getUnlockedAt());
-            status.put("completedWords",
-                    progress.getCompletedWords() != null ? progress.getCompletedWords().size() : 0);
-            status.put("masteredWords", progress.getMasteredWords() != null ? progress.getMasteredWords().size() : 0);
-            status.put("quizPassed", progress.getQuizPassed() != null ? progress.getQuizPassed() : false);
-            status.put("quizScore", progress.getQuizScore());
-            status.put("totalPoints", progress.getTotalPoints() != null ? progress.getTotalPoints() : 0);
-            status.put("isQuizAvailable", isQuizAvailable(progress));
-        } else {
-            status.put("unlocked", false);
-            status.put("unlockedAt", null);
-            status.put("completedWords", 0);
-            status.put("masteredWords", 0);
-            status.put("quizPassed", false);
-            status.put("quizScore", null);
-            status.put("totalPoints", 0);
-            status.put("isQuizAvailable", false);
-        }
+    // ========== MÉTHODES D'AIDE ==========
 
-        return status;
+    /**
+     * Mots d'un niveau avec leur fragment JSON : les requêtes simultanées pour le
+     * même niveau et la même langue partagent un seul chargement, dans sa propre
+     * transaction. La traduction n'est lue que pour un fragment absent du cache.
+     */
+    private List<CatalogWord> levelCatalog(Integer levelNumber, String language) {
+        return singleFlight.execute("level.catalog", levelNumber + ":" + language,
+                () -> readOnlyTemplate.execute(status -> {
+            List<LevelWord> words = levelWordRepository.findByLevelNumberOrderByDisplayOrderAsc(levelNumber);
+            List<CatalogWord> catalog = new ArrayList<>(words.size());
+            for (LevelWord word : words) {
+                catalog.add(new CatalogWord(
+                        word.getWordKey(),
+                        word.getCategory(),
+                        word.getPoints() != null ? word.getPoints() : 10,
+                        word.getDisplayOrder() != null ? word.getDisplayOrder() : 0,
+                        catalogFragmentCache.wordFragment(word, language)));
+            }
+            return List.copyOf(catalog);
+        }));
     }
 
-    // ========== MÉTHODES D'AIDE ==========
+    /**
+     * Catalogue réduit aux champs demandés : les traductions ne sont lues que pour
+     * le texte ou les médias, et aucun fragment n'est construit sans champ de mot
+     */
+    private List<CatalogWord> sparseLevelCatalog(Integer levelNumber, String language, FieldSet fields) {
+        boolean withWords = fields.includesAny(WORD_FIELDS);
+        return singleFlight.execute("level.catalog", levelNumber + ":" + language + ":" + fields.key(),
+                () -> readOnlyTemplate.execute(status -> {
+            List<LevelWord> words = levelWordRepository.findByLevelNumberOrderByDisplayOrderAsc(levelNumber);
+            List<CatalogWord> catalog = new ArrayList<>(words.size());
+            for (LevelWord word : words) {
+                catalog.add(new CatalogWord(
+                        word.getWordKey(),
+                        word.getCategory(),
+                        word.getPoints() != null ? word.getPoints() : 10,
+                        word.getDisplayOrder() != null ? word.getDisplayOrder() : 0,
+                        withWords ? catalogFragmentCache.wordFragment(word, language, fields) : null));
+            }
+            return List.copyOf(catalog);
+        }));
+    }
 
     /**
      * Récupérer ou créer UserProgress
@@ -346,8 +417,7 @@ public class LevelService {
     /**
      * Créer un nouveau UserProgress
      */
-    @Transactional
-    private UserProgress createUserProgress(Long userId, Integer levelNumber) {
+    UserProgress createUserProgress(Long userId, Integer levelNumber) {
         // Vérifier que l'utilisateur existe
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
@@ -363,7 +433,9 @@ public class LevelService {
         newProgress.setQuizPassed(false);
         newProgress.setQuizScore(null);
 
-        return userProgressRepository.save(newProgress);
+        UserProgress saved = userProgressRepository.save(newProgress);
+        learningSummaryService.recordChange(userId, learningSummaryService.snapshot(null), saved);
+        return saved;
     }
 
     /**
@@ -373,9 +445,13 @@ public class LevelService {
         if (progress == null)
             return false;
 
+        return isQuizAvailable(LevelProgressView.of(progress));
+    }
+
+    private boolean isQuizAvailable(LevelProgressView view) {
         // Quiz disponible si au moins 10 mots complétés ou tous les mots du niveau
-        int completedWords = progress.getCompletedWords() != null ? progress.getCompletedWords().size() : 0;
-        return completedWords >= 10 && (progress.getQuizPassed() == null || !progress.getQuizPassed());
+        int completedWords = view.completedWords() != null ? view.completedWords() : 0;
+        return completedWords >= 10 && (view.quizPassed() == null || !view.quizPassed());
     }
 
     /**
@@ -390,97 +466,89 @@ public class LevelService {
     }
 
     /**
-     * Calculer la moyenne des scores de quiz
+     * Convertir UserProgress en informations de niveau
      */
-    private double calculateAverageScore(List<UserProgress> progressList) {
-        List<Integer> scores = progressList.stream()
-                .filter(p -> p.getQuizScore() != null)
-                .map(UserProgress::getQuizScore)
-                .collect(Collectors.toList());
-
-        if (scores.isEmpty())
-            return 0.0;
-
-        double average = scores.stream()
-                .mapToInt(Integer::intValue)
-                .average()
-                .orElse(0.0);
-
-        return Math.round(average * 100.0) / 100.0;
+    LevelInfoDTO mapProgressToLevelInfo(UserProgress progress) {
+        return mapLevelInfo(LevelProgressView.of(progress));
     }
 
     /**
-     * Convertir UserProgress en informations de niveau
+     * Convertir une projection de progression en informations de niveau
      */
-    private Map<String, Object> mapProgressToLevelInfo(UserProgress progress) {
-        Map<String, Object> levelInfo = new HashMap<>();
-        levelInfo.put("levelNumber", progress.getLevelNumber());
-        levelInfo.put("completedWords", progress.getCompletedWords() != null ? progress.getCompletedWords().size() : 0);
-        levelInfo.put("masteredWords", progress.getMasteredWords() != null ? progress.getMasteredWords().size() : 0);
-        levelInfo.put("totalPoints", progress.getTotalPoints() != null ? progress.getTotalPoints() : 0);
-        levelInfo.put("quizPassed", progress.getQuizPassed() != null ? progress.getQuizPassed() : false);
-        levelInfo.put("quizScore", progress.getQuizScore());
-        levelInfo.put("unlockedAt", progress.getUnlockedAt());
-        levelInfo.put("completedAt", progress.getCompletedAt());
-        levelInfo.put("lastAttempt", progress.getLastAttempt());
+    LevelInfoDTO mapLevelInfo(LevelProgressView view) {
+        int completedWords = view.completedWords() != null ? view.completedWords() : 0;
 
         // État du niveau
         String status = "locked";
-        if (progress.getUnlockedAt() != null) {
-            if (progress.getQuizPassed() != null && progress.getQuizPassed()) {
+        if (view.unlockedAt() != null) {
+            if (view.quizPassed() != null && view.quizPassed()) {
                 status = "completed";
-            } else if (isQuizAvailable(progress)) {
+            } else if (isQuizAvailable(view)) {
                 status = "ready_for_quiz";
-            } else if (progress.getCompletedWords() != null && progress.getCompletedWords().size() > 0) {
+            } else if (completedWords > 0) {
                 status = "in_progress";
             } else {
                 status = "unlocked";
             }
         }
-        levelInfo.put("status", status);
 
         // Pourcentage de progression
-        int progressPercentage = 0;
-        if (progress.getCompletedWords() != null) {
-            progressPercentage = (progress.getCompletedWords().size() * 100) / 10;
-        }
-        levelInfo.put("progressPercentage", Math.min(progressPercentage, 100));
-
-        return levelInfo;
+        int progressPercentage = (completedWords * 100) / 10;
+
+        return new LevelInfoDTO(
+                view.levelNumber(),
+                completedWords,
+                view.masteredWords() != null ? view.masteredWords() : 0,
+                view.totalPoints() != null ? view.totalPoints() : 0,
+                view.quizPassed() != null ? view.quizPassed() : false,
+                view.quizScore(),
+                view.unlockedAt(),
+                view.completedAt(),
+                view.lastAttempt(),
+                status,
+                Math.min(progressPercentage, 100));
     }
 
     /**
      * Récupérer les mots restants pour compléter le niveau
      */
-    @Transactional(readOnly = true)
     public Map<String, Object> getRemainingWords(Long userId, Integer levelNumber, String language) {
-        List<LevelWord> allWords = levelWordRepository.findByLevelNumberOrderByDisplayOrderAsc(levelNumber);
+        List<CatalogWord> allWords = levelCatalog(levelNumber, language);
+        return readOnlyTemplate.execute(status -> buildRemainingWords(userId, levelNumber, language, allWords));
+    }
+
+    private Map<String, Object> buildRemainingWords(Long userId, Integer levelNumber, String language,
+                                                    List<CatalogWord> allWords) {
         UserProgress progress = getOrCreateUserProgress(userId, levelNumber);
 
+        // Traductions du niveau en une seule requête
+        Map<String, Translation> translations = translationRepository
+                .findByWordKeyInAndLanguageCode(allWords.stream().map(CatalogWord::wordKey).toList(), language)
+                .stream()
+                .collect(Collectors.toMap(Translation::getWordKey, t -> t, (a, b) -> a));
+
         List<Map<String, Object>> remainingWords = new ArrayList<>();
         List<Map<String, Object>> completedWords = new ArrayList<>();
 
-        for (LevelWord word : allWords) {
-            Optional<Translation> translation = translationRepository
-                    .findByWordKeyAndLanguageCode(word.getWordKey(), language);
-
+        for (CatalogWord word : allWords) {
             Map<String, Object> wordData = new HashMap<>();
-            wordData.put("wordKey", word.getWordKey());
-            wordData.put("category", word.getCategory());
-            wordData.put("points", word.getPoints() != null ? word.getPoints() : 10);
-            wordData.put("displayOrder", word.getDisplayOrder() != null ? word.getDisplayOrder() : 0);
-
-            translation.ifPresent(t -> {
-                wordData.put("text", t.getText());
-                wordData.put("gifUrl", t.getGifUrl());
-            });
+            wordData.put("wordKey", word.wordKey());
+            wordData.put("category", word.category());
+            wordData.put("points", word.points());
+            wordData.put("displayOrder", word.displayOrder());
+
+            Translation translation = translations.get(word.wordKey());
+            if (translation != null && translation.getText() != null) {
+                wordData.put("text", translation.getText());
+                wordData.put("gifUrl", translation.getGifUrl());
+            }
 
             boolean isCompleted = progress.getCompletedWords() != null &&
-                    progress.getCompletedWords().contains(word.getWordKey());
+                    progress.getCompletedWords().contains(word.wordKey());
 
             if (isCompleted) {
                 boolean isMastered = progress.getMasteredWords() != null &&
-                        progress.getMasteredWords().contains(word.getWordKey());
+                        progress.getMasteredWords().contains(word.wordKey());
                 wordData.put("mastered", isMastered);
                 completedWords.add(wordData);
             } else {
@@ -509,6 +577,7 @@ public class LevelService {
                 .findByUserIdAndLevelNumber(userId, levelNumber)
                 .orElseThrow(() -> new RuntimeException("Niveau non ouvert"));
 
+        long[] before = learningSummaryService.snapshot(progress, true);
         progress.setCompletedWords(new ArrayList<>());
         progress.setMasteredWords(new ArrayList<>());
         progress.setTotalPoints(0);
@@ -520,6 +589,8 @@ public class LevelService {
         progress.setCompletedAt(null);
 
         userProgressRepository.save(progress);
+        learningSummaryService.recordChange(userId, before, progress);
+        reviewService.dropLevel(userId, levelNumber);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -0,0 +1,240 @@
+package user.biblio4.service;
+
+import user.biblio4.event.OutboxAppended;
+import user.biblio4.event.OutboxBroadcast;
+import user.biblio4.event.RewardEvent;
+import user.biblio4.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Relais de l'outbox, sans broker externe (MariaDB / H2 uniquement).
+ *
+ * <ul>
+ *   <li>Traitement : chaque nœud réclame des lots d'événements non traités avec
+ *   {@code SELECT ... FOR UPDATE SKIP LOCKED}, les fait appliquer par
+ *   {@link RewardWorker} puis les marque traités dans la même transaction.
+ *   Un échec annule le lot, qui sera réclamé à nouveau (au moins une fois).</li>
+ *   <li>Diffusion : chaque nœud lit aussi l'outbox avec son propre curseur et
+ *   republie localement chaque événement en {@link OutboxBroadcast}
+ *   (invalidation de caches, classements...). Les écouteurs sont idempotents.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private static final String CLAIM_SQL =
+            "SELECT id, event_type, payload FROM outbox_event WHERE processed_at IS NULL " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String BROADCAST_SQL =
+            "SELECT id, event_type, payload FROM outbox_event WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final RewardWorker rewardWorker;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final String nodeId;
+    private final int batchSize;
+    private final int broadcastLookback;
+    private final int retentionDays;
+
+    private final ExecutorService wakeUpExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean relaying = new AtomicBoolean();
+    private final AtomicBoolean rerun = new AtomicBoolean();
+    private final ReentrantLock broadcastLock = new ReentrantLock();
+
+    // Curseur de diffusion propre au nœud et derniers identifiants déjà diffusés
+    private long broadcastCursor;
+    private final Set<Long> recentlyBroadcast = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > 10_000;
+        }
+    });
+
+    private record Row(long id, String eventType, String payload) {
+    }
+
+    public OutboxRelay(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            OutboxService outboxService,
+            OutboxEventRepository outboxEventRepository,
+            RewardWorker rewardWorker,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${outbox.node-id:#{T(java.util.UUID).randomUUID().toString()}}") String nodeId,
+            @Value("${outbox.relay.batch-size:200}") int batchSize,
+            @Value("${outbox.broadcast.lookback:200}") int broadcastLookback,
+            @Value("${outbox.retention-days:7}") int retentionDays
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxService = outboxService;
+        this.outboxEventRepository = outboxEventRepository;
+        this.rewardWorker = rewardWorker;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = nodeId;
+        this.batchSize = batchSize;
+        this.broadcastLookback = broadcastLookback;
+        this.retentionDays = retentionDays;
+    }
+
+    @PostConstruct
+    public void initBroadcastCursor() {
+        // Un nœud qui démarre ne rejoue pas l'historique
+        broadcastCursor = outboxEventRepository.findMaxId();
+    }
+
+    /**
+     * Réveil après commit d'une écriture locale, pour ne pas attendre le prochain passage planifié
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAppended(OutboxAppended appended) {
+        wakeUpExecutor.execute(this::relayPending);
+    }
+
+    /**
+     * Réclamer et traiter les événements en attente, lot par lot
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-ms:1000}")
+    public void relayPending() {
+        if (!relaying.compareAndSet(false, true)) {
+            rerun.set(true);
+            return;
+        }
+        try {
+            do {
+                rerun.set(false);
+                int claimed;
+                do {
+                    claimed = claimBatch();
+                } while (claimed == batchSize);
+            } while (rerun.get());
+        } catch (Exception e) {
+            log.warn("Outbox relay batch failed, will retry: {}", e.getMessage());
+        } finally {
+            relaying.set(false);
+        }
+    }
+
+    int claimBatch() {
+        Integer claimed = transactionTemplate.execute(status -> {
+            List<Row> rows = jdbcTemplate.query(CLAIM_SQL,
+                    (rs, i) -> new Row(rs.getLong("id"), rs.getString("event_type"), rs.getString("payload")),
+                    batchSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            List<RewardEvent> events = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                RewardEvent event = readOrNull(row);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+            rewardWorker.applyBatch(events);
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> marks = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                marks.add(new Object[] { now, nodeId, row.id() });
+            }
+            jdbcTemplate.batchUpdate("UPDATE outbox_event SET processed_at = ?, processed_by = ? WHERE id = ?", marks);
+            return rows.size();
+        });
+        return claimed != null ? claimed : 0;
+    }
+
+    /**
+     * Diffuser localement les événements écrits par n'importe quel nœud
+     */
+    @Scheduled(fixedDelayString = "${outbox.broadcast.poll-ms:2000}")
+    public void broadcast() {
+        broadcastLock.lock();
+        try {
+            broadcastLocked();
+        } finally {
+            broadcastLock.unlock();
+        }
+    }
+
+    private void broadcastLocked() {
+        // Relire une fenêtre en arrière : un identifiant plus petit peut être validé plus tard
+        long from = Math.max(0, broadcastCursor - broadcastLookback);
+        List<Row> rows = jdbcTemplate.query(BROADCAST_SQL,
+                (rs, i) -> new Row(rs.getLong("id"), rs.getString("event_type"), rs.getString("payload")),
+                from, batchSize + broadcastLookback);
+
+        for (Row row : rows) {
+            if (!recentlyBroadcast.add(row.id())) {
+                continue;
+            }
+            RewardEvent event = readOrNull(row);
+            if (event != null) {
+                try {
+                    eventPublisher.publishEvent(new OutboxBroadcast(row.id(), event));
+                } catch (Exception e) {
+                    log.warn("Outbox broadcast listener failed for event {}: {}", row.id(), e.getMessage());
+                }
+            }
+            broadcastCursor = Math.max(broadcastCursor, row.id());
+        }
+    }
+
+    /**
+     * Purger par tranches les événements traités au-delà de la rétention
+     */
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    public void purgeProcessed() {
+        Timestamp threshold = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(
+                    "DELETE FROM outbox_event WHERE processed_at IS NOT NULL AND processed_at < ? LIMIT 1000",
+                    threshold);
+        } while (deleted == 1000);
+    }
+
+    private RewardEvent readOrNull(Row row) {
+        try {
+            return outboxService.read(row.eventType(), row.payload());
+        } catch (Exception e) {
+            // Événement illisible : marqué traité pour ne pas bloquer la file
+            log.error("Skipping unreadable outbox event {} ({}): {}", row.id(), row.eventType(), e.getMessage());
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        wakeUpExecutor.shutdown();
+    }
+}
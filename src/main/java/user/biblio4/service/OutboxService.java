@@ -0,0 +1,73 @@
+package user.biblio4.service;
+
+import user.biblio4.event.*;
+import user.biblio4.model.OutboxEvent;
+import user.biblio4.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+/**
+ * Écriture des événements métier dans la table {@code outbox_event},
+ * dans la transaction de l'appelant (outbox transactionnelle)
+ */
+@Service
+public class OutboxService {
+
+    private static final Map<String, Class<? extends RewardEvent>> EVENT_TYPES = Map.of(
+            "QuizPassed", QuizPassedEvent.class,
+            "WordMastered", WordMasteredEvent.class,
+            "LevelUnlocked", LevelUnlockedEvent.class,
+            "LevelCompleted", LevelCompletedEvent.class
+    );
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OutboxService(
+            OutboxEventRepository outboxEventRepository,
+            ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Ajouter un événement à l'outbox ; échoue hors transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(RewardEvent event) {
+        String type = typeOf(event);
+        try {
+            outboxEventRepository.save(new OutboxEvent(type, event.userId(), objectMapper.writeValueAsString(event)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Impossible de sérialiser l'événement " + type, e);
+        }
+        // Réveille le relais local après commit
+        eventPublisher.publishEvent(new OutboxAppended(type));
+    }
+
+    /**
+     * Reconstruire un événement depuis sa ligne d'outbox
+     */
+    public RewardEvent read(String eventType, String payload) throws JsonProcessingException {
+        Class<? extends RewardEvent> type = EVENT_TYPES.get(eventType);
+        if (type == null) {
+            throw new IllegalArgumentException("Type d'événement inconnu : " + eventType);
+        }
+        return objectMapper.readValue(payload, type);
+    }
+
+    static String typeOf(RewardEvent event) {
+        String name = event.getClass().getSimpleName();
+        return name.endsWith("Event") ? name.substring(0, name.length() - "Event".length()) : name;
+    }
+}
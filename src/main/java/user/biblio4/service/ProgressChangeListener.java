@@ -0,0 +1,32 @@
+package user.biblio4.service;
+
+import user.biblio4.model.UserProgress;
+import user.biblio4.model.UserRewardProgress;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estampille les lignes de progression avec la version de synchronisation
+ * de leur utilisateur à chaque insertion ou mise à jour JPA
+ */
+@Component
+public class ProgressChangeListener {
+
+    private final ObjectProvider<ChangeTracker> changeTracker;
+
+    public ProgressChangeListener(ObjectProvider<ChangeTracker> changeTracker) {
+        this.changeTracker = changeTracker;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void stamp(Object entity) {
+        if (entity instanceof UserProgress progress && progress.getUser() != null) {
+            progress.setChangeVersion(changeTracker.getObject().versionFor(progress.getUser().getId()));
+        } else if (entity instanceof UserRewardProgress progress && progress.getUser() != null) {
+            progress.setChangeVersion(changeTracker.getObject().versionFor(progress.getUser().getId()));
+        }
+    }
+}
@@ -1,37 +1,99 @@
 package user.biblio4.service;
 
+import user.biblio4.dto.LeaderboardEntryDTO;
+import user.biblio4.dto.LevelChangeDTO;
+import user.biblio4.dto.OverallProgressDTO;
+import user.biblio4.event.OutboxBroadcast;
+import user.biblio4.event.ProgressChangedEvent;
+import user.biblio4.event.UserPurgedEvent;
+import user.biblio4.model.UserLearningSummary;
 import user.biblio4.model.UserProgress;
 import user.biblio4.model.User;
+import user.biblio4.model.UserRewardProgress;
 import user.biblio4.repository.UserProgressRepository;
 import user.biblio4.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import user.biblio4.repository.UserRewardProgressRepository;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ProgressService {
 
+    // Une seule requête : récompenses, nombre de mots par niveau et progression de chaque niveau
+    private static final String OVERALL_SQL =
+            "SELECT u.id AS user_id, rp.total_xp, rp.coins, rp.current_level, rp.streak_days, " +
+            "lw.level_number, lw.word_count, up.id AS progress_id, up.total_points, up.quiz_passed, " +
+            "up.quiz_score, up.best_score, " +
+            "(SELECT COUNT(*) FROM user_progress_completed_words c WHERE c.progress_id = up.id) AS completed_words, " +
+            "(SELECT COUNT(*) FROM user_progress_mastered_words m WHERE m.progress_id = up.id) AS mastered_words " +
+            "FROM utilisateurs u " +
+            "LEFT JOIN user_reward_progress rp ON rp.user_id = u.id " +
+            "LEFT JOIN (SELECT level_number, COUNT(*) AS word_count FROM level_word GROUP BY level_number) lw ON 1 = 1 " +
+            "LEFT JOIN user_progress up ON up.user_id = u.id AND up.level_number = lw.level_number " +
+            "WHERE u.id = ? AND u.deleted_at IS NULL ORDER BY lw.level_number";
+
+    // Nombre de mots à compléter pour terminer un niveau
+    private static final int WORDS_PER_LEVEL = 10;
+
 	private final UserProgressRepository userProgressRepository;
     private final UserRepository userRepository;
     private final RewardService rewardService;
+    private final UserRewardProgressRepository rewardProgressRepository;
+    private final LevelService levelService;
+    private final ChangeTracker changeTracker;
+    private final JdbcTemplate jdbcTemplate;
+    private final SingleFlight singleFlight;
+    private final TransactionTemplate readOnlyTemplate;
+
+    private record CachedOverall(OverallProgressDTO progress, long expiresAt) {
+    }
+
+    private final Map<Long, CachedOverall> overallCache;
+    private final long overallCacheTtlMillis;
 
     public ProgressService(
             UserProgressRepository userProgressRepository,
             UserRepository userRepository,
-            RewardService rewardService
+            RewardService rewardService,
+            UserRewardProgressRepository rewardProgressRepository,
+            LevelService levelService,
+            ChangeTracker changeTracker,
+            JdbcTemplate jdbcTemplate,
+            SingleFlight singleFlight,
+            PlatformTransactionManager transactionManager,
+            @Value("${progress.overall.cache-size:10000}") int overallCacheSize,
+            @Value("${progress.overall.cache-ttl-ms:30000}") long overallCacheTtlMillis
     ) {
         this.userProgressRepository = userProgressRepository;
         this.userRepository = userRepository;
         this.rewardService = rewardService;
+        this.rewardProgressRepository = rewardProgressRepository;
+        this.levelService = levelService;
+        this.changeTracker = changeTracker;
+        this.jdbcTemplate = jdbcTemplate;
+        this.singleFlight = singleFlight;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.overallCacheTtlMillis = overallCacheTtlMillis;
+        this.overallCache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedOverall> eldest) {
+                return size() > overallCacheSize;
+            }
+        });
     }
     /**
      * Récupérer les statistiques hebdomadaires
@@ -200,8 +262,13 @@ public class ProgressService {
     /**
      * Récupérer le classement
      */
-    @Transactional(readOnly = true)
-    public List<Map<String, Object>> getLeaderboard(String type, int limit) {
+    public List<LeaderboardEntryDTO> getLeaderboard(String type, int limit) {
+        // Classement identique pour tous : les appels simultanés partagent un seul chargement
+        return singleFlight.execute("progress.leaderboard", type + ":" + limit,
+                () -> readOnlyTemplate.execute(status -> loadLeaderboard(type, limit)));
+    }
+
+    private List<LeaderboardEntryDTO> loadLeaderboard(String type, int limit) {
         List<User> users = userRepository.findAll();
 
         return users.stream()
@@ -223,23 +290,9 @@ public class ProgressService {
                     // }
                 })
                 .limit(Math.min(limit, 50)) // Limite à 50 maximum
-                .map(user -> {
-                    Map<String, Object> entry = new HashMap<>();
-                    entry.put("id", user.getId());
-                    entry.put("username", user.getUsername());
-                    entry.put("email", user.getEmail());
-                    entry.put("role", user.getRole());
-                    entry.put("level", user.getLevel());
-                    entry.put("createdAt", user.getCreatedAt());
-
-                    // Ajouter ces champs si vous les ajoutez à User
-                    // entry.put("totalXP", user.getTotalXP());
-                    // entry.put("currentLevel", user.getCurrentLevel());
-                    // entry.put("streakDays", user.getStreakDays());
-                    // entry.put("coins", user.getCoins());
-
-                    return entry;
-                })
+                // Ajouter totalXP, currentLevel, streakDays et coins à LeaderboardEntryDTO
+                // si vous les ajoutez à User
+                .map(LeaderboardEntryDTO::of)
                 .collect(Collectors.toList());
     }
 
@@ -295,19 +348,11 @@ public class ProgressService {
     // ========== MÉTHODES D'AIDE ==========
 
     /**
-     * Calculer le temps total passé
+     * Calculer le temps total passé (estimation tenue dans le résumé d'apprentissage)
      */
-    private int calculateTotalTimeSpent(List<UserProgress> progressList) {
+    private long calculateTotalTimeSpent(UserLearningSummary summary) {
         // Estimation du temps : chaque mot = 5 minutes, chaque quiz = 10 minutes
-        int totalWords = progressList.stream()
-                .mapToInt(p -> p.getCompletedWords() != null ? p.getCompletedWords().size() : 0)
-                .sum();
-
-        int totalQuizzes = (int) progressList.stream()
-                .filter(p -> p.getQuizPassed() != null)
-                .count();
-
-        return (totalWords * 5) + (totalQuizzes * 10);
+        return summary.getTimeSpentMinutes();
     }
 
     /**
@@ -340,8 +385,154 @@ public class ProgressService {
                 .collect(Collectors.toList());
     }
 
-    public Map<String, Object> getOverallProgress(Long userId) {
-        // TODO Auto-generated method stub
-        return null;
+    /**
+     * Version de synchronisation courante d'un utilisateur
+     */
+    @Transactional(readOnly = true)
+    public long getChangeVersion(Long userId) {
+        return changeTracker.currentVersion(userId);
+    }
+
+    /**
+     * Lignes de progression et de récompenses modifiées depuis une version donnée
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getChangesSince(Long userId, long since, long version) {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("since", since);
+        changes.put("version", version);
+
+        List<LevelChangeDTO> levels = new ArrayList<>();
+        if (since < version) {
+            for (UserProgress progress : userProgressRepository
+                    .findByUserIdAndChangeVersionGreaterThanOrderByLevelNumberAsc(userId, since)) {
+                levels.add(new LevelChangeDTO(levelService.mapProgressToLevelInfo(progress),
+                        progress.getAttempts(), progress.getBestScore(), progress.getChangeVersion()));
+            }
+
+            Optional<UserRewardProgress> reward = rewardProgressRepository.findByUserId(userId)
+                    .filter(r -> r.getChangeVersion() > since);
+            reward.ifPresent(r -> {
+                Map<String, Object> rewardProgress = new HashMap<>();
+                rewardProgress.put("totalXP", r.getTotalXP());
+                rewardProgress.put("coins", r.getCoins());
+                rewardProgress.put("currentLevel", r.getCurrentLevel());
+                rewardProgress.put("streakDays", r.getStreakDays());
+                rewardProgress.put("lastLogin", r.getLastLogin());
+                rewardProgress.put("lastDailyReward", r.getLastDailyReward());
+                rewardProgress.put("changeVersion", r.getChangeVersion());
+                changes.put("rewardProgress", rewardProgress);
+            });
+        }
+        changes.put("levels", levels);
+        return changes;
+    }
+
+    /**
+     * Vue d'ensemble de la progression : une requête agrégée, sans chargement d'entité,
+     * servie depuis un cache court par utilisateur
+     */
+    public OverallProgressDTO getOverallProgress(Long userId) {
+        long now = System.currentTimeMillis();
+        CachedOverall cached = overallCache.get(userId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.progress();
+        }
+
+        OverallProgressDTO progress = loadOverallProgress(userId);
+        overallCache.put(userId, new CachedOverall(progress, now + overallCacheTtlMillis));
+        return progress;
+    }
+
+    private OverallProgressDTO loadOverallProgress(Long userId) {
+        OverallProgressDTO.OverallProgressDTOBuilder overall = OverallProgressDTO.builder().userId(userId);
+        List<OverallProgressDTO.LevelCompletion> levels = new ArrayList<>();
+        long[] totals = new long[6]; // mots, appris, maîtrisés, points, somme des scores, nombre de scores
+        int[] levelCounts = new int[2]; // débloqués, terminés
+        boolean[] found = new boolean[1];
+
+        jdbcTemplate.query(OVERALL_SQL, rs -> {
+            if (!found[0]) {
+                found[0] = true;
+                overall.totalXP(rs.getInt("total_xp"))
+                        .coins(rs.getInt("coins"))
+                        .currentLevel(rs.getObject("current_level") != null ? rs.getInt("current_level") : 1)
+                        .streakDays(rs.getInt("streak_days"));
+            }
+            if (rs.getObject("level_number") == null) {
+                return;
+            }
+
+            long wordCount = rs.getLong("word_count");
+            boolean unlocked = rs.getObject("progress_id") != null;
+            long completed = rs.getLong("completed_words");
+            long mastered = rs.getLong("mastered_words");
+            boolean quizPassed = rs.getBoolean("quiz_passed");
+            Integer quizScore = rs.getObject("quiz_score", Integer.class);
+            long target = Math.min(wordCount, WORDS_PER_LEVEL);
+
+            levels.add(OverallProgressDTO.LevelCompletion.builder()
+                    .levelNumber(rs.getInt("level_number"))
+                    .totalWords(wordCount)
+                    .unlocked(unlocked)
+                    .completedWords(completed)
+                    .masteredWords(mastered)
+                    .completionPercentage(target > 0 ? (int) Math.min(100, completed * 100 / target) : 0)
+                    .quizPassed(quizPassed)
+                    .quizScore(quizScore)
+                    .bestScore(rs.getObject("best_score", Integer.class))
+                    .build());
+
+            totals[0] += wordCount;
+            totals[1] += completed;
+            totals[2] += mastered;
+            totals[3] += rs.getInt("total_points");
+            if (quizScore != null) {
+                totals[4] += quizScore;
+                totals[5]++;
+            }
+            if (unlocked) {
+                levelCounts[0]++;
+            }
+            if (quizPassed) {
+                levelCounts[1]++;
+            }
+        }, userId);
+
+        if (!found[0]) {
+            throw new RuntimeException("Utilisateur non trouvé");
+        }
+
+        return overall
+                .levelsUnlocked(levelCounts[0])
+                .levelsCompleted(levelCounts[1])
+                .totalWords(totals[0])
+                .wordsLearned(totals[1])
+                .wordsMastered(totals[2])
+                .totalPoints((int) totals[3])
+                .averageQuizScore(totals[5] > 0 ? Math.round((double) totals[4] / totals[5] * 100.0) / 100.0 : 0.0)
+                .completionPercentage(levels.isEmpty() ? 0 : levelCounts[1] * 100 / levels.size())
+                .levels(levels)
+                .build();
+    }
+
+    /**
+     * Invalider la vue d'ensemble après une écriture validée (locale ou relayée depuis l'outbox)
+     */
+    @EventListener
+    public void onProgressChanged(ProgressChangedEvent event) {
+        for (Long userId : event.userIds()) {
+            overallCache.remove(userId);
+        }
+    }
+
+    @EventListener
+    public void onOutboxBroadcast(OutboxBroadcast broadcast) {
+        overallCache.remove(broadcast.event().userId());
+    }
+
+    @EventListener
+    public void onUserPurged(UserPurgedEvent event) {
+        overallCache.remove(event.userId());
     }
 }
\ No newline at end of file
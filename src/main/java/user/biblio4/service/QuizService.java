@@ -1,5 +1,8 @@
 package user.biblio4.service;
 
+import user.biblio4.dto.FieldSet;
+import user.biblio4.dto.QuizHistoryView;
+import user.biblio4.dto.QuizQuestionDTO;
 import user.biblio4.model.LevelWord;
 import user.biblio4.model.QuizQuestion;
 import user.biblio4.model.Translation;
@@ -9,8 +12,8 @@ import user.biblio4.repository.LevelWordRepository;
 import user.biblio4.repository.QuizQuestionRepository;
 import user.biblio4.repository.UserProgressRepository;
 import user.biblio4.repository.UserRepository;
+import com.fasterxml.jackson.databind.util.RawValue;
 import lombok.Builder;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,15 +24,28 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Builder
 public class QuizService {
+    /**
+     * Champs possibles de {@code fields} : questions d'un quiz ({@code id} toujours présent)
+     * et lignes de l'historique ({@code levelNumber} toujours présent)
+     */
+    public static final Set<String> QUESTION_FIELDS = Set.of(
+            "questionType", "questionText", "options", "gifUrl", "timeLimit", "points", "requiredScore");
+    public static final Set<String> HISTORY_FIELDS = Set.of(
+            "score", "passed", "attempts", "bestScore", "date", "totalPoints");
+    private static final Set<String> HISTORY_KEYS = Set.of("levelNumber");
+
     private final QuizQuestionRepository quizQuestionRepository;
     private final UserProgressRepository userProgressRepository;
     private final UserRepository userRepository;
     private final RewardService rewardService;
     private final LevelWordRepository levelWordRepository;
+    private final DifficultyStatsService difficultyStatsService;
+    private final AbilityService abilityService;
+    private final LearningSummaryService learningSummaryService;
+    private final CatalogFragmentCache catalogFragmentCache;
     private static final Logger log = LoggerFactory.getLogger(QuizService.class);
 
     public QuizService(
@@ -37,13 +53,21 @@ public class QuizService {
             UserProgressRepository userProgressRepository,
             UserRepository userRepository,
             RewardService rewardService,
-            LevelWordRepository levelWordRepository
+            LevelWordRepository levelWordRepository,
+            DifficultyStatsService difficultyStatsService,
+            AbilityService abilityService,
+            LearningSummaryService learningSummaryService,
+            CatalogFragmentCache catalogFragmentCache
     ) {
         this.quizQuestionRepository = quizQuestionRepository;
         this.userProgressRepository = userProgressRepository;
         this.userRepository = userRepository;
         this.rewardService = rewardService;
         this.levelWordRepository = levelWordRepository;
+        this.difficultyStatsService = difficultyStatsService;
+        this.abilityService = abilityService;
+        this.learningSummaryService = learningSummaryService;
+        this.catalogFragmentCache = catalogFragmentCache;
     }
 
     /**
@@ -125,7 +149,10 @@ public class QuizService {
         quiz.setRequiredScore(70);
         quiz.setOptions(options);           // الخيارات مترجمة
 
-        return quizQuestionRepository.save(quiz);
+        abilityService.evictLevel(levelNumber);
+        QuizQuestion saved = quizQuestionRepository.save(quiz);
+        catalogFragmentCache.bumpVersion();
+        return saved;
   // ❌ لا تحفظ في DB
     }
 
@@ -135,7 +162,7 @@ public class QuizService {
      * Démarrer un quiz pour un niveau
      */
     @Transactional(readOnly = true)
-    public Map<String, Object> startQuiz(Long userId, Integer levelNumber) {
+    public Map<String, Object> startQuiz(Long userId, Integer levelNumber, FieldSet fields) {
         // Vérifier l'existence de l'utilisateur
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
@@ -150,8 +177,8 @@ public class QuizService {
         // throw new RuntimeException("Quiz non disponible. Complétez 10 mots d'abord");
         // }
 
-        // Récupérer les questions du quiz (5 questions aléatoires)
-        List<QuizQuestion> questions = getRandomQuestionsByLevel(levelNumber, 5);
+        // Récupérer les questions du quiz (5 questions proches du niveau estimé)
+        List<QuizQuestion> questions = getAdaptiveQuestionsByLevel(userId, levelNumber, 5);
 
         if (questions.isEmpty()) {
             throw new RuntimeException("Aucune question disponible pour ce niveau");
@@ -160,9 +187,11 @@ public class QuizService {
         // Créer une session de quiz
         String sessionId = UUID.randomUUID().toString();
 
-        // Convertir les questions en format DTO
-        List<Map<String, Object>> questionList = questions.stream()
-                .map(this::mapQuestionToDTO)
+        // Questions servies depuis le cache de fragments JSON du catalogue
+        List<RawValue> questionList = questions.stream()
+                .map(q -> new RawValue(fields.isAll()
+                        ? catalogFragmentCache.questionFragment(q, this::mapQuestionToDTO)
+                        : catalogFragmentCache.questionFragment(q, fields, question -> mapQuestion(question, fields))))
                 .collect(Collectors.toList());
 
         // Calculer le temps limite total
@@ -179,6 +208,7 @@ public class QuizService {
         response.put("requiredScore", questions.get(0).getRequiredScore());
         response.put("timeLimit", totalTimeLimit);
         response.put("startTime", LocalDateTime.now());
+        response.put("abilityRating", Math.round(abilityService.getRating(userId, levelNumber)));
         response.put("questions", questionList);
 
         return response;
@@ -191,20 +221,28 @@ public class QuizService {
     public Map<String, Object> submitQuiz(Long userId, Integer levelNumber,
             Map<String, Object> submission) {
 
-        // Extraire les données
-        String sessionId = (String) submission.get("sessionId");
-        @SuppressWarnings("unchecked")
-        Map<String, String> answers = (Map<String, String>) submission.get("answers");
-
-        // Vérifier l'existence de l'utilisateur
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-
-        // Vérifier la progression de l'utilisateur
+        // Vérifier la progression de l'utilisateur (implique l'existence de l'utilisateur)
         UserProgress progress = userProgressRepository
                 .findByUserIdAndLevelNumber(userId, levelNumber)
                 .orElseThrow(() -> new RuntimeException("Niveau non ouvert"));
 
+        return applyQuizSubmission(userId, progress, submission);
+    }
+
+    /**
+     * Corriger un quiz sur une progression déjà chargée (utilisé aussi par la synchronisation)
+     */
+    Map<String, Object> applyQuizSubmission(Long userId, UserProgress progress, Map<String, Object> submission) {
+        Integer levelNumber = progress.getLevelNumber();
+
+        // Extraire les données
+        String language = (String) submission.get("language");
+        @SuppressWarnings("unchecked")
+        Map<String, String> answers = (Map<String, String>) submission.get("answers");
+        if (answers == null || answers.isEmpty()) {
+            throw new RuntimeException("Aucune réponse soumise");
+        }
+
         // Récupérer les questions originales
         List<Long> questionIds = answers.keySet().stream()
                 .map(Long::parseLong)
@@ -216,13 +254,22 @@ public class QuizService {
         int totalPoints = 0;
         Map<Long, Boolean> results = new HashMap<>();
         Map<Long, String> correctAnswersMap = new HashMap<>();
+        long[] gradedIds = new long[questions.size()];
+        boolean[] gradedCorrect = new boolean[questions.size()];
+        int graded = 0;
 
         for (QuizQuestion question : questions) {
             String userAnswer = answers.get(question.getId().toString());
-            boolean isCorrect = question.getCorrectAnswer() != null &&
-                    question.getCorrectAnswer().equalsIgnoreCase(userAnswer);
+            // Questions "typed" : clé normalisée au chargement et tolérance ;
+            // choix multiples : comparaison exacte à la casse près, comme avant
+            boolean isCorrect = question.getCorrectAnswer() != null && (question.isTyped()
+                    ? AnswerGrader.matches(question.getAnswerKey(), userAnswer, question.getEffectiveTolerance())
+                    : question.getCorrectAnswer().equalsIgnoreCase(userAnswer));
 
             results.put(question.getId(), isCorrect);
+            difficultyStatsService.recordQuestion(question.getId(), question.getLevelNumber(), language, isCorrect);
+            gradedIds[graded] = question.getId();
+            gradedCorrect[graded++] = isCorrect;
             correctAnswersMap.put(question.getId(), question.getCorrectAnswer());
 
             if (isCorrect) {
@@ -236,28 +283,28 @@ public class QuizService {
         int scorePercentage = totalQuestions > 0 ? (correctAnswers * 100) / totalQuestions : 0;
         boolean passed = questions.size() > 0 && scorePercentage >= questions.get(0).getRequiredScore();
 
+        // Mettre à jour l'estimation de niveau (Elo)
+        float abilityRating = abilityService.recordResults(userId, levelNumber, gradedIds, gradedCorrect, graded);
+
         // Mettre à jour la progression de l'utilisateur
+        long[] before = learningSummaryService.snapshot(progress);
         progress.setQuizPassed(passed);
         progress.setQuizScore(scorePercentage);
         progress.setLastAttempt(LocalDateTime.now());
         progress.setAttempts(progress.getAttempts() != null ? progress.getAttempts() + 1 : 1);
 
+        Map<String, Object> reward = null;
         if (passed) {
             progress.setCompletedAt(LocalDateTime.now());
             progress.setTotalPoints(
                     progress.getTotalPoints() != null ? progress.getTotalPoints() + totalPoints : totalPoints);
 
-            // Mettre à jour les points de l'utilisateur
-            // Note: Vous devez ajouter ces champs à votre entité User
-            // user.setTotalXP(user.getTotalXP() + totalPoints);
-            // user.setCoins(user.getCoins() + 100);
-            userRepository.save(user);
-
-            // Accorder des récompenses de succès
-            rewardService.awardQuizSuccess(userId, levelNumber, scorePercentage);
+            // Récompense calculée ici, écrite après commit par RewardWorker
+            reward = rewardService.grantQuizSuccess(userId, levelNumber, scorePercentage);
         }
 
         userProgressRepository.save(progress);
+        learningSummaryService.recordChange(userId, before, progress);
 
         // Construire le résultat du quiz
         Map<String, Object> result = new HashMap<>();
@@ -269,6 +316,7 @@ public class QuizService {
         result.put("results", results);
         result.put("correctAnswersMap", correctAnswersMap);
         result.put("message", getResultMessage(scorePercentage, passed));
+        result.put("abilityRating", Math.round(abilityRating));
 
         // Si réussi, vérifier si le niveau suivant peut être débloqué
         if (passed && levelNumber < 10) {
@@ -281,11 +329,7 @@ public class QuizService {
         }
 
         // Ajouter les récompenses si réussi
-        if (passed) {
-            Map<String, Object> reward = new HashMap<>();
-            reward.put("xp", totalPoints);
-            reward.put("coins", 100);
-            reward.put("badge", "quiz_master_" + levelNumber);
+        if (reward != null) {
             result.put("reward", reward);
         }
 
@@ -296,21 +340,10 @@ public class QuizService {
      * Récupérer l'historique des quiz
      */
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getQuizHistory(Long userId) {
-        List<UserProgress> progressList = userProgressRepository.findByUserId(userId);
-
-        return progressList.stream()
-                .filter(p -> p.getQuizScore() != null)
-                .sorted((p1, p2) -> {
-                    if (p1.getLastAttempt() == null && p2.getLastAttempt() == null)
-                        return 0;
-                    if (p1.getLastAttempt() == null)
-                        return 1;
-                    if (p2.getLastAttempt() == null)
-                        return -1;
-                    return p2.getLastAttempt().compareTo(p1.getLastAttempt());
-                })
-                .map(this::mapProgressToHistory)
+    public List<Map<String, Object>> getQuizHistory(Long userId, FieldSet fields) {
+        // Projection triée en SQL : ni entité gérée ni collection de mots chargée
+        return userProgressRepository.findQuizHistoryByUserId(userId).stream()
+                .map(view -> fields.retain(mapHistory(view), HISTORY_KEYS))
                 .collect(Collectors.toList());
     }
 
@@ -349,11 +382,13 @@ public class QuizService {
                 .orElseThrow(() -> new RuntimeException("Niveau non ouvert"));
 
         // Réinitialiser le résultat du quiz précédent
+        long[] before = learningSummaryService.snapshot(progress);
         progress.setQuizPassed(null);
         progress.setQuizScore(null);
         progress.setLastAttempt(null);
 
         userProgressRepository.save(progress);
+        learningSummaryService.recordChange(userId, before, progress);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -368,31 +403,67 @@ public class QuizService {
     /**
      * Convertir une question en DTO
      */
-    private Map<String, Object> mapQuestionToDTO(QuizQuestion question) {
-        Map<String, Object> dto = new HashMap<>();
+    private QuizQuestionDTO mapQuestionToDTO(QuizQuestion question) {
+        return new QuizQuestionDTO(
+                question.getId(),
+                question.getQuestionType(),
+                question.getQuestionText(),
+                options(question),
+                question.getGifUrl(),
+                question.getTimeLimit() != null ? question.getTimeLimit() : 30,
+                question.getPoints() != null ? question.getPoints() : 10,
+                question.getRequiredScore() != null ? question.getRequiredScore() : 70);
+    }
+
+    /**
+     * Question réduite aux champs demandés : les options (JSON) ne sont décodées que si demandées
+     */
+    private Map<String, Object> mapQuestion(QuizQuestion question, FieldSet fields) {
+        Map<String, Object> dto = new LinkedHashMap<>();
         dto.put("id", question.getId());
-        dto.put("questionType", question.getQuestionType());
-        dto.put("questionText", question.getQuestionText());
-        dto.put("options", question.getOptions() != null ? question.getOptions() : new ArrayList<>());
-        dto.put("gifUrl", question.getGifUrl());
-        dto.put("timeLimit", question.getTimeLimit() != null ? question.getTimeLimit() : 30);
-        dto.put("points", question.getPoints() != null ? question.getPoints() : 10);
-        dto.put("requiredScore", question.getRequiredScore() != null ? question.getRequiredScore() : 70);
+        if (fields.includes("questionType")) {
+            dto.put("questionType", question.getQuestionType());
+        }
+        if (fields.includes("questionText")) {
+            dto.put("questionText", question.getQuestionText());
+        }
+        if (fields.includes("options")) {
+            dto.put("options", options(question));
+        }
+        if (fields.includes("gifUrl")) {
+            dto.put("gifUrl", question.getGifUrl());
+        }
+        if (fields.includes("timeLimit")) {
+            dto.put("timeLimit", question.getTimeLimit() != null ? question.getTimeLimit() : 30);
+        }
+        if (fields.includes("points")) {
+            dto.put("points", question.getPoints() != null ? question.getPoints() : 10);
+        }
+        if (fields.includes("requiredScore")) {
+            dto.put("requiredScore", question.getRequiredScore() != null ? question.getRequiredScore() : 70);
+        }
         return dto;
     }
 
+    private static List<String> options(QuizQuestion question) {
+        if (AnswerGrader.TYPED.equalsIgnoreCase(question.getQuestionType())) {
+            return List.of();
+        }
+        return question.getOptions() != null ? question.getOptions() : List.of();
+    }
+
     /**
      * Convertir une progression en historique
      */
-    private Map<String, Object> mapProgressToHistory(UserProgress progress) {
+    private Map<String, Object> mapHistory(QuizHistoryView view) {
         Map<String, Object> history = new HashMap<>();
-        history.put("levelNumber", progress.getLevelNumber());
-        history.put("score", progress.getQuizScore());
-        history.put("passed", progress.getQuizPassed() != null ? progress.getQuizPassed() : false);
-        history.put("attempts", progress.getAttempts() != null ? progress.getAttempts() : 0);
-        history.put("bestScore", progress.getBestScore() != null ? progress.getBestScore() : 0);
-        history.put("date", progress.getLastAttempt());
-        history.put("totalPoints", progress.getTotalPoints() != null ? progress.getTotalPoints() : 0);
+        history.put("levelNumber", view.levelNumber());
+        history.put("score", view.quizScore());
+        history.put("passed", view.quizPassed() != null ? view.quizPassed() : false);
+        history.put("attempts", view.attempts() != null ? view.attempts() : 0);
+        history.put("bestScore", view.bestScore() != null ? view.bestScore() : 0);
+        history.put("date", view.lastAttempt());
+        history.put("totalPoints", view.totalPoints() != null ? view.totalPoints() : 0);
         return history;
     }
 
@@ -437,6 +508,26 @@ public class QuizService {
                 progress.getCompletedWords().size() >= 10;
     }
 
+    /**
+     * Récupérer des questions adaptées au niveau estimé de l'utilisateur,
+     * avec repli sur la sélection aléatoire
+     */
+    private List<QuizQuestion> getAdaptiveQuestionsByLevel(Long userId, Integer levelNumber, int count) {
+        List<Long> selectedIds = abilityService.selectQuestionIds(userId, levelNumber, count);
+        if (selectedIds.isEmpty()) {
+            return getRandomQuestionsByLevel(levelNumber, count);
+        }
+
+        Map<Long, QuizQuestion> byId = quizQuestionRepository.findAllById(selectedIds).stream()
+                .collect(Collectors.toMap(QuizQuestion::getId, q -> q));
+        List<QuizQuestion> questions = selectedIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return questions.isEmpty() ? getRandomQuestionsByLevel(levelNumber, count) : questions;
+    }
+
     /**
      * Récupérer des questions aléatoires pour un niveau
      * Note: Vous devez créer cette méthode dans QuizQuestionRepository
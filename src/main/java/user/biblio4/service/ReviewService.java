@@ -0,0 +1,359 @@
+package user.biblio4.service;
+
+import user.biblio4.event.UserPurgedEvent;
+import user.biblio4.model.ReviewCard;
+import user.biblio4.repository.ReviewCardRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Révision espacée des mots maîtrisés (algorithme SM-2).
+ *
+ * Les cartes sont persistées dans {@code review_card}, indexée sur
+ * (user_id, due_at). Pour les utilisateurs actifs, les prochaines échéances
+ * sont gardées dans un tas binaire en mémoire : obtenir les k prochaines
+ * révisions coûte O(k log n) sans parcourir les progressions.
+ *
+ * Les mots maîtrisés avant l'introduction des cartes reçoivent la leur au
+ * démarrage ({@code review.backfill.enabled}), échue immédiatement.
+ */
+@Service
+@Slf4j
+public class ReviewService {
+
+    static final int MAX_GRADE = 5;
+    private static final int PASSING_GRADE = 3;
+    private static final float MIN_EASE = 1.3f;
+    private static final float MAX_INTERVAL_DAYS = 365f;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    // Cartes manquantes des mots maîtrisés, pour une tranche d'identifiants de progression
+    private static final String BACKFILL_SQL =
+            "INSERT INTO review_card (user_id, level_number, word_key, interval_days, ease, repetitions, lapses, " +
+            "due_at, created_at) " +
+            "SELECT DISTINCT p.user_id, p.level_number, m.word_key, 1, 2.5, 0, 0, ?, ? " +
+            "FROM user_progress p JOIN user_progress_mastered_words m ON m.progress_id = p.id " +
+            "WHERE p.id > ? AND p.id <= ? AND m.word_key IS NOT NULL AND NOT EXISTS (" +
+            "SELECT 1 FROM review_card c WHERE c.user_id = p.user_id AND c.level_number = p.level_number " +
+            "AND c.word_key = m.word_key)";
+
+    private final ReviewCardRepository reviewCardRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean backfillEnabled;
+    private final int backfillBatchSize;
+    private final int preloadSize;
+    private final long queueTtlMillis;
+    private final Map<Long, DueQueue> queues;
+
+    public ReviewService(
+            ReviewCardRepository reviewCardRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${review.backfill.enabled:true}") boolean backfillEnabled,
+            @Value("${review.backfill.batch-size:1000}") int backfillBatchSize,
+            @Value("${review.queue.cache-size:10000}") int cacheSize,
+            @Value("${review.queue.preload:500}") int preloadSize,
+            @Value("${review.queue.ttl-ms:300000}") long queueTtlMillis
+    ) {
+        this.reviewCardRepository = reviewCardRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.backfillEnabled = backfillEnabled;
+        this.backfillBatchSize = backfillBatchSize;
+        this.preloadSize = preloadSize;
+        this.queueTtlMillis = queueTtlMillis;
+        this.queues = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, DueQueue> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    private record Due(long dueAt, long cardId) {
+    }
+
+    /**
+     * Tas des échéances d'un utilisateur. Les entrées périmées (carte
+     * reprogrammée ou supprimée) sont ignorées à la lecture plutôt que retirées.
+     */
+    static final class DueQueue {
+        private final PriorityQueue<Due> heap = new PriorityQueue<>(
+                Comparator.comparingLong(Due::dueAt).thenComparingLong(Due::cardId));
+        private final Map<Long, Long> current = new HashMap<>();
+        // Chargement tronqué : l'ordre n'est garanti que jusqu'à cette échéance
+        private final long horizon;
+        private final long loadedAt;
+
+        DueQueue(long horizon, long loadedAt) {
+            this.horizon = horizon;
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized void put(long cardId, long dueAt) {
+            current.put(cardId, dueAt);
+            heap.add(new Due(dueAt, cardId));
+        }
+
+        synchronized void remove(long cardId) {
+            current.remove(cardId);
+        }
+
+        synchronized List<Long> peekDue(long now, int limit) {
+            List<Due> taken = new ArrayList<>(limit);
+            while (taken.size() < limit && !heap.isEmpty() && heap.peek().dueAt() <= now) {
+                Due due = heap.poll();
+                Long valid = current.get(due.cardId());
+                if (valid != null && valid == due.dueAt()) {
+                    taken.add(due);
+                }
+            }
+            List<Long> ids = new ArrayList<>(taken.size());
+            for (Due due : taken) {
+                heap.add(due);
+                ids.add(due.cardId());
+            }
+            return ids;
+        }
+
+        boolean isStale(long now, long ttlMillis) {
+            return now >= horizon || now - loadedAt > ttlMillis;
+        }
+    }
+
+    /**
+     * Prochaines révisions échues d'un utilisateur
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getNextReviews(Long userId, int limit) {
+        int size = Math.min(Math.max(limit, 1), 100);
+        LocalDateTime now = LocalDateTime.now();
+        long nowMillis = toMillis(now);
+        DueQueue queue = queueOf(userId, nowMillis);
+
+        List<Long> ids = queue.peekDue(nowMillis, size);
+        Map<Long, ReviewCard> cards = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (ReviewCard card : reviewCardRepository.findByUserIdAndIdIn(userId, ids)) {
+                cards.put(card.getId(), card);
+            }
+        }
+
+        List<Map<String, Object>> reviews = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ReviewCard card = cards.get(id);
+            if (card == null) {
+                queue.remove(id);
+                continue;
+            }
+            // Carte révisée depuis un autre nœud : corriger le tas
+            if (card.getDueAt().isAfter(now)) {
+                queue.put(id, toMillis(card.getDueAt()));
+                continue;
+            }
+            reviews.add(toMap(card));
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("reviews", reviews);
+        result.put("count", reviews.size());
+        return result;
+    }
+
+    /**
+     * Enregistrer un lot de réponses de révision ({@code cardId}, {@code grade} de 0 à 5)
+     */
+    @Transactional
+    public Map<String, Object> submitReviews(Long userId, List<Map<String, Object>> answers) {
+        if (answers == null || answers.isEmpty()) {
+            throw new RuntimeException("Aucune réponse à enregistrer");
+        }
+
+        List<Long> ids = new ArrayList<>(answers.size());
+        int[] grades = new int[answers.size()];
+        for (int i = 0; i < answers.size(); i++) {
+            Map<String, Object> answer = answers.get(i);
+            if (!(answer.get("cardId") instanceof Number cardId) || !(answer.get("grade") instanceof Number grade)) {
+                throw new RuntimeException("Réponse invalide : cardId et grade sont requis");
+            }
+            if (grade.intValue() < 0 || grade.intValue() > MAX_GRADE) {
+                throw new RuntimeException("Note invalide : " + grade + " (0 à " + MAX_GRADE + ")");
+            }
+            ids.add(cardId.longValue());
+            grades[i] = grade.intValue();
+        }
+
+        Map<Long, ReviewCard> cards = new HashMap<>();
+        for (ReviewCard card : reviewCardRepository.findByUserIdAndIdIn(userId, new HashSet<>(ids))) {
+            cards.put(card.getId(), card);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Map<String, Object>> results = new ArrayList<>();
+        List<Long> unknown = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            ReviewCard card = cards.get(ids.get(i));
+            if (card == null) {
+                unknown.add(ids.get(i));
+                continue;
+            }
+            schedule(card, grades[i], now);
+            Map<String, Object> result = toMap(card);
+            result.put("grade", grades[i]);
+            results.add(result);
+        }
+        reviewCardRepository.saveAll(cards.values());
+
+        DueQueue queue = queues.get(userId);
+        if (queue != null) {
+            for (ReviewCard card : cards.values()) {
+                queue.put(card.getId(), toMillis(card.getDueAt()));
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("reviewed", results.size());
+        response.put("results", results);
+        if (!unknown.isEmpty()) {
+            response.put("unknownCards", unknown);
+        }
+        return response;
+    }
+
+    /**
+     * Créer la carte de révision d'un mot qui vient d'être maîtrisé
+     */
+    @Transactional
+    public void enroll(Long userId, Integer levelNumber, String wordKey) {
+        if (reviewCardRepository.findByUserIdAndLevelNumberAndWordKey(userId, levelNumber, wordKey).isPresent()) {
+            return;
+        }
+        LocalDateTime dueAt = LocalDateTime.now().plusDays(1);
+        ReviewCard card = reviewCardRepository.save(new ReviewCard(userId, levelNumber, wordKey, dueAt));
+
+        DueQueue queue = queues.get(userId);
+        if (queue != null) {
+            queue.put(card.getId(), toMillis(dueAt));
+        }
+    }
+
+    /**
+     * Supprimer les cartes d'un niveau réinitialisé
+     */
+    @Transactional
+    public void dropLevel(Long userId, Integer levelNumber) {
+        reviewCardRepository.deleteByUserIdAndLevelNumber(userId, levelNumber);
+        queues.remove(userId);
+    }
+
+    @EventListener
+    public void onUserPurged(UserPurgedEvent event) {
+        queues.remove(event.userId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (backfillEnabled) {
+            backfillFromMasteredWords();
+        }
+    }
+
+    /**
+     * Créer les cartes des mots maîtrisés qui n'en ont pas, par tranches d'identifiants
+     * de progression (une instruction courte par tranche). Idempotent : relancé sans
+     * effet une fois les cartes créées.
+     */
+    public int backfillFromMasteredWords() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM user_progress", Long.class);
+        if (maxId == null) {
+            return 0;
+        }
+        int inserted = 0;
+        for (long from = 0; from < maxId; from += backfillBatchSize) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            try {
+                inserted += jdbcTemplate.update(BACKFILL_SQL, now, now, from, from + backfillBatchSize);
+            } catch (DataIntegrityViolationException e) {
+                // Carte créée entre-temps par une maîtrise concurrente : la tranche sera reprise au prochain démarrage
+                log.info("Review card backfill skipped progress ids ({}, {}]: {}", from, from + backfillBatchSize,
+                        e.getMostSpecificCause().getMessage());
+            }
+        }
+        if (inserted > 0) {
+            queues.clear();
+            log.info("Review card backfill created {} cards for previously mastered words", inserted);
+        }
+        return inserted;
+    }
+
+    /**
+     * Mise à jour SM-2 : intervalle, facilité et prochaine échéance
+     */
+    static void schedule(ReviewCard card, int grade, LocalDateTime now) {
+        float ease = card.getEase();
+        float interval;
+        if (grade < PASSING_GRADE) {
+            card.setRepetitions(0);
+            card.setLapses(card.getLapses() + 1);
+            interval = 1f;
+        } else {
+            int repetitions = card.getRepetitions() + 1;
+            card.setRepetitions(repetitions);
+            if (repetitions == 1) {
+                interval = 1f;
+            } else if (repetitions == 2) {
+                interval = 6f;
+            } else {
+                interval = Math.min(card.getIntervalDays() * ease, MAX_INTERVAL_DAYS);
+            }
+        }
+        int miss = MAX_GRADE - grade;
+        card.setEase(Math.max(MIN_EASE, ease + 0.1f - miss * (0.08f + miss * 0.02f)));
+        card.setIntervalDays(interval);
+        card.setLastReviewedAt(now);
+        card.setDueAt(now.plusSeconds((long) ((double) interval * DAY_MILLIS / 1000)));
+    }
+
+    private DueQueue queueOf(Long userId, long nowMillis) {
+        DueQueue queue = queues.get(userId);
+        if (queue != null && !queue.isStale(nowMillis, queueTtlMillis)) {
+            return queue;
+        }
+        List<Object[]> upcoming = reviewCardRepository.findUpcomingDue(userId, PageRequest.of(0, preloadSize));
+        long horizon = upcoming.size() < preloadSize
+                ? Long.MAX_VALUE
+                : toMillis((LocalDateTime) upcoming.get(upcoming.size() - 1)[1]);
+        DueQueue loaded = new DueQueue(horizon, nowMillis);
+        for (Object[] row : upcoming) {
+            loaded.put((Long) row[0], toMillis((LocalDateTime) row[1]));
+        }
+        queues.put(userId, loaded);
+        return loaded;
+    }
+
+    private static Map<String, Object> toMap(ReviewCard card) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("cardId", card.getId());
+        map.put("levelNumber", card.getLevelNumber());
+        map.put("wordKey", card.getWordKey());
+        map.put("intervalDays", card.getIntervalDays());
+        map.put("ease", card.getEase());
+        map.put("repetitions", card.getRepetitions());
+        map.put("dueAt", card.getDueAt());
+        return map;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,33 +1,47 @@
 package user.biblio4.service;
 
+import user.biblio4.dto.RewardEntryDTO;
+import user.biblio4.event.*;
 import user.biblio4.model.User;
 import user.biblio4.model.UserRewardProgress;
 import user.biblio4.repository.UserRepository;
 import user.biblio4.repository.UserRewardProgressRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.*;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RewardService {
 	private final UserRepository userRepository;
     private final UserRewardProgressRepository rewardProgressRepository;
+    private final OutboxService outboxService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeTracker changeTracker;
    
     public RewardService(
             UserRepository userRepository,
-            UserRewardProgressRepository rewardProgressRepository
+            UserRewardProgressRepository rewardProgressRepository,
+            OutboxService outboxService,
+            JdbcTemplate jdbcTemplate,
+            ChangeTracker changeTracker
     ) {
         this.userRepository = userRepository;
         this.rewardProgressRepository = rewardProgressRepository;
+        this.outboxService = outboxService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeTracker = changeTracker;
     }
     /**
-     * Obtenir ou créer la progression de récompense d'un utilisateur
+     * Obtenir ou créer la progression de récompense d'un utilisateur.
+     * Dans une transaction en lecture seule (tableau de bord), la progression
+     * initiale est renvoyée sans être écrite : elle sera créée au prochain accès.
      */
     private UserRewardProgress getOrCreateUserRewardProgress(Long userId) {
         User user = userRepository.findById(userId)
@@ -36,56 +50,39 @@ public class RewardService {
         return rewardProgressRepository.findByUserId(userId)
                 .orElseGet(() -> {
                     UserRewardProgress progress = new UserRewardProgress(user);
+                    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                        return progress;
+                    }
                     return rewardProgressRepository.save(progress);
                 });
     }
 
-    @Transactional
-    public Map<String, Object> awardLevelCompletion(Long userId, Integer levelNumber) {
-        UserRewardProgress progress = getOrCreateUserRewardProgress(userId);
+    // ========== RÉCOMPENSES ASYNCHRONES ==========
+    // Les méthodes grant* calculent la récompense et écrivent un événement dans l'outbox
+    // (même transaction) ; OutboxRelay le fait appliquer par lots par RewardWorker.
 
+    public Map<String, Object> grantLevelCompletion(Long userId, Integer levelNumber) {
         int xpReward = levelNumber * 50;
         int coinReward = levelNumber * 20;
-        String badge = "level_" + levelNumber + "_complete";
 
-        progress.addXP(xpReward);
-        progress.addCoins(coinReward);
-        rewardProgressRepository.save(progress);
+        outboxService.append(new LevelCompletedEvent(userId, levelNumber, xpReward, coinReward));
 
         Map<String, Object> reward = new HashMap<>();
         reward.put("type", "level_completion");
         reward.put("xp", xpReward);
         reward.put("coins", coinReward);
-        reward.put("badge", badge);
+        reward.put("badge", "level_" + levelNumber + "_complete");
         reward.put("message", "Félicitations ! Niveau " + levelNumber + " complété");
-        reward.put("totalXP", progress.getTotalXP());
-        reward.put("totalCoins", progress.getCoins());
 
         return reward;
     }
 
-    @Transactional
-    public Map<String, Object> awardQuizSuccess(Long userId, Integer levelNumber, Integer score) {
-        UserRewardProgress progress = getOrCreateUserRewardProgress(userId);
-
-        int baseXP = 100;
-        int bonusXP = 0;
-
-        if (score >= 90) {
-            bonusXP = 50;
-        } else if (score >= 80) {
-            bonusXP = 30;
-        } else if (score >= 70) {
-            bonusXP = 10;
-        }
-
-        int totalXP = baseXP + bonusXP;
+    public Map<String, Object> grantQuizSuccess(Long userId, Integer levelNumber, Integer score) {
+        int bonusXP = getQuizBonusXP(score);
+        int totalXP = 100 + bonusXP;
         int coins = 50 + (levelNumber * 10);
-        String badge = getQuizBadge(score, levelNumber);
 
-        progress.addXP(totalXP);
-        progress.addCoins(coins);
-        rewardProgressRepository.save(progress);
+        outboxService.append(new QuizPassedEvent(userId, levelNumber, score, totalXP, coins));
 
         Map<String, Object> reward = new HashMap<>();
         reward.put("type", "quiz_success");
@@ -93,95 +90,146 @@ public class RewardService {
         reward.put("xp", totalXP);
         reward.put("bonusXP", bonusXP);
         reward.put("coins", coins);
-        reward.put("badge", badge);
+        reward.put("badge", getQuizBadge(score, levelNumber));
         reward.put("message", getQuizSuccessMessage(score));
-        reward.put("totalXP", progress.getTotalXP());
-        reward.put("totalCoins", progress.getCoins());
 
         return reward;
     }
 
-    @Transactional
-    public Map<String, Object> awardDailyStreak(Long userId, int streakDays) {
-        UserRewardProgress progress = getOrCreateUserRewardProgress(userId);
+    public Map<String, Object> grantLevelUnlock(Long userId, Integer levelNumber) {
+        int coinReward = levelNumber * 25;
+        int xpReward = 50;
 
-        int baseCoins = 10;
-        int streakBonus = Math.min(streakDays * 5, 50);
-        int totalCoins = baseCoins + streakBonus;
+        outboxService.append(new LevelUnlockedEvent(userId, levelNumber, xpReward, coinReward));
 
-        int xpReward = 20 + (streakDays * 2);
+        Map<String, Object> reward = new HashMap<>();
+        reward.put("type", "level_unlock");
+        reward.put("levelNumber", levelNumber);
+        reward.put("coins", coinReward);
+        reward.put("xp", xpReward);
+        reward.put("badge", "level_" + levelNumber + "_unlocked");
+        reward.put("message", "Félicitations ! Niveau " + levelNumber + " débloqué");
 
-        progress.addCoins(totalCoins);
-        progress.addXP(xpReward);
+        return reward;
+    }
 
-        // Mettre à jour le streak
-        progress.setStreakDays(streakDays);
-        progress.setLastLogin(LocalDateTime.now());
-        progress.setLastDailyReward(LocalDateTime.now());
+    public Map<String, Object> grantWordMastery(Long userId, Integer levelNumber, String wordKey) {
+        int xpReward = 25;
+        int coinReward = 15;
 
-        rewardProgressRepository.save(progress);
+        outboxService.append(new WordMasteredEvent(userId, levelNumber, wordKey, xpReward, coinReward));
 
         Map<String, Object> reward = new HashMap<>();
-        reward.put("type", "daily_streak");
-        reward.put("streakDays", streakDays);
-        reward.put("coins", totalCoins);
-        reward.put("streakBonus", streakBonus);
+        reward.put("type", "word_mastery");
+        reward.put("wordKey", wordKey);
         reward.put("xp", xpReward);
-        reward.put("message", "Jour " + streakDays + " consécutif ! Continuez comme ça !");
-        reward.put("totalXP", progress.getTotalXP());
-        reward.put("totalCoins", progress.getCoins());
+        reward.put("coins", coinReward);
+        reward.put("message", "Excellent ! Mot maîtrisé : " + wordKey);
 
         return reward;
     }
 
-    @Transactional
-    public Map<String, Object> awardLevelUnlock(Long userId, Integer levelNumber) {
-        UserRewardProgress progress = getOrCreateUserRewardProgress(userId);
-
-        int coinReward = levelNumber * 25;
-        int xpReward = 50;
-
-        progress.addCoins(coinReward);
-        progress.addXP(xpReward);
+    /**
+     * Cumul des gains d'un utilisateur dans un lot d'événements
+     */
+    public static final class RewardDelta {
+        private int xp;
+        private int coins;
+        private int currentLevel;
+
+        public void add(RewardEvent event) {
+            xp += event.xp();
+            coins += event.coins();
+            if (event.unlockedLevel() != null) {
+                currentLevel = Math.max(currentLevel, event.unlockedLevel());
+            }
+        }
 
-        // Mettre à jour le niveau actuel
-        if (levelNumber > progress.getCurrentLevel()) {
-            progress.setCurrentLevel(levelNumber);
+        public int getXp() {
+            return xp;
         }
 
-        rewardProgressRepository.save(progress);
+        public int getCoins() {
+            return coins;
+        }
 
-        Map<String, Object> reward = new HashMap<>();
-        reward.put("type", "level_unlock");
-        reward.put("levelNumber", levelNumber);
-        reward.put("coins", coinReward);
-        reward.put("xp", xpReward);
-        reward.put("badge", "level_" + levelNumber + "_unlocked");
-        reward.put("message", "Félicitations ! Niveau " + levelNumber + " débloqué");
-        reward.put("currentLevel", progress.getCurrentLevel());
-        reward.put("totalXP", progress.getTotalXP());
-        reward.put("totalCoins", progress.getCoins());
+        public int getCurrentLevel() {
+            return currentLevel;
+        }
+    }
 
-        return reward;
+    /**
+     * Appliquer un lot de gains cumulés par utilisateur (un UPDATE groupé,
+     * création de la ligne pour les utilisateurs qui n'en ont pas encore)
+     */
+    @Transactional
+    public void applyDeltas(Map<Long, RewardDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(deltas.keySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<Long, Long> versions = changeTracker.versionsFor(userIds);
+
+        List<Object[]> batch = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            RewardDelta delta = deltas.get(userId);
+            batch.add(new Object[] {
+                    delta.getXp(), delta.getCoins(), delta.getCurrentLevel(), delta.getCurrentLevel(), now,
+                    versions.get(userId), userId
+            });
+        }
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE user_reward_progress SET total_xp = total_xp + ?, coins = coins + ?, " +
+                "current_level = CASE WHEN current_level < ? THEN ? ELSE current_level END, " +
+                "updated_at = ?, change_version = ? WHERE user_id = ?", batch);
+
+        for (int i = 0; i < userIds.size(); i++) {
+            if (updated[i] == 0) {
+                Long userId = userIds.get(i);
+                if (!userRepository.existsById(userId)) {
+                    // Utilisateur supprimé : gain abandonné plutôt que de bloquer le lot
+                    continue;
+                }
+                RewardDelta delta = deltas.get(userId);
+                UserRewardProgress progress = getOrCreateUserRewardProgress(userId);
+                progress.addXP(delta.getXp());
+                progress.addCoins(delta.getCoins());
+                if (delta.getCurrentLevel() > progress.getCurrentLevel()) {
+                    progress.setCurrentLevel(delta.getCurrentLevel());
+                }
+                rewardProgressRepository.save(progress);
+            }
+        }
     }
 
     @Transactional
-    public Map<String, Object> awardWordMastery(Long userId, String wordKey) {
+    public Map<String, Object> awardDailyStreak(Long userId, int streakDays) {
         UserRewardProgress progress = getOrCreateUserRewardProgress(userId);
 
-        int xpReward = 25;
-        int coinReward = 15;
+        int baseCoins = 10;
+        int streakBonus = Math.min(streakDays * 5, 50);
+        int totalCoins = baseCoins + streakBonus;
+
+        int xpReward = 20 + (streakDays * 2);
 
+        progress.addCoins(totalCoins);
         progress.addXP(xpReward);
-        progress.addCoins(coinReward);
+
+        // Mettre à jour le streak
+        progress.setStreakDays(streakDays);
+        progress.setLastLogin(LocalDateTime.now());
+        progress.setLastDailyReward(LocalDateTime.now());
+
         rewardProgressRepository.save(progress);
 
         Map<String, Object> reward = new HashMap<>();
-        reward.put("type", "word_mastery");
-        reward.put("wordKey", wordKey);
+        reward.put("type", "daily_streak");
+        reward.put("streakDays", streakDays);
+        reward.put("coins", totalCoins);
+        reward.put("streakBonus", streakBonus);
         reward.put("xp", xpReward);
-        reward.put("coins", coinReward);
-        reward.put("message", "Excellent ! Mot maîtrisé : " + wordKey);
+        reward.put("message", "Jour " + streakDays + " consécutif ! Continuez comme ça !");
         reward.put("totalXP", progress.getTotalXP());
         reward.put("totalCoins", progress.getCoins());
 
@@ -189,42 +237,31 @@ public class RewardService {
     }
 
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getUserRewards(Long userId) {
+    public List<RewardEntryDTO> getUserRewards(Long userId) {
         UserRewardProgress progress = rewardProgressRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Progression non trouvée"));
 
-        List<Map<String, Object>> rewards = new ArrayList<>();
+        List<RewardEntryDTO> rewards = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
 
         // Ajouter les récompenses de niveaux complétés
         Integer currentLevel = progress.getCurrentLevel();
         if (currentLevel != null && currentLevel > 1) {
             for (int i = 1; i < currentLevel; i++) {
-                Map<String, Object> reward = new HashMap<>();
-                reward.put("type", "level_completion");
-                reward.put("level", i);
-                reward.put("date", LocalDateTime.now().minusDays(currentLevel - i));
-                rewards.add(reward);
+                rewards.add(RewardEntryDTO.levelCompletion(i, now.minusDays(currentLevel - i)));
             }
         }
 
         // Ajouter les récompenses de streak
         Integer streakDays = progress.getStreakDays();
         if (streakDays != null && streakDays >= 7) {
-            Map<String, Object> reward = new HashMap<>();
-            reward.put("type", "weekly_streak");
-            reward.put("streakDays", 7);
-            reward.put("date", LocalDateTime.now());
-            rewards.add(reward);
+            rewards.add(RewardEntryDTO.weeklyStreak(7, now));
         }
 
         // Ajouter les récompenses de jalons XP
         Integer totalXP = progress.getTotalXP();
         if (totalXP != null && totalXP >= 1000) {
-            Map<String, Object> reward = new HashMap<>();
-            reward.put("type", "xp_milestone");
-            reward.put("milestone", "1000_xp");
-            reward.put("date", LocalDateTime.now());
-            rewards.add(reward);
+            rewards.add(RewardEntryDTO.xpMilestone("1000_xp", now));
         }
 
         return rewards;
@@ -320,6 +357,17 @@ public class RewardService {
 
     }
 
+    private int getQuizBonusXP(int score) {
+        if (score >= 90) {
+            return 50;
+        } else if (score >= 80) {
+            return 30;
+        } else if (score >= 70) {
+            return 10;
+        }
+        return 0;
+    }
+
     private String getQuizBadge(int score, int level) {
         if (score >= 95) {
             return "quiz_master_lvl_" + level;
@@ -0,0 +1,46 @@
+package user.biblio4.service;
+
+import user.biblio4.event.RewardEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applique les récompenses relayées depuis l'outbox.
+ *
+ * Appelé par {@link OutboxRelay} dans la transaction qui réclame le lot
+ * ({@code FOR UPDATE SKIP LOCKED}) : l'application des gains et le marquage
+ * des événements comme traités sont validés ensemble, ce qui rend le
+ * traitement idempotent malgré la livraison « au moins une fois ».
+ * Le lot arrive trié par identifiant ; les gains sont cumulés par
+ * utilisateur dans cet ordre avant un seul passage dans
+ * {@link RewardService#applyDeltas}.
+ */
+@Component
+@Slf4j
+public class RewardWorker {
+
+    private final RewardService rewardService;
+
+    public RewardWorker(RewardService rewardService) {
+        this.rewardService = rewardService;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyBatch(List<RewardEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Long, RewardService.RewardDelta> deltas = new LinkedHashMap<>();
+        for (RewardEvent event : batch) {
+            deltas.computeIfAbsent(event.userId(), id -> new RewardService.RewardDelta()).add(event);
+        }
+        rewardService.applyDeltas(deltas);
+        log.debug("Applied {} reward events for {} users", batch.size(), deltas.size());
+    }
+}
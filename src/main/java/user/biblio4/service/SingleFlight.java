@@ -0,0 +1,91 @@
+package user.biblio4.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Regroupement des lectures identiques simultanées (« single-flight »).
+ *
+ * Le premier appelant d'une clé exécute le chargement ; ceux qui arrivent
+ * pendant qu'il est en cours attendent et reçoivent le même résultat (ou la
+ * même exception). Rien n'est conservé une fois le chargement terminé : ce
+ * n'est pas un cache. Le résultat est partagé entre threads et ne doit donc
+ * pas être modifié par les appelants.
+ *
+ * Métriques : {@code singleflight.requests{group, role=leader|shared}} et
+ * {@code singleflight.inflight}.
+ */
+@Component
+public class SingleFlight {
+
+    private record Key(String group, Object key) {
+    }
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter[]> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("singleflight.inflight", inFlight, Map::size)
+                .description("Chargements regroupés en cours")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String group, Object key, Supplier<T> loader) {
+        Key flightKey = new Key(group, key);
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flightKey, own);
+        Counter[] groupCounters = countersFor(group);
+
+        if (running != null) {
+            groupCounters[1].increment();
+            return (T) await(running);
+        }
+
+        groupCounters[0].increment();
+        try {
+            T value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, own);
+        }
+    }
+
+    private Counter[] countersFor(String group) {
+        return counters.computeIfAbsent(group, g -> new Counter[] {
+                Counter.builder("singleflight.requests").tag("group", g).tag("role", "leader")
+                        .register(meterRegistry),
+                Counter.builder("singleflight.requests").tag("group", g).tag("role", "shared")
+                        .register(meterRegistry)
+        });
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package user.biblio4.service;
+
+import user.biblio4.dto.LevelInfoDTO;
+import user.biblio4.model.LevelWord;
+import user.biblio4.model.SyncReceipt;
+import user.biblio4.model.UserProgress;
+import user.biblio4.repository.LevelWordRepository;
+import user.biblio4.repository.SyncReceiptRepository;
+import user.biblio4.repository.UserProgressRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Rejeu des événements d'apprentissage enregistrés hors ligne par l'application mobile.
+ *
+ * Un lot ordonné est appliqué dans une seule transaction : une requête pour
+ * les accusés déjà reçus, une pour les progressions des niveaux touchés et
+ * une par niveau pour ses mots. Chaque événement est ensuite appliqué avec
+ * la même logique que les endpoints unitaires.
+ *
+ * Un événement est vérifié avant toute écriture : refusé, il ne laisse aucune
+ * modification et ne reçoit pas d'accusé (il pourra être renvoyé). Une erreur
+ * pendant l'application elle-même annule tout le lot, qui sera renvoyé en entier.
+ */
+@Service
+@Slf4j
+public class SyncService {
+
+    static final String COMPLETE_WORD = "complete-word";
+    static final String MASTER_WORD = "master-word";
+    static final String QUIZ = "quiz";
+
+    static final String APPLIED = "applied";
+    static final String DUPLICATE = "duplicate";
+    static final String REJECTED = "rejected";
+
+    private final LevelService levelService;
+    private final QuizService quizService;
+    private final UserProgressRepository userProgressRepository;
+    private final LevelWordRepository levelWordRepository;
+    private final SyncReceiptRepository syncReceiptRepository;
+    private final int maxEvents;
+
+    public SyncService(
+            LevelService levelService,
+            QuizService quizService,
+            UserProgressRepository userProgressRepository,
+            LevelWordRepository levelWordRepository,
+            SyncReceiptRepository syncReceiptRepository,
+            @Value("${sync.max-events:500}") int maxEvents
+    ) {
+        this.levelService = levelService;
+        this.quizService = quizService;
+        this.userProgressRepository = userProgressRepository;
+        this.levelWordRepository = levelWordRepository;
+        this.syncReceiptRepository = syncReceiptRepository;
+        this.maxEvents = maxEvents;
+    }
+
+    private record SyncEvent(String eventId, String type, Integer levelNumber, String wordKey,
+                             String language, Map<String, Object> submission, LocalDateTime clientTimestamp) {
+    }
+
+    /**
+     * Mots d'un niveau, chargés une fois par lot
+     */
+    private record LevelWords(Map<String, LevelWord> byKey, int count) {
+    }
+
+    /**
+     * Appliquer un lot d'événements hors ligne, dans l'ordre reçu
+     */
+    @Transactional
+    public Map<String, Object> sync(Long userId, List<Map<String, Object>> rawEvents) {
+        if (rawEvents == null || rawEvents.isEmpty()) {
+            throw new RuntimeException("Aucun événement à synchroniser");
+        }
+        if (rawEvents.size() > maxEvents) {
+            throw new RuntimeException("Trop d'événements dans le lot (maximum " + maxEvents + ")");
+        }
+
+        List<SyncEvent> events = new ArrayList<>(rawEvents.size());
+        for (Map<String, Object> raw : rawEvents) {
+            events.add(parse(raw));
+        }
+
+        // Doublons : déjà reçus lors d'une synchronisation précédente ou répétés dans le lot
+        Set<String> seen = new HashSet<>(syncReceiptRepository.findReceivedIds(userId,
+                events.stream().map(SyncEvent::eventId).toList()));
+
+        // Une seule lecture des progressions pour tous les niveaux touchés
+        Set<Integer> levels = new TreeSet<>();
+        for (SyncEvent event : events) {
+            levels.add(event.levelNumber());
+        }
+        Map<Integer, UserProgress> progressByLevel = new HashMap<>();
+        for (UserProgress progress : userProgressRepository.findByUserIdAndLevelNumberIn(userId, levels)) {
+            progressByLevel.put(progress.getLevelNumber(), progress);
+        }
+        Map<Integer, LevelWords> wordsByLevel = new HashMap<>();
+
+        List<Map<String, Object>> results = new ArrayList<>(events.size());
+        List<SyncReceipt> receipts = new ArrayList<>();
+        Set<Integer> touched = new TreeSet<>();
+        int applied = 0;
+        int duplicates = 0;
+        int rejected = 0;
+
+        for (SyncEvent event : events) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("eventId", event.eventId());
+            result.put("type", event.type());
+
+            if (!seen.add(event.eventId())) {
+                result.put("status", DUPLICATE);
+                results.add(result);
+                duplicates++;
+                continue;
+            }
+
+            try {
+                validate(event, progressByLevel, wordsByLevel);
+            } catch (RuntimeException e) {
+                // Pas d'accusé : l'événement corrigé pourra être renvoyé
+                result.put("message", e.getMessage());
+                result.put("status", REJECTED);
+                results.add(result);
+                rejected++;
+                continue;
+            }
+
+            result.put("result", apply(userId, event, progressByLevel, wordsByLevel));
+            result.put("status", APPLIED);
+            results.add(result);
+            touched.add(event.levelNumber());
+            applied++;
+            receipts.add(new SyncReceipt(userId, event.eventId(), event.type(), event.levelNumber(),
+                    APPLIED, event.clientTimestamp()));
+        }
+        syncReceiptRepository.saveAll(receipts);
+
+        // État résultant des niveaux modifiés
+        List<LevelInfoDTO> levelStates = new ArrayList<>();
+        for (Integer levelNumber : touched) {
+            UserProgress progress = progressByLevel.get(levelNumber);
+            if (progress != null) {
+                levelStates.add(levelService.mapProgressToLevelInfo(progress));
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        response.put("applied", applied);
+        response.put("duplicates", duplicates);
+        response.put("rejected", rejected);
+        response.put("levels", levelStates);
+        return response;
+    }
+
+    /**
+     * Refuser un événement avant toute écriture, avec les règles des endpoints unitaires
+     */
+    private void validate(SyncEvent event, Map<Integer, UserProgress> progressByLevel,
+            Map<Integer, LevelWords> wordsByLevel) {
+        Integer levelNumber = event.levelNumber();
+        UserProgress progress = progressByLevel.get(levelNumber);
+
+        switch (event.type()) {
+            case COMPLETE_WORD -> {
+                LevelWords words = wordsByLevel.computeIfAbsent(levelNumber, this::loadWords);
+                if (!words.byKey().containsKey(event.wordKey())) {
+                    throw new RuntimeException("Mot non trouvé dans ce niveau");
+                }
+            }
+            case MASTER_WORD -> {
+                if (progress == null) {
+                    throw new RuntimeException("Niveau non ouvert");
+                }
+                if (!progress.getCompletedWords().contains(event.wordKey())) {
+                    throw new RuntimeException("Vous devez apprendre le mot avant de le maîtriser");
+                }
+            }
+            default -> {
+                if (progress == null) {
+                    throw new RuntimeException("Niveau non ouvert");
+                }
+                if (!(event.submission().get("answers") instanceof Map<?, ?> answers) || answers.isEmpty()) {
+                    throw new RuntimeException("Aucune réponse soumise");
+                }
+                for (Map.Entry<?, ?> answer : answers.entrySet()) {
+                    if (!(answer.getKey() instanceof String questionId) || !questionId.matches("\\d{1,18}")) {
+                        throw new RuntimeException("Identifiant de question invalide : " + answer.getKey());
+                    }
+                    if (answer.getValue() != null && !(answer.getValue() instanceof String)) {
+                        throw new RuntimeException("Réponse invalide pour la question " + questionId);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Appliquer un événement déjà validé
+     */
+    private Map<String, Object> apply(Long userId, SyncEvent event, Map<Integer, UserProgress> progressByLevel,
+            Map<Integer, LevelWords> wordsByLevel) {
+        Integer levelNumber = event.levelNumber();
+        UserProgress progress = progressByLevel.get(levelNumber);
+
+        switch (event.type()) {
+            case COMPLETE_WORD -> {
+                LevelWords words = wordsByLevel.get(levelNumber);
+                LevelWord word = words.byKey().get(event.wordKey());
+                if (progress == null) {
+                    progress = levelService.createUserProgress(userId, levelNumber);
+                    progressByLevel.put(levelNumber, progress);
+                }
+                return levelService.applyCompleteWord(userId, progress, word, words.count());
+            }
+            case MASTER_WORD -> {
+                return levelService.applyMasterWord(userId, progress, event.wordKey(), event.language());
+            }
+            default -> {
+                return quizService.applyQuizSubmission(userId, progress, event.submission());
+            }
+        }
+    }
+
+    private LevelWords loadWords(Integer levelNumber) {
+        List<LevelWord> words = levelWordRepository.findByLevelNumberOrderByDisplayOrderAsc(levelNumber);
+        Map<String, LevelWord> byKey = new HashMap<>();
+        for (LevelWord word : words) {
+            byKey.put(word.getWordKey(), word);
+        }
+        return new LevelWords(byKey, words.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private SyncEvent parse(Map<String, Object> raw) {
+        Object eventId = raw.get("eventId");
+        if (!(eventId instanceof String id) || id.isBlank() || id.length() > 64) {
+            throw new RuntimeException("eventId invalide (1 à 64 caractères)");
+        }
+        String type = (String) raw.get("type");
+        if (!COMPLETE_WORD.equals(type) && !MASTER_WORD.equals(type) && !QUIZ.equals(type)) {
+            throw new RuntimeException("Type d'événement inconnu : " + type + " (" + id + ")");
+        }
+        if (!(raw.get("levelNumber") instanceof Number levelNumber)) {
+            throw new RuntimeException("levelNumber requis (" + id + ")");
+        }
+        String wordKey = (String) raw.get("wordKey");
+        if (!QUIZ.equals(type) && (wordKey == null || wordKey.isBlank())) {
+            throw new RuntimeException("wordKey requis (" + id + ")");
+        }
+
+        Map<String, Object> submission = new HashMap<>();
+        if (QUIZ.equals(type)) {
+            submission.put("answers", raw.get("answers"));
+            submission.put("language", raw.get("language"));
+        }
+
+        LocalDateTime clientTimestamp = null;
+        Object timestamp = raw.get("clientTimestamp");
+        if (timestamp instanceof Number millis) {
+            clientTimestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis.longValue()), ZoneId.systemDefault());
+        } else if (timestamp instanceof String text && !text.isBlank()) {
+            clientTimestamp = LocalDateTime.parse(text);
+        }
+
+        return new SyncEvent(id, type, levelNumber.intValue(), wordKey, (String) raw.get("language"),
+                submission, clientTimestamp);
+    }
+}
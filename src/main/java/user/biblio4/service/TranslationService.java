@@ -1,35 +1,86 @@
 package user.biblio4.service;
 
+import user.biblio4.dto.FieldSet;
 import user.biblio4.model.Translation;
 import user.biblio4.model.LevelWord;
 import user.biblio4.repository.TranslationRepository;
 import user.biblio4.repository.UserRepository;
 import user.biblio4.repository.UserRewardProgressRepository;
 import user.biblio4.repository.LevelWordRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TranslationService {
     
+    /**
+     * Champs possibles de {@code fields} : une traduction ({@code /word}, {@code /all})
+     * et les listes de mots ({@code /search}, {@code /category}) ; {@code wordKey} toujours présent
+     */
+    public static final Set<String> TRANSLATION_FIELDS = Set.of("text", "gifUrl", "audioUrl");
+    public static final Set<String> WORD_LIST_FIELDS =
+            Set.of("text", "gifUrl", "audioUrl", "category", "points", "level");
+    private static final Set<String> ALWAYS_INCLUDED = Set.of("wordKey", "language");
+
 	 private final TranslationRepository translationRepository;
 	    private final LevelWordRepository levelWordRepository;
+	    private final SingleFlight singleFlight;
+	    private final TransactionTemplate readOnlyTemplate;
 	    public TranslationService(
 	            TranslationRepository translationRepository,
-	            LevelWordRepository levelWordRepository
+	            LevelWordRepository levelWordRepository,
+	            SingleFlight singleFlight,
+	            PlatformTransactionManager transactionManager
 	    ) {
 	        this.translationRepository = translationRepository;
 	        this.levelWordRepository = levelWordRepository;
+	        this.singleFlight = singleFlight;
+	        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+	        this.readOnlyTemplate.setReadOnly(true);
 	    }
-    @Transactional(readOnly = true)
-    public Map<String, Object> getWordTranslation(String wordKey, String language) {
+
+    // Les lectures du catalogue sont regroupées avant d'ouvrir la transaction :
+    // les appelants en attente n'occupent pas de connexion
+
+    public Map<String, Object> getWordTranslation(String wordKey, String language, FieldSet fields) {
+        return shared("translation.word", wordKey + ":" + language + ":" + fields.key(),
+                () -> fields.retain(loadWordTranslation(wordKey, language), ALWAYS_INCLUDED));
+    }
+
+    public Map<String, Object> getAllTranslations(String wordKey, FieldSet fields) {
+        return shared("translation.all", wordKey + ":" + fields.key(), () -> loadAllTranslations(wordKey, fields));
+    }
+
+    public List<Map<String, Object>> searchWords(String query, String language, FieldSet fields) {
+        return shared("translation.search", language + ":" + query + ":" + fields.key(),
+                () -> loadSearchWords(query, language, fields));
+    }
+
+    public List<Map<String, Object>> getWordsByCategory(String category, String language, FieldSet fields) {
+        return shared("translation.category", category + ":" + language + ":" + fields.key(),
+                () -> loadWordsByCategory(category, language, fields));
+    }
+
+    public List<Map<String, Object>> getLanguages() {
+        return shared("translation.languages", "", this::loadLanguages);
+    }
+
+    public List<Map<String, Object>> getCategories() {
+        return shared("translation.categories", "", this::loadCategories);
+    }
+
+    private <T> T shared(String group, String key, Supplier<T> loader) {
+        return singleFlight.execute(group, key, () -> readOnlyTemplate.execute(status -> loader.get()));
+    }
+
+    private Map<String, Object> loadWordTranslation(String wordKey, String language) {
         
         // Vérification de debug
         if (translationRepository == null) {
@@ -56,8 +107,7 @@ public class TranslationService {
         
     }
     
-    @Transactional(readOnly = true)
-    public Map<String, Object> getAllTranslations(String wordKey) {
+    private Map<String, Object> loadAllTranslations(String wordKey, FieldSet fields) {
         
         List<Translation> translations = translationRepository.findByWordKey(wordKey);
         
@@ -76,7 +126,7 @@ public class TranslationService {
             langData.put("text", t.getText());
             langData.put("gifUrl", t.getGifUrl());
             langData.put("audioUrl", t.getAudioUrl());
-            byLanguage.put(t.getLanguageCode(), langData);
+            byLanguage.put(t.getLanguageCode(), fields.retain(langData, ALWAYS_INCLUDED));
         }
         
         result.put("translations", byLanguage);
@@ -84,8 +134,7 @@ public class TranslationService {
         return result;
     }
     
-    @Transactional(readOnly = true)
-    public List<Map<String, Object>> searchWords(String query, String language) {
+    private List<Map<String, Object>> loadSearchWords(String query, String language, FieldSet fields) {
         
         List<Translation> translations;
         
@@ -113,26 +162,27 @@ public class TranslationService {
             result.put("wordKey", t.getWordKey());
             result.put("text", t.getText());
             
-            // Ajouter les informations du LevelWord si disponible
-            Optional<LevelWord> wordOpt = levelWordRepository.findByWordKey(t.getWordKey());
-            if (wordOpt.isPresent()) {
-                LevelWord word = wordOpt.get();
-                result.put("category", word.getCategory());
-                result.put("points", word.getPoints());
-                result.put("level", word.getLevelNumber());
+            // Ajouter les informations du LevelWord si disponible (lecture évitée si non demandées)
+            if (fields.includesAny("category", "points", "level")) {
+                Optional<LevelWord> wordOpt = levelWordRepository.findByWordKey(t.getWordKey());
+                if (wordOpt.isPresent()) {
+                    LevelWord word = wordOpt.get();
+                    result.put("category", word.getCategory());
+                    result.put("points", word.getPoints());
+                    result.put("level", word.getLevelNumber());
+                }
             }
             
             result.put("gifUrl", t.getGifUrl());
             result.put("audioUrl", t.getAudioUrl());
             
-            results.add(result);
+            results.add(fields.retain(result, ALWAYS_INCLUDED));
         }
         
         return results;
     }
     
-    @Transactional(readOnly = true)
-    public List<Map<String, Object>> getWordsByCategory(String category, String language) {
+    private List<Map<String, Object>> loadWordsByCategory(String category, String language, FieldSet fields) {
         
         List<LevelWord> words = levelWordRepository.findByCategory(category);
         
@@ -142,6 +192,23 @@ public class TranslationService {
         
         List<Map<String, Object>> result = new ArrayList<>();
         
+        // Ni texte ni média demandé : une seule requête sur les clés traduites, sans charger les traductions
+        if (!fields.includesAny("text", "gifUrl", "audioUrl")) {
+            Set<String> translated = new HashSet<>(translationRepository.findTranslatedWordKeys(language,
+                    words.stream().map(LevelWord::getWordKey).collect(Collectors.toList())));
+            for (LevelWord word : words) {
+                if (translated.contains(word.getWordKey())) {
+                    Map<String, Object> wordData = new HashMap<>();
+                    wordData.put("wordKey", word.getWordKey());
+                    wordData.put("category", word.getCategory());
+                    wordData.put("points", word.getPoints());
+                    wordData.put("level", word.getLevelNumber());
+                    result.add(fields.retain(wordData, ALWAYS_INCLUDED));
+                }
+            }
+            return result;
+        }
+        
         for (LevelWord word : words) {
             Optional<Translation> translationOpt = translationRepository
                     .findByWordKeyAndLanguageCode(word.getWordKey(), language);
@@ -158,15 +225,14 @@ public class TranslationService {
                 wordData.put("gifUrl", translation.getGifUrl());
                 wordData.put("audioUrl", translation.getAudioUrl());
                 
-                result.add(wordData);
+                result.add(fields.retain(wordData, ALWAYS_INCLUDED));
             }
         }
         
         return result;
     }
     
-    @Transactional(readOnly = true)
-    public List<Map<String, Object>> getLanguages() {
+    private List<Map<String, Object>> loadLanguages() {
         
         List<String> languages = translationRepository.findAll()
                 .stream()
@@ -185,8 +251,7 @@ public class TranslationService {
         return result;
     }
     
-    @Transactional(readOnly = true)
-    public List<Map<String, Object>> getCategories() {
+    private List<Map<String, Object>> loadCategories() {
         
         List<String> categories = levelWordRepository.findAll()
                 .stream()
@@ -0,0 +1,235 @@
+package user.biblio4.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Filtres de Bloom des usernames et emails existants, pour les vérifications
+ * de disponibilité sans aller-retour en base.
+ *
+ * Une réponse négative est définitive ; une réponse positive (« peut-être »)
+ * doit être confirmée par l'index unique. Les filtres sont construits au
+ * démarrage, complétés après le commit de chaque création ou modification
+ * (une reconstruction lit la ligne ou reçoit l'ajout), et reconstruits
+ * périodiquement pour oublier les suppressions et intégrer les écritures des
+ * autres instances. Tant qu'ils ne sont pas construits, tout est « peut-être ».
+ * Les clés sont comparées sans casse, comme la collation MariaDB.
+ *
+ * Métriques : {@code users.availability.checks{field, result=bloom_negative|db_taken|db_free}} ;
+ * la part de {@code db_free} mesure le taux de faux positifs.
+ */
+@Component
+@Slf4j
+public class UserAvailabilityFilter {
+
+    public static final String USERNAME = "username";
+    public static final String EMAIL = "email";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile Bloom usernames;
+    private volatile Bloom emails;
+    // Filtres en cours de reconstruction : reçoivent aussi les ajouts concurrents
+    private volatile Bloom nextUsernames;
+    private volatile Bloom nextEmails;
+
+    public UserAvailabilityFilter(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${users.bloom.expected-entries:100000}") long expectedEntries,
+            @Value("${users.bloom.false-positive-rate:0.01}") double falsePositiveRate
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Faux si la valeur n'existe certainement pas ; vrai si elle existe peut-être
+     */
+    public boolean mightExist(String field, String value) {
+        Bloom filter = USERNAME.equals(field) ? usernames : emails;
+        return filter == null || value == null || filter.mightContain(normalize(value));
+    }
+
+    /**
+     * Ajouter après le commit : un ajout plus tôt pourrait précéder une reconstruction
+     * dont la lecture ne voit pas encore la ligne, et disparaître avec l'ancien filtre
+     */
+    public void add(String username, String email) {
+        afterCommit(() -> {
+            if (username != null) {
+                add(nextUsernames, usernames, normalize(username));
+            }
+            if (email != null) {
+                add(nextEmails, emails, normalize(email));
+            }
+        });
+    }
+
+    /**
+     * Compter l'issue d'une vérification (filtre seul, ou confirmation en base)
+     */
+    public void record(String field, String result) {
+        counters.computeIfAbsent(field + ':' + result, k ->
+                Counter.builder("users.availability.checks").tag("field", field).tag("result", result)
+                        .register(meterRegistry)).increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${users.bloom.rebuild-ms:3600000}",
+               initialDelayString = "${users.bloom.rebuild-ms:3600000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            rebuildLocked();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildLocked() {
+        long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM utilisateurs", Long.class);
+        long capacity = Math.max(expectedEntries, count * 2);
+        nextUsernames = Bloom.create(capacity, falsePositiveRate);
+        nextEmails = Bloom.create(capacity, falsePositiveRate);
+
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement("SELECT username, email FROM utilisateurs");
+            ps.setFetchSize(1000);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            nextUsernames.put(normalize(rs.getString("username")));
+            nextEmails.put(normalize(rs.getString("email")));
+        });
+
+        usernames = nextUsernames;
+        emails = nextEmails;
+        nextUsernames = null;
+        nextEmails = null;
+        log.debug("Availability filters rebuilt for {} users ({} bits each)", count, usernames.bitCount());
+    }
+
+    // Lire le filtre en reconstruction avant le filtre courant : il le remplace à la fin de la reconstruction
+    private static void add(Bloom next, Bloom current, String key) {
+        if (current != null) {
+            current.put(key);
+        }
+        if (next != null) {
+            next.put(key);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Filtre de Bloom à bits atomiques, k positions par double hachage
+     */
+    static final class Bloom {
+
+        private final AtomicLongArray bits;
+        private final long size;
+        private final int hashes;
+
+        private Bloom(long size, int hashes) {
+            this.size = size;
+            this.hashes = hashes;
+            this.bits = new AtomicLongArray((int) ((size + 63) / 64));
+        }
+
+        static Bloom create(long expected, double fpp) {
+            long size = Math.max(64, (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+            int hashes = Math.max(1, (int) Math.round((double) size / expected * Math.log(2)));
+            return new Bloom(size, hashes);
+        }
+
+        long bitCount() {
+            return size;
+        }
+
+        void put(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % size;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % size;
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a 64 bits sur l'UTF-8, suivi d'un mélange final (murmur3 fmix64)
+        private static long hash(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb93fe1a85ec5L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
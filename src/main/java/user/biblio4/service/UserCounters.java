@@ -0,0 +1,143 @@
+package user.biblio4.service;
+
+import user.biblio4.model.User;
+import user.biblio4.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compteurs d'utilisateurs par (rôle, niveau) pour /api/users/admin/count.
+ *
+ * Chargés par une requête GROUP BY, puis tenus à jour après le commit des
+ * créations, modifications et suppressions de UserService. Une relecture
+ * planifiée corrige les écarts (écritures d'autres instances, modifications
+ * concurrentes d'un rechargement).
+ */
+@Component
+@Slf4j
+public class UserCounters {
+
+    private static final User.Role[] ROLES = User.Role.values();
+    private static final User.Level[] LEVELS = User.Level.values();
+    // Une case supplémentaire par dimension pour les valeurs nulles
+    private static final int LEVEL_SLOTS = LEVELS.length + 1;
+
+    private final UserRepository userRepository;
+
+    private volatile AtomicLongArray counts;
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    public UserCounters(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Totaux par rôle et par niveau (lecture en temps constant)
+     */
+    public Map<String, Object> snapshot() {
+        AtomicLongArray current = loaded();
+        long[] byRole = new long[ROLES.length + 1];
+        long[] byLevel = new long[LEVEL_SLOTS];
+        long total = 0;
+        for (int r = 0; r <= ROLES.length; r++) {
+            for (int l = 0; l < LEVEL_SLOTS; l++) {
+                long count = current.get(r * LEVEL_SLOTS + l);
+                byRole[r] += count;
+                byLevel[l] += count;
+                total += count;
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("total", total);
+        response.put("admins", byRole[User.Role.ADMIN.ordinal()]);
+        response.put("profs", byRole[User.Role.PROF.ordinal()]);
+        response.put("students", byRole[User.Role.STUDENT.ordinal()]);
+        response.put("beginners", byLevel[User.Level.BEGINNER.ordinal()]);
+        response.put("intermediates", byLevel[User.Level.INTERMEDIATE.ordinal()]);
+        response.put("advanced", byLevel[User.Level.ADVANCED.ordinal()]);
+        return response;
+    }
+
+    public void recordCreated(User.Role role, User.Level level) {
+        afterCommit(() -> add(role, level, 1));
+    }
+
+    public void recordDeleted(User.Role role, User.Level level) {
+        afterCommit(() -> add(role, level, -1));
+    }
+
+    public void recordChanged(User.Role oldRole, User.Level oldLevel, User.Role newRole, User.Level newLevel) {
+        if (oldRole == newRole && oldLevel == newLevel) {
+            return;
+        }
+        afterCommit(() -> {
+            add(oldRole, oldLevel, -1);
+            add(newRole, newLevel, 1);
+        });
+    }
+
+    /**
+     * Recharger les compteurs depuis la base
+     */
+    @Scheduled(fixedDelayString = "${users.count.refresh-ms:300000}",
+               initialDelayString = "${users.count.refresh-ms:300000}")
+    public void refresh() {
+        AtomicLongArray fresh = new AtomicLongArray((ROLES.length + 1) * LEVEL_SLOTS);
+        for (Object[] row : userRepository.countGroupedByRoleAndLevel()) {
+            fresh.addAndGet(slot((User.Role) row[0], (User.Level) row[1]), (Long) row[2]);
+        }
+        counts = fresh;
+    }
+
+    private AtomicLongArray loaded() {
+        AtomicLongArray current = counts;
+        if (current == null) {
+            loadLock.lock();
+            try {
+                if (counts == null) {
+                    refresh();
+                }
+                current = counts;
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private void add(User.Role role, User.Level level, long delta) {
+        AtomicLongArray current = counts;
+        // Pas encore chargés : le premier chargement lira l'état validé
+        if (current != null) {
+            current.addAndGet(slot(role, level), delta);
+        }
+    }
+
+    private static int slot(User.Role role, User.Level level) {
+        int r = role != null ? role.ordinal() : ROLES.length;
+        int l = level != null ? level.ordinal() : LEVELS.length;
+        return r * LEVEL_SLOTS + l;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
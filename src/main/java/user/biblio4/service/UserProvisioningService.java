@@ -0,0 +1,335 @@
+package user.biblio4.service;
+
+import user.biblio4.dto.AuthRequest.CreateUserRequest;
+import user.biblio4.dto.ProvisioningRowDTO;
+import user.biblio4.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Création d'une cohorte d'utilisateurs en une seule opération.
+ *
+ * Les lignes sont validées, puis l'unicité est vérifiée par une requête
+ * ensembliste sur les usernames et emails du lot. Les mots de passe sont
+ * hachés en parallèle (BCrypt, tous les cœurs) avant d'ouvrir la transaction ;
+ * les utilisateurs, leur progression du niveau 1 et leur progression de
+ * récompenses sont ensuite insérés par lots JDBC dans une même transaction.
+ */
+@Service
+@Slf4j
+public class UserProvisioningService {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO utilisateurs (username, email, password_hash, nom_complet, role, level, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PROGRESS_SQL =
+            "INSERT INTO user_progress (user_id, level_number, total_points, quiz_passed, attempts, " +
+            "unlocked_at, change_version) VALUES (?, 1, 0, FALSE, 0, ?, ?)";
+    private static final String INSERT_REWARD_SQL =
+            "INSERT INTO user_reward_progress (user_id, total_xp, coins, current_level, streak_days, " +
+            "created_at, updated_at, change_version) VALUES (?, 0, 0, 1, 0, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ChangeTracker changeTracker;
+    private final UserCounters userCounters;
+    private final UserSearchService userSearchService;
+    private final UserAvailabilityFilter availabilityFilter;
+    private final int batchSize;
+    private final int maxRows;
+
+    // Ligne validée, en attente d'insertion
+    private static final class Pending {
+        final int row;
+        final User user;
+        String password;
+
+        Pending(int row, User user, String password) {
+            this.row = row;
+            this.user = user;
+            this.password = password;
+        }
+    }
+
+    public UserProvisioningService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            PasswordEncoder passwordEncoder,
+            ChangeTracker changeTracker,
+            UserCounters userCounters,
+            UserSearchService userSearchService,
+            UserAvailabilityFilter availabilityFilter,
+            @Value("${users.bulk.batch-size:500}") int batchSize,
+            @Value("${users.bulk.max-rows:5000}") int maxRows
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.changeTracker = changeTracker;
+        this.userCounters = userCounters;
+        this.userSearchService = userSearchService;
+        this.availabilityFilter = availabilityFilter;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Créer une cohorte ; renvoie le résultat de chaque ligne dans l'ordre d'entrée
+     */
+    public List<ProvisioningRowDTO> provision(List<CreateUserRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException("La cohorte est vide");
+        }
+        if (requests.size() > maxRows) {
+            throw new RuntimeException("Cohorte trop grande (maximum " + maxRows + " lignes)");
+        }
+
+        ProvisioningRowDTO[] report = new ProvisioningRowDTO[requests.size()];
+        List<Pending> pending = validate(requests, report);
+        rejectExisting(pending, report);
+
+        // BCrypt est volontairement coûteux : hachage parallèle hors transaction
+        pending.parallelStream().forEach(p -> {
+            if (!p.password.startsWith("$2a$") && !p.password.startsWith("$2b$")) {
+                p.password = passwordEncoder.encode(p.password);
+            }
+        });
+
+        if (!pending.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(pending));
+            } catch (DuplicateKeyException e) {
+                // Création concurrente entre la vérification et l'insertion : rien n'a été écrit
+                throw new RuntimeException("Conflit d'unicité pendant l'import, aucun utilisateur créé : réessayez");
+            }
+            for (Pending p : pending) {
+                report[p.row - 1] = ProvisioningRowDTO.created(p.row, p.user.getUsername(), p.user.getId());
+            }
+        }
+        log.info("Cohort provisioning: {} created, {} rejected", pending.size(), requests.size() - pending.size());
+        return Arrays.asList(report);
+    }
+
+    /**
+     * Lire une cohorte CSV : ligne d'en-tête (username, email, password, nomComplet, role, level
+     * dans un ordre quelconque), séparateur virgule, champs entre guillemets acceptés
+     */
+    public List<CreateUserRequest> parseCsv(String csv) {
+        if (csv == null || csv.isBlank()) {
+            throw new RuntimeException("La cohorte est vide");
+        }
+        String[] lines = csv.replace("\r", "").split("\n");
+        List<String> header = parseCsvLine(lines[0]).stream().map(h -> h.trim().toLowerCase()).toList();
+        int username = header.indexOf("username");
+        int email = header.indexOf("email");
+        int password = header.indexOf("password");
+        if (username < 0 || email < 0 || password < 0) {
+            throw new RuntimeException("En-tête CSV invalide : colonnes username, email et password requises");
+        }
+        int nomComplet = header.indexOf("nomcomplet");
+        int role = header.indexOf("role");
+        int level = header.indexOf("level");
+
+        List<CreateUserRequest> requests = new ArrayList<>();
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].isBlank()) {
+                continue;
+            }
+            List<String> fields = parseCsvLine(lines[i]);
+            CreateUserRequest request = new CreateUserRequest();
+            request.setUsername(field(fields, username));
+            request.setEmail(field(fields, email));
+            request.setPassword(field(fields, password));
+            request.setNomComplet(field(fields, nomComplet));
+            request.setRole(field(fields, role));
+            request.setLevel(field(fields, level));
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    private List<Pending> validate(List<CreateUserRequest> requests, ProvisioningRowDTO[] report) {
+        List<Pending> pending = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            int row = i + 1;
+            CreateUserRequest request = requests.get(i);
+            String username = trim(request.getUsername());
+            String email = trim(request.getEmail());
+            String password = request.getPassword();
+
+            String error = null;
+            if (username == null) {
+                error = "Le nom d'utilisateur est requis";
+            } else if (username.length() > 50) {
+                error = "Nom d'utilisateur trop long (50 caractères maximum)";
+            } else if (email == null) {
+                error = "L'email est requis";
+            } else if (email.length() > 100) {
+                error = "Email trop long (100 caractères maximum)";
+            } else if (password == null || password.trim().isEmpty()) {
+                error = "Le mot de passe est requis";
+            } else if (!usernames.add(username.toLowerCase())) {
+                error = "Nom d'utilisateur en double dans la cohorte";
+            } else if (!emails.add(email.toLowerCase())) {
+                error = "Email en double dans la cohorte";
+            }
+
+            User.Role role = User.Role.STUDENT;
+            User.Level level = User.Level.BEGINNER;
+            if (error == null) {
+                try {
+                    if (request.getRole() != null && !request.getRole().isBlank()) {
+                        role = User.Role.valueOf(request.getRole().trim().toUpperCase());
+                    }
+                } catch (IllegalArgumentException e) {
+                    error = "Rôle invalide. Options: ADMIN, PROF, STUDENT";
+                }
+            }
+            if (error == null) {
+                try {
+                    if (request.getLevel() != null && !request.getLevel().isBlank()) {
+                        level = User.Level.valueOf(request.getLevel().trim().toUpperCase());
+                    }
+                } catch (IllegalArgumentException e) {
+                    error = "Niveau invalide. Options: BEGINNER, INTERMEDIATE, ADVANCED";
+                }
+            }
+
+            if (error != null) {
+                report[i] = ProvisioningRowDTO.rejected(row, username, error);
+            } else {
+                User user = new User(username, email, null, trim(request.getNomComplet()), role, level);
+                pending.add(new Pending(row, user, password));
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Rejeter les lignes dont le username ou l'email existe déjà (une requête par tranche)
+     */
+    private void rejectExisting(List<Pending> pending, ProvisioningRowDTO[] report) {
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<Pending> chunk = pending.subList(from, Math.min(pending.size(), from + batchSize));
+            String in = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            List<Object> args = new ArrayList<>();
+            chunk.forEach(p -> args.add(p.user.getUsername()));
+            chunk.forEach(p -> args.add(p.user.getEmail()));
+            jdbcTemplate.query("SELECT username, email FROM utilisateurs " +
+                    "WHERE username IN (" + in + ") OR email IN (" + in + ")", rs -> {
+                takenUsernames.add(rs.getString("username").toLowerCase());
+                takenEmails.add(rs.getString("email").toLowerCase());
+            }, args.toArray());
+        }
+
+        pending.removeIf(p -> {
+            String error = null;
+            if (takenUsernames.contains(p.user.getUsername().toLowerCase())) {
+                error = "Un utilisateur avec ce nom d'utilisateur existe déjà";
+            } else if (takenEmails.contains(p.user.getEmail().toLowerCase())) {
+                error = "Un utilisateur avec cet email existe déjà";
+            }
+            if (error != null) {
+                report[p.row - 1] = ProvisioningRowDTO.rejected(p.row, p.user.getUsername(), error);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void insert(List<Pending> pending) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<Pending> chunk = pending.subList(from, Math.min(pending.size(), from + batchSize));
+
+            List<Object[]> users = new ArrayList<>(chunk.size());
+            for (Pending p : chunk) {
+                User user = p.user;
+                user.setPasswordHash(p.password);
+                users.add(new Object[] { user.getUsername(), user.getEmail(), p.password, user.getNomComplet(),
+                        user.getRole().name(), user.getLevel().name(), Timestamp.valueOf(user.getCreatedAt()) });
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER_SQL, users);
+
+            // Identifiants IDENTITY du lot, relus en une requête
+            Map<String, Long> ids = new HashMap<>();
+            String in = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT id, username FROM utilisateurs WHERE username IN (" + in + ")",
+                    rs -> {
+                        ids.put(rs.getString("username"), rs.getLong("id"));
+                    }, chunk.stream().map(p -> p.user.getUsername()).toArray());
+            chunk.forEach(p -> p.user.setId(ids.get(p.user.getUsername())));
+
+            Map<Long, Long> versions = changeTracker.versionsFor(chunk.stream().map(p -> p.user.getId()).toList());
+            List<Object[]> progress = new ArrayList<>(chunk.size());
+            List<Object[]> rewards = new ArrayList<>(chunk.size());
+            for (Pending p : chunk) {
+                Long userId = p.user.getId();
+                progress.add(new Object[] { userId, now, versions.get(userId) });
+                rewards.add(new Object[] { userId, now, now, versions.get(userId) });
+            }
+            jdbcTemplate.batchUpdate(INSERT_PROGRESS_SQL, progress);
+            jdbcTemplate.batchUpdate(INSERT_REWARD_SQL, rewards);
+
+            for (Pending p : chunk) {
+                availabilityFilter.add(p.user.getUsername(), p.user.getEmail());
+                userCounters.recordCreated(p.user.getRole(), p.user.getLevel());
+                userSearchService.recordSaved(p.user);
+            }
+        }
+    }
+
+    private static String trim(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim();
+    }
+}
@@ -0,0 +1,208 @@
+package user.biblio4.service;
+
+import user.biblio4.event.UserPurgedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+
+/**
+ * Purge asynchrone des utilisateurs supprimés.
+ *
+ * UserService.deleteUser se contente de renseigner {@code deleted_at} : l'utilisateur
+ * disparaît aussitôt des lectures JPA. Les lignes marquées forment la file de purge ;
+ * elle est traitée après le commit de la suppression et par un passage planifié.
+ * Les lignes dépendantes sont supprimées table par table, par tranches bornées
+ * ({@code DELETE ... LIMIT}, une transaction courte par tranche), enfants avant
+ * parents, puis la ligne utilisateur. Chaque étape est idempotente : une purge
+ * interrompue (verrou, écriture concurrente, arrêt) reprend au passage suivant.
+ * Une purge terminée publie un {@link UserPurgedEvent} : les caches locaux par
+ * utilisateur (estimations de niveau, files de révision, vue d'ensemble) l'oublient.
+ *
+ * Métriques : {@code users.purge.rows{table}}, {@code users.purge.chunk{table}}
+ * (durée des DELETE, attente de verrous comprise), {@code users.purge.lock.timeouts},
+ * {@code users.purge.users{result=purged|deferred}} et {@code users.purge.duration}.
+ */
+@Service
+@Slf4j
+public class UserPurgeService {
+
+    // Ordre imposé par les clés étrangères : collections, progression, puis le reste
+    private static final List<String[]> STEPS = List.of(
+            new String[] { "user_progress_completed_words",
+                    "DELETE FROM user_progress_completed_words WHERE progress_id IN " +
+                    "(SELECT id FROM user_progress WHERE user_id = ?) LIMIT ?" },
+            new String[] { "user_progress_mastered_words",
+                    "DELETE FROM user_progress_mastered_words WHERE progress_id IN " +
+                    "(SELECT id FROM user_progress WHERE user_id = ?) LIMIT ?" },
+            new String[] { "user_progress", "DELETE FROM user_progress WHERE user_id = ? LIMIT ?" },
+            new String[] { "user_reward_progress", "DELETE FROM user_reward_progress WHERE user_id = ? LIMIT ?" },
+            new String[] { "review_card", "DELETE FROM review_card WHERE user_id = ? LIMIT ?" },
+            new String[] { "user_ability", "DELETE FROM user_ability WHERE user_id = ? LIMIT ?" },
+            new String[] { "sync_receipt", "DELETE FROM sync_receipt WHERE user_id = ? LIMIT ?" },
+            new String[] { "outbox_event", "DELETE FROM outbox_event WHERE user_id = ? LIMIT ?" },
+            new String[] { "user_learning_summary", "DELETE FROM user_learning_summary WHERE user_id = ? LIMIT ?" },
+            new String[] { "user_sync_state", "DELETE FROM user_sync_state WHERE user_id = ? LIMIT ?" }
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final int usersPerRun;
+
+    private final ExecutorService wakeUpExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "user-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean purging = new AtomicBoolean();
+    private final AtomicBoolean rerun = new AtomicBoolean();
+
+    private final Map<String, Counter> rowCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> chunkTimers = new ConcurrentHashMap<>();
+    private final Counter lockTimeouts;
+    private final Counter purged;
+    private final Counter deferred;
+    private final Timer duration;
+
+    public UserPurgeService(
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${users.purge.chunk-size:1000}") int chunkSize,
+            @Value("${users.purge.users-per-run:100}") int usersPerRun
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.usersPerRun = usersPerRun;
+        this.lockTimeouts = Counter.builder("users.purge.lock.timeouts")
+                .description("Tranches abandonnées sur délai d'attente de verrou").register(meterRegistry);
+        this.purged = Counter.builder("users.purge.users").tag("result", "purged").register(meterRegistry);
+        this.deferred = Counter.builder("users.purge.users").tag("result", "deferred").register(meterRegistry);
+        this.duration = Timer.builder("users.purge.duration")
+                .description("Durée de purge d'un utilisateur").register(meterRegistry);
+    }
+
+    /**
+     * Déclencher la purge après le commit de la suppression logique
+     */
+    public void enqueue() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUpExecutor.execute(UserPurgeService.this::purgePending);
+                }
+            });
+        } else {
+            wakeUpExecutor.execute(this::purgePending);
+        }
+    }
+
+    /**
+     * Purger les utilisateurs marqués supprimés, les plus anciens d'abord
+     */
+    @Scheduled(fixedDelayString = "${users.purge.poll-ms:60000}")
+    public void purgePending() {
+        if (!purging.compareAndSet(false, true)) {
+            rerun.set(true);
+            return;
+        }
+        try {
+            do {
+                rerun.set(false);
+                List<Long> userIds = jdbcTemplate.queryForList(
+                        "SELECT id FROM utilisateurs WHERE deleted_at IS NOT NULL ORDER BY deleted_at, id LIMIT ?",
+                        Long.class, usersPerRun);
+                for (Long userId : userIds) {
+                    purgeUser(userId);
+                }
+            } while (rerun.get());
+        } catch (Exception e) {
+            log.warn("User purge run failed, will retry: {}", e.getMessage());
+        } finally {
+            purging.set(false);
+        }
+    }
+
+    /**
+     * Purger un utilisateur ; faux si la purge est reportée au prochain passage
+     */
+    public boolean purgeUser(Long userId) {
+        long start = System.nanoTime();
+        long rows = 0;
+        try {
+            for (String[] step : STEPS) {
+                rows += deleteInChunks(step[0], step[1], userId);
+            }
+            rows += timed("utilisateurs", () ->
+                    jdbcTemplate.update("DELETE FROM utilisateurs WHERE id = ? AND deleted_at IS NOT NULL", userId));
+        } catch (PessimisticLockingFailureException e) {
+            lockTimeouts.increment();
+            deferred.increment();
+            log.info("User {} purge deferred on lock wait after {} rows: {}", userId, rows, e.getMessage());
+            return false;
+        } catch (DataIntegrityViolationException e) {
+            // Ligne dépendante recréée entre deux étapes : reprise au prochain passage
+            deferred.increment();
+            log.info("User {} purge deferred on new dependent rows after {} rows", userId, rows);
+            return false;
+        }
+        long elapsed = System.nanoTime() - start;
+        duration.record(elapsed, TimeUnit.NANOSECONDS);
+        purged.increment();
+        log.info("User {} purged: {} rows in {} ms", userId, rows, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        eventPublisher.publishEvent(new UserPurgedEvent(userId));
+        return true;
+    }
+
+    private long deleteInChunks(String table, String sql, Long userId) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = timed(table, () -> jdbcTemplate.update(sql, userId, chunkSize));
+            total += deleted;
+        } while (deleted == chunkSize);
+        return total;
+    }
+
+    private int timed(String table, IntSupplier statement) {
+        Timer timer = chunkTimers.computeIfAbsent(table, t ->
+                Timer.builder("users.purge.chunk").tag("table", t).register(meterRegistry));
+        long start = System.nanoTime();
+        int deleted = statement.getAsInt();
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (deleted > 0) {
+            rowCounters.computeIfAbsent(table, t ->
+                    Counter.builder("users.purge.rows").tag("table", t).register(meterRegistry)).increment(deleted);
+        }
+        return deleted;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wakeUpExecutor.shutdownNow();
+    }
+}
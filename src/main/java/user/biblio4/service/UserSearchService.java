@@ -0,0 +1,361 @@
+package user.biblio4.service;
+
+import user.biblio4.dto.UserSearchHitDTO;
+import user.biblio4.dto.UserSummaryDTO;
+import user.biblio4.model.User;
+import user.biblio4.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Recherche classée d'utilisateurs sur username, email et nom complet.
+ *
+ * <ul>
+ *   <li>MariaDB (détectée automatiquement) ou MySQL ({@code users.search.backend=fulltext}) :
+ *   index FULLTEXT {@code ft_utilisateurs_search}, créé au démarrage s'il manque,
+ *   interrogé en mode booléen avec préfixes ({@code +mot*}).
+ *   Les requêtes plus courtes que la taille minimale des jetons InnoDB passent
+ *   par un LIKE préfixe sur l'index unique de username.</li>
+ *   <li>Autres bases (H2 en test) : index inversé de trigrammes en mémoire,
+ *   construit au premier accès, tenu à jour après le commit des écritures de
+ *   UserService et reconstruit périodiquement.</li>
+ * </ul>
+ *
+ * Les deux moteurs renvoient des {@link UserSearchHitDTO} triés par score
+ * décroissant puis identifiant, paginés par numéro de page.
+ */
+@Service
+@Slf4j
+public class UserSearchService {
+
+    private static final String FULLTEXT_COLUMNS = "username, email, nom_complet";
+    private static final String SELECT_COLUMNS = "id, username, email, nom_complet, role, level, created_at";
+    // innodb_ft_min_token_size par défaut
+    private static final int MIN_FULLTEXT_TOKEN = 3;
+    private static final int REBUILD_PAGE = 1000;
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final String backendSetting;
+    private final double minSimilarity;
+
+    private boolean fulltext;
+
+    // Index en mémoire (moteur de repli)
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private volatile boolean built;
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    private record Document(UserSummaryDTO user, String text, Set<String> grams) {
+    }
+
+    public UserSearchService(
+            UserRepository userRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${users.search.backend:auto}") String backendSetting,
+            @Value("${users.search.min-similarity:0.5}") double minSimilarity
+    ) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.backendSetting = backendSetting;
+        this.minSimilarity = minSimilarity;
+    }
+
+    @PostConstruct
+    public void init() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) con ->
+                con.getMetaData().getDatabaseProductName());
+        // MySQL n'est pas choisi automatiquement : ses réglages FULLTEXT (ngram, stopwords) diffèrent
+        boolean supported = product != null && product.toLowerCase().contains("mariadb");
+        fulltext = switch (backendSetting.toLowerCase()) {
+            case "fulltext" -> true;
+            case "memory" -> false;
+            default -> supported;
+        };
+        if (fulltext) {
+            // Sans IF NOT EXISTS, que MySQL refuse sur CREATE INDEX
+            Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.statistics " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'utilisateurs' " +
+                    "AND index_name = 'ft_utilisateurs_search'", Integer.class);
+            if (existing == null || existing == 0) {
+                jdbcTemplate.execute("CREATE FULLTEXT INDEX ft_utilisateurs_search " +
+                        "ON utilisateurs (" + FULLTEXT_COLUMNS + ")");
+            }
+        }
+        log.info("User search backend: {} ({})", fulltext ? "fulltext" : "memory", product);
+    }
+
+    public String getBackend() {
+        return fulltext ? "fulltext" : "memory";
+    }
+
+    /**
+     * Recherche classée, filtrée éventuellement par rôle et niveau
+     */
+    public List<UserSearchHitDTO> search(String query, User.Role role, User.Level level, int page, int size) {
+        List<String> tokens = tokens(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        int offset = Math.max(0, page) * size;
+        return fulltext
+                ? searchFulltext(tokens, role, level, offset, size)
+                : searchMemory(tokens, role, level, offset, size);
+    }
+
+    // ========== SYNCHRONISATION (moteur en mémoire) ==========
+
+    public void recordSaved(User user) {
+        if (fulltext) {
+            return;
+        }
+        UserSummaryDTO summary = new UserSummaryDTO(user.getId(), user.getUsername(), user.getEmail(),
+                user.getNomComplet(), user.getRole(), user.getLevel(), user.getCreatedAt());
+        afterCommit(() -> {
+            if (built) {
+                write(() -> index(summary));
+            }
+        });
+    }
+
+    public void recordDeleted(Long userId) {
+        if (fulltext) {
+            return;
+        }
+        afterCommit(() -> {
+            if (built) {
+                write(() -> unindex(userId));
+            }
+        });
+    }
+
+    /**
+     * Reconstruire l'index en mémoire (écritures d'autres instances)
+     */
+    @Scheduled(fixedDelayString = "${users.search.rebuild-ms:600000}",
+               initialDelayString = "${users.search.rebuild-ms:600000}")
+    public void rebuild() {
+        if (fulltext) {
+            return;
+        }
+        List<UserSummaryDTO> all = new ArrayList<>();
+        long cursor = 0;
+        List<UserSummaryDTO> batch;
+        do {
+            batch = userRepository.findSummariesAfter(cursor, PageRequest.of(0, REBUILD_PAGE));
+            all.addAll(batch);
+            if (!batch.isEmpty()) {
+                cursor = batch.get(batch.size() - 1).id();
+            }
+        } while (batch.size() == REBUILD_PAGE);
+
+        write(() -> {
+            documents.clear();
+            postings.clear();
+            all.forEach(this::index);
+            built = true;
+        });
+    }
+
+    // ========== MARIADB FULLTEXT ==========
+
+    private List<UserSearchHitDTO> searchFulltext(List<String> tokens, User.Role role, User.Level level,
+                                                  int offset, int size) {
+        List<Object> args = new ArrayList<>();
+        String score;
+        String where;
+        List<String> indexed = tokens.stream().filter(t -> t.length() >= MIN_FULLTEXT_TOKEN).toList();
+        if (indexed.isEmpty()) {
+            // Jetons trop courts pour l'index FULLTEXT : préfixe sur l'index unique de username
+            score = "1";
+            where = "username LIKE ?";
+            args.add(String.join("", tokens) + "%");
+        } else {
+            StringJoiner against = new StringJoiner(" ");
+            indexed.forEach(t -> against.add("+" + t + "*"));
+            score = "MATCH(" + FULLTEXT_COLUMNS + ") AGAINST (? IN BOOLEAN MODE)";
+            where = score;
+            args.add(against.toString());
+            args.add(against.toString());
+        }
+        if (role != null) {
+            where += " AND role = ?";
+            args.add(role.name());
+        }
+        if (level != null) {
+            where += " AND level = ?";
+            args.add(level.name());
+        }
+        args.add(size);
+        args.add(offset);
+        return jdbcTemplate.query("SELECT " + SELECT_COLUMNS + ", " + score + " AS score FROM utilisateurs " +
+                "WHERE deleted_at IS NULL AND " + where + " ORDER BY score DESC, id LIMIT ? OFFSET ?",
+                (rs, rowNum) -> new UserSearchHitDTO(mapSummary(rs), rs.getDouble("score")), args.toArray());
+    }
+
+    private static UserSummaryDTO mapSummary(ResultSet rs) throws SQLException {
+        String role = rs.getString("role");
+        String level = rs.getString("level");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new UserSummaryDTO(rs.getLong("id"), rs.getString("username"), rs.getString("email"),
+                rs.getString("nom_complet"),
+                role != null ? User.Role.valueOf(role) : null,
+                level != null ? User.Level.valueOf(level) : null,
+                createdAt != null ? createdAt.toLocalDateTime() : null);
+    }
+
+    // ========== INDEX DE TRIGRAMMES EN MÉMOIRE ==========
+
+    private List<UserSearchHitDTO> searchMemory(List<String> tokens, User.Role role, User.Level level,
+                                                int offset, int size) {
+        if (!built) {
+            buildLock.lock();
+            try {
+                if (!built) {
+                    rebuild();
+                }
+            } finally {
+                buildLock.unlock();
+            }
+        }
+        Set<String> queryGrams = new HashSet<>();
+        tokens.forEach(t -> addGrams(queryGrams, " " + t));
+        String phrase = String.join(" ", tokens);
+
+        List<UserSearchHitDTO> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> matches = new HashMap<>();
+            for (String gram : queryGrams) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.forEach(id -> matches.merge(id, 1, Integer::sum));
+                }
+            }
+            for (Map.Entry<Long, Integer> match : matches.entrySet()) {
+                double similarity = (double) match.getValue() / queryGrams.size();
+                if (similarity < minSimilarity) {
+                    continue;
+                }
+                Document document = documents.get(match.getKey());
+                UserSummaryDTO user = document.user();
+                if ((role != null && user.role() != role) || (level != null && user.level() != level)) {
+                    continue;
+                }
+                // Bonus pour une correspondance exacte (préfixe d'un mot, puis sous-chaîne)
+                double score = similarity;
+                if (document.text().contains(" " + phrase)) {
+                    score += 1.0;
+                } else if (document.text().contains(phrase)) {
+                    score += 0.5;
+                }
+                hits.add(new UserSearchHitDTO(user, score));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble(UserSearchHitDTO::score).reversed()
+                .thenComparing(hit -> hit.user().id()));
+        if (offset >= hits.size()) {
+            return List.of();
+        }
+        return List.copyOf(hits.subList(offset, Math.min(hits.size(), offset + size)));
+    }
+
+    // Appelé sous le verrou d'écriture
+    private void index(UserSummaryDTO user) {
+        unindex(user.id());
+        String text = " " + String.join(" ", tokens(Objects.toString(user.username(), "") + " " +
+                Objects.toString(user.email(), "") + " " + Objects.toString(user.nomComplet(), "")));
+        Set<String> grams = new HashSet<>();
+        for (String word : text.trim().split(" ")) {
+            addGrams(grams, " " + word + " ");
+        }
+        documents.put(user.id(), new Document(user, text, grams));
+        grams.forEach(gram -> postings.computeIfAbsent(gram, g -> new HashSet<>()).add(user.id()));
+    }
+
+    private void unindex(Long userId) {
+        Document previous = documents.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : previous.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null && ids.remove(userId) && ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static void addGrams(Set<String> grams, String padded) {
+        if (padded.length() < 3) {
+            grams.add(padded);
+            return;
+        }
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+    }
+
+    /**
+     * Minuscules, sans accents, découpé sur tout caractère non alphanumérique
+     */
+    private static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split("[^\\p{Alnum}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,27 +1,74 @@
 package user.biblio4.service;
 
+import user.biblio4.dto.UserSearchHitDTO;
+import user.biblio4.dto.UserSummaryDTO;
 import user.biblio4.model.User;
 import user.biblio4.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @Transactional
 public class UserService {
     
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final UserCounters userCounters;
+    private final UserSearchService userSearchService;
+    private final UserAvailabilityFilter availabilityFilter;
+    private final UserPurgeService userPurgeService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int exportFetchSize;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(
+            UserRepository userRepository,
+            UserCounters userCounters,
+            UserSearchService userSearchService,
+            UserAvailabilityFilter availabilityFilter,
+            UserPurgeService userPurgeService,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${users.export.fetch-size:500}") int exportFetchSize
+    ) {
         this.userRepository = userRepository;
+        this.userCounters = userCounters;
+        this.userSearchService = userSearchService;
+        this.availabilityFilter = availabilityFilter;
+        this.userPurgeService = userPurgeService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.exportFetchSize = exportFetchSize;
     }
     
     public User createUser(User user) {
@@ -33,15 +80,6 @@ public class UserService {
              (user.getPasswordHash().startsWith("$2a$") || 
               user.getPasswordHash().startsWith("$2b$"))));
         
-        // Vérifier l'unicité
-        if (userRepository.existsByUsername(user.getUsername())) {
-            throw new RuntimeException("Un utilisateur avec ce nom d'utilisateur existe déjà");
-        }
-        
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Un utilisateur avec cet email existe déjà");
-        }
-        
         // CORRECTION IMPORTANTE : 
         // NE PAS re-hasher si c'est déjà un hash BCrypt!
         String passwordHash = user.getPasswordHash();
@@ -63,7 +101,16 @@ public class UserService {
             user.setLevel(User.Level.BEGINNER);
         }
         
-        User savedUser = userRepository.save(user);
+        // Unicité garantie par les contraintes de la table : un seul INSERT, sans pré-vérification
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException(duplicateMessage(e, user));
+        }
+        availabilityFilter.add(savedUser.getUsername(), savedUser.getEmail());
+        userCounters.recordCreated(savedUser.getRole(), savedUser.getLevel());
+        userSearchService.recordSaved(savedUser);
         System.out.println("User saved with ID: " + savedUser.getId());
         System.out.println("Final password hash in DB: " + savedUser.getPasswordHash());
         System.out.println("=== DEBUG UserService.createUser() END ===");
@@ -93,13 +140,13 @@ public class UserService {
         
         // Vérifier l'unicité du nom d'utilisateur si modifié
         if (!user.getUsername().equals(userDetails.getUsername()) && 
-            userRepository.existsByUsername(userDetails.getUsername())) {
+            usernameExists(userDetails.getUsername())) {
             throw new RuntimeException("Un utilisateur avec ce nom d'utilisateur existe déjà");
         }
         
         // Vérifier l'unicité de l'email si modifié
         if (!user.getEmail().equals(userDetails.getEmail()) && 
-            userRepository.existsByEmail(userDetails.getEmail())) {
+            emailExists(userDetails.getEmail())) {
             throw new RuntimeException("Un utilisateur avec cet email existe déjà");
         }
         
@@ -119,21 +166,35 @@ public class UserService {
             user.setPasswordHash(passwordHash);
         }
         
+        User.Role oldRole = user.getRole();
+        User.Level oldLevel = user.getLevel();
         user.setRole(userDetails.getRole());
         user.setLevel(userDetails.getLevel());
+        userCounters.recordChanged(oldRole, oldLevel, user.getRole(), user.getLevel());
         
-        return userRepository.save(user);
-    }
-    
-    public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("Utilisateur non trouvé avec l'ID : " + id);
+        // Écriture concurrente entre la vérification et l'UPDATE : même message qu'à la création
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException(duplicateMessage(e, user));
         }
-        userRepository.deleteById(id);
+        availabilityFilter.add(savedUser.getUsername(), savedUser.getEmail());
+        userSearchService.recordSaved(savedUser);
+        return savedUser;
     }
     
-    public List<User> searchUsersByNomComplet(String nomComplet) {
-        return userRepository.findByNomCompletContainingIgnoreCase(nomComplet);
+    /**
+     * Suppression logique immédiate ; les données sont purgées en arrière-plan (UserPurgeService)
+     */
+    public void deleteUser(Long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé avec l'ID : " + id));
+        user.setDeletedAt(LocalDateTime.now());
+        userRepository.save(user);
+        userCounters.recordDeleted(user.getRole(), user.getLevel());
+        userSearchService.recordDeleted(id);
+        userPurgeService.enqueue();
     }
     
     public List<User> getUsersByRole(String role) {
@@ -154,12 +215,151 @@ public class UserService {
         }
     }
     
+    // ========== PROJECTIONS POUR LES LISTES ADMIN ==========
+
+    /**
+     * Page d'utilisateurs après le curseur {@code after} (identifiant, 0 pour la première page)
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummaryDTO> getUserSummaries(Long after, int size) {
+        return userRepository.findSummariesAfter(cursor(after), page(size));
+    }
+
+    public Optional<UserSummaryDTO> getUserSummaryById(Long id) {
+        return userRepository.findSummaryById(id);
+    }
+
+    public Optional<UserSummaryDTO> getUserSummaryByUsername(String username) {
+        return userRepository.findSummaryByUsername(username);
+    }
+
+    public Optional<UserSummaryDTO> getUserSummaryByEmail(String email) {
+        return userRepository.findSummaryByEmail(email);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummaryDTO> searchUserSummariesByNomComplet(String nomComplet, Long after, int size) {
+        return userRepository.findSummariesByNomCompletAfter(nomComplet, cursor(after), page(size));
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummaryDTO> getUserSummariesByRole(String role, Long after, int size) {
+        try {
+            User.Role roleEnum = User.Role.valueOf(role.toUpperCase());
+            return userRepository.findSummariesByRoleAfter(roleEnum, cursor(after), page(size));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Rôle invalide: " + role);
+        }
+    }
+
+    /**
+     * Export NDJSON de tous les utilisateurs (une ligne par utilisateur, sans mot de passe).
+     * Lecture par curseur JDBC en avant seulement : la mémoire reste constante.
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream out, String role) throws IOException {
+        User.Role roleFilter = null;
+        if (role != null && !role.isBlank()) {
+            try {
+                roleFilter = User.Role.valueOf(role.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Rôle invalide: " + role);
+            }
+        }
+        String sql = "SELECT id, username, email, nom_complet, role, level, created_at FROM utilisateurs " +
+                "WHERE deleted_at IS NULL" + (roleFilter != null ? " AND role = ?" : "") + " ORDER BY id";
+        Object[] args = roleFilter != null ? new Object[] { roleFilter.name() } : new Object[0];
+
+        ObjectWriter writer = objectMapper.writerFor(UserSummaryDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long[] count = { 0 };
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(exportFetchSize);
+                for (int i = 0; i < args.length; i++) {
+                    ps.setObject(i + 1, args[i]);
+                }
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    writer.writeValue(generator, mapSummary(rs));
+                    if (++count[0] % exportFetchSize == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (count[0] > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return count[0];
+    }
+
+    private static UserSummaryDTO mapSummary(ResultSet rs) throws SQLException {
+        String role = rs.getString("role");
+        String level = rs.getString("level");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new UserSummaryDTO(
+                rs.getLong("id"),
+                rs.getString("username"),
+                rs.getString("email"),
+                rs.getString("nom_complet"),
+                role != null ? User.Role.valueOf(role) : null,
+                level != null ? User.Level.valueOf(level) : null,
+                createdAt != null ? createdAt.toLocalDateTime() : null);
+    }
+
+    private static long cursor(Long after) {
+        return after != null && after > 0 ? after : 0L;
+    }
+
+    private static Pageable page(int size) {
+        return PageRequest.of(0, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Vérifications de disponibilité : le filtre de Bloom répond seul quand la valeur
+     * n'existe certainement pas, l'index unique confirme les « peut-être ».
+     * Les utilisateurs supprimés en attente de purge sont comptés : leurs lignes
+     * occupent toujours l'index unique.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        if (!availabilityFilter.mightExist(UserAvailabilityFilter.EMAIL, email)) {
+            availabilityFilter.record(UserAvailabilityFilter.EMAIL, "bloom_negative");
+            return false;
+        }
+        boolean exists = userRepository.countByEmailIncludingDeleted(email) > 0;
+        availabilityFilter.record(UserAvailabilityFilter.EMAIL, exists ? "db_taken" : "db_free");
+        return exists;
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean usernameExists(String username) {
-        return userRepository.existsByUsername(username);
+        if (!availabilityFilter.mightExist(UserAvailabilityFilter.USERNAME, username)) {
+            availabilityFilter.record(UserAvailabilityFilter.USERNAME, "bloom_negative");
+            return false;
+        }
+        boolean exists = userRepository.countByUsernameIncludingDeleted(username) > 0;
+        availabilityFilter.record(UserAvailabilityFilter.USERNAME, exists ? "db_taken" : "db_free");
+        return exists;
+    }
+
+    // Violation d'unicité : identifier la colonne d'après le message du pilote
+    private static String duplicateMessage(DataIntegrityViolationException e, User user) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+        if (message.contains("(email") || (user.getEmail() != null && message.contains(user.getEmail().toLowerCase()))) {
+            return "Un utilisateur avec cet email existe déjà";
+        }
+        if (message.contains("(username") || (user.getUsername() != null && message.contains(user.getUsername().toLowerCase()))) {
+            return "Un utilisateur avec ce nom d'utilisateur existe déjà";
+        }
+        return "Un utilisateur avec ce nom d'utilisateur ou cet email existe déjà";
     }
     
     public Optional<User> authenticate(String username, String password) {
@@ -173,6 +373,14 @@ public class UserService {
         return Optional.empty();
     }
     
+    /**
+     * Totaux par rôle et par niveau (compteurs en mémoire, sans transaction)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<String, Object> getUserCounts() {
+        return userCounters.snapshot();
+    }
+    
     public Long countByRole(User.Role role) {
         return userRepository.countByRole(role);
     }
@@ -181,8 +389,28 @@ public class UserService {
         return userRepository.countByLevel(level);
     }
     
-    public List<User> searchUsers(String username, String email, String nomComplet, User.Role role, User.Level level) {
-        return userRepository.searchUsers(username, email, nomComplet, role, level);
+    /**
+     * Recherche classée sur username, email et nom complet (voir UserSearchService)
+     */
+    public List<UserSearchHitDTO> searchUsers(String query, String role, String level, int page, int size) {
+        User.Role roleEnum = null;
+        User.Level levelEnum = null;
+        try {
+            if (role != null && !role.isBlank()) {
+                roleEnum = User.Role.valueOf(role.toUpperCase());
+            }
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Rôle invalide: " + role);
+        }
+        try {
+            if (level != null && !level.isBlank()) {
+                levelEnum = User.Level.valueOf(level.toUpperCase());
+            }
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Niveau invalide: " + level);
+        }
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return userSearchService.search(query, roleEnum, levelEnum, page, limit);
     }
     
     public List<User> getUsersCreatedAfter(LocalDateTime date) {
@@ -2,8 +2,9 @@ package user.biblio3;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import user.biblio4.Biblio4UsersApplication;
 
-@SpringBootTest
+@SpringBootTest(classes = Biblio4UsersApplication.class)
 class Biblio3UsersApplicationTests {
 
 	@Test
@@ -0,0 +1,140 @@
+package user.biblio4.bench;
+
+import user.biblio4.dto.LevelPageDTO;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation de la page d'un niveau (20 mots) : ancienne forme en HashMap
+ * contre records et fragments du catalogue pré-sérialisés, avec et sans Blackbird.
+ *
+ * Lancement : mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * puis java -cp target/test-classes:target/classes:$(cat cp.txt) user.biblio4.bench.LevelPageSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LevelPageSerializationBenchmark {
+
+    private static final int WORDS = 20;
+
+    private ObjectMapper reflective;
+    private ObjectMapper blackbird;
+    private List<String> completed;
+    private List<String> mastered;
+    private SerializedString[] fragments;
+
+    @Setup
+    public void setup() {
+        reflective = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+        blackbird = JsonMapper.builder().addModule(new JavaTimeModule()).addModule(new BlackbirdModule()).build();
+        completed = new ArrayList<>();
+        mastered = new ArrayList<>();
+        for (int i = 0; i < WORDS / 2; i++) {
+            completed.add("word_" + i);
+        }
+        for (int i = 0; i < WORDS / 4; i++) {
+            mastered.add("word_" + i);
+        }
+        fragments = new SerializedString[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            String key = "word_" + i;
+            fragments[i] = new SerializedString("{\"id\":" + i + ",\"wordKey\":\"" + key +
+                    "\",\"category\":\"basics\",\"points\":10,\"displayOrder\":" + i +
+                    ",\"text\":\"text " + i + "\",\"gifUrl\":\"/gif/" + key + ".gif\",\"audioUrl\":\"/audio/" +
+                    key + ".mp3\"");
+            fragments[i].asUnquotedUTF8();
+        }
+    }
+
+    @Benchmark
+    public byte[] mapReflective() throws Exception {
+        return reflective.writeValueAsBytes(buildMap());
+    }
+
+    @Benchmark
+    public byte[] fragmentsReflective() throws Exception {
+        return reflective.writeValueAsBytes(buildRecord());
+    }
+
+    @Benchmark
+    public byte[] fragmentsBlackbird() throws Exception {
+        return blackbird.writeValueAsBytes(buildRecord());
+    }
+
+    // Construction identique à l'ancien LevelService.getLevelWithProgress
+    private Map<String, Object> buildMap() {
+        List<Map<String, Object>> words = new ArrayList<>();
+        for (int i = 0; i < WORDS; i++) {
+            String key = "word_" + i;
+            Map<String, Object> word = new HashMap<>();
+            word.put("id", (long) i);
+            word.put("wordKey", key);
+            word.put("category", "basics");
+            word.put("points", 10);
+            word.put("displayOrder", i);
+            word.put("text", "text " + i);
+            word.put("gifUrl", "/gif/" + key + ".gif");
+            word.put("audioUrl", "/audio/" + key + ".mp3");
+            word.put("learned", completed.contains(key));
+            word.put("mastered", mastered.contains(key));
+            words.add(word);
+        }
+        int learned = (int) words.stream().filter(w -> (Boolean) w.get("learned")).count();
+        int masteredCount = (int) words.stream().filter(w -> (Boolean) w.get("mastered")).count();
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("levelNumber", 1);
+        page.put("totalWords", WORDS);
+        page.put("learnedWords", learned);
+        page.put("masteredWords", masteredCount);
+        page.put("progressPercentage", learned * 100 / WORDS);
+        page.put("totalPoints", 100);
+        page.put("quizAvailable", true);
+        page.put("quizPassed", false);
+        page.put("quizScore", null);
+        page.put("words", words);
+        return page;
+    }
+
+    // Construction de LevelService.getLevelWithProgress : fragments du catalogue + indicateurs
+    private LevelPageDTO buildRecord() {
+        Set<String> completedSet = new HashSet<>(completed);
+        Set<String> masteredSet = new HashSet<>(mastered);
+        List<LevelPageDTO.Word> words = new ArrayList<>(WORDS);
+        int learned = 0;
+        int masteredCount = 0;
+        for (int i = 0; i < WORDS; i++) {
+            String key = "word_" + i;
+            boolean isLearned = completedSet.contains(key);
+            boolean isMastered = masteredSet.contains(key);
+            learned += isLearned ? 1 : 0;
+            masteredCount += isMastered ? 1 : 0;
+            words.add(new LevelPageDTO.Word(fragments[i], isLearned, isMastered));
+        }
+        return new LevelPageDTO(1, WORDS, learned, masteredCount, learned * 100 / WORDS, 100,
+                true, false, null, words, null, null);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(LevelPageSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
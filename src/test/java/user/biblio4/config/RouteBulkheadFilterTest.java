@@ -0,0 +1,162 @@
+package user.biblio4.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Isolation des cloisons : une rafale de soumissions de quiz bloquées sature
+ * la cloison « quiz » ; les requêtes de quiz en trop sont refusées aussitôt
+ * tandis que les lectures du catalogue passent normalement.
+ */
+class RouteBulkheadFilterTest {
+
+    private static final int QUIZ_CONCURRENT = 4;
+    private static final int QUIZ_QUEUE = 4;
+    private static final long QUIZ_QUEUE_TIMEOUT_MS = 300;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch slowQuiz = new CountDownLatch(1);
+    private ExecutorService clients;
+    private RouteBulkheadFilter filter;
+
+    // Quiz : bloqué jusqu'à la libération du verrou ; autres routes : réponse immédiate
+    private final FilterChain chain = (request, response) -> {
+        if (((MockHttpServletRequest) request).getRequestURI().startsWith("/api/quiz/")) {
+            try {
+                slowQuiz.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        ((MockHttpServletResponse) response).setStatus(200);
+    };
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("bulkhead.quiz.max-concurrent", String.valueOf(QUIZ_CONCURRENT))
+                .withProperty("bulkhead.quiz.max-queue", String.valueOf(QUIZ_QUEUE))
+                .withProperty("bulkhead.quiz.queue-timeout-ms", String.valueOf(QUIZ_QUEUE_TIMEOUT_MS))
+                .withProperty("bulkhead.catalog.max-concurrent", "8");
+        filter = new RouteBulkheadFilter(environment, meterRegistry, new ObjectMapper());
+        clients = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowQuiz.countDown();
+        clients.shutdownNow();
+    }
+
+    @Test
+    void quizOverloadDoesNotStarveCatalogReads() throws Exception {
+        // Surcharge : places et file de la cloison quiz remplies par des soumissions lentes
+        List<Future<Integer>> storm = new ArrayList<>();
+        for (int i = 0; i < QUIZ_CONCURRENT + QUIZ_QUEUE; i++) {
+            storm.add(clients.submit(() -> call("POST", "/api/quiz/submit")));
+        }
+        awaitGauge("bulkhead.active", QUIZ_CONCURRENT);
+        awaitGauge("bulkhead.queued", QUIZ_QUEUE);
+
+        // Quiz en trop : refusé sans attendre
+        long start = System.nanoTime();
+        MockHttpServletResponse overflow = response("POST", "/api/quiz/submit");
+        long overflowMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(429, overflow.getStatus());
+        assertEquals("1", overflow.getHeader("Retry-After"));
+        assertTrue(overflow.getContentAsString().contains("error"));
+        assertTrue(overflowMs < QUIZ_QUEUE_TIMEOUT_MS, "refus en " + overflowMs + " ms");
+
+        // Lectures du catalogue et écritures de progression : non affectées
+        for (int i = 0; i < 50; i++) {
+            assertEquals(200, call("GET", "/api/translations/word"));
+        }
+        assertEquals(200, call("GET", "/api/levels/3"));
+        assertEquals(200, call("POST", "/api/levels/3/complete-word"));
+        assertEquals(200, call("GET", "/api/users/profile"));
+
+        // Les requêtes en file expirent (503), les requêtes en cours aboutissent une fois débloquées
+        Thread.sleep(QUIZ_QUEUE_TIMEOUT_MS * 2);
+        slowQuiz.countDown();
+        int ok = 0;
+        int unavailable = 0;
+        for (Future<Integer> future : storm) {
+            int status = future.get(10, TimeUnit.SECONDS);
+            if (status == 200) {
+                ok++;
+            } else if (status == 503) {
+                unavailable++;
+            }
+        }
+        assertEquals(QUIZ_CONCURRENT, ok);
+        assertEquals(QUIZ_QUEUE, unavailable);
+
+        assertEquals(1.0, rejected("quiz", "queue_full"));
+        assertEquals(QUIZ_QUEUE, rejected("quiz", "timeout"));
+        assertEquals(0.0, rejected("catalog", "queue_full") + rejected("catalog", "timeout"));
+        assertEquals(0.0, gauge("bulkhead.active", "quiz"));
+    }
+
+    @Test
+    void routesMapToTheirGroup() {
+        assertEquals("auth", group("POST", "/api/auth/login"));
+        assertEquals("admin", group("GET", "/api/users/admin/export"));
+        assertEquals("admin", group("GET", "/api/admin/stats/difficulty"));
+        assertEquals("quiz", group("GET", "/api/quiz/history"));
+        assertEquals("progress", group("POST", "/api/progress/update-streak"));
+        assertEquals("progress", group("POST", "/api/sync"));
+        assertEquals("catalog", group("GET", "/api/levels/user/levels"));
+        assertEquals("catalog", group("GET", "/api/translations/search"));
+        assertNull(group("GET", "/api/progress/overall"));
+        assertNull(group("GET", "/api/users/profile"));
+    }
+
+    private int call(String method, String uri) throws Exception {
+        return response(method, uri).getStatus();
+    }
+
+    private MockHttpServletResponse response(String method, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, chain);
+        return response;
+    }
+
+    private String group(String method, String uri) {
+        Bulkhead bulkhead = filter.bulkheadFor(new MockHttpServletRequest(method, uri));
+        return bulkhead != null ? bulkhead.getName() : null;
+    }
+
+    private double rejected(String bulkhead, String reason) {
+        return meterRegistry.get("bulkhead.rejected").tag("bulkhead", bulkhead).tag("reason", reason)
+                .counter().count();
+    }
+
+    private double gauge(String name, String bulkhead) {
+        return meterRegistry.get(name).tag("bulkhead", bulkhead).gauge().value();
+    }
+
+    private void awaitGauge(String name, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gauge(name, "quiz") < expected) {
+            assertTrue(System.nanoTime() < deadline, name + " n'atteint pas " + expected);
+            Thread.sleep(5);
+        }
+    }
+}
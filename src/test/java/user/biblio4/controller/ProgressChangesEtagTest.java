@@ -0,0 +1,97 @@
+package user.biblio4.controller;
+
+import user.biblio4.Biblio4UsersApplication;
+import user.biblio4.model.LevelWord;
+import user.biblio4.model.User;
+import user.biblio4.repository.LevelWordRepository;
+import user.biblio4.repository.UserRepository;
+import user.biblio4.service.LevelService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Synchronisation différentielle : 304 tant que la version de l'utilisateur ne
+ * change pas, nouvel ETag et lignes modifiées après une écriture.
+ */
+@SpringBootTest(classes = Biblio4UsersApplication.class)
+@AutoConfigureMockMvc
+@WithMockUser
+class ProgressChangesEtagTest {
+
+    private static final int LEVEL = 61;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LevelWordRepository levelWordRepository;
+
+    @Autowired
+    private LevelService levelService;
+
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        String name = "etag" + System.nanoTime();
+        userId = userRepository.save(new User(name, name + "@test.local", "hash", name,
+                User.Role.STUDENT, User.Level.BEGINNER)).getId();
+        for (int i = 0; i < 2; i++) {
+            LevelWord word = new LevelWord();
+            word.setLevelNumber(LEVEL);
+            word.setWordKey("etag_" + userId + "_" + i);
+            word.setDisplayOrder(i);
+            word.setPoints(10);
+            levelWordRepository.save(word);
+        }
+        levelService.completeWord(userId, LEVEL, "etag_" + userId + "_0");
+    }
+
+    @Test
+    void matchingEtagAnswersNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/progress/changes").param("userId", userId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.levels[0].levelNumber").value(LEVEL))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/progress/changes").param("userId", userId.toString())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        // Nouvelle écriture : nouvelle version, l'ancien ETag ne correspond plus
+        levelService.completeWord(userId, LEVEL, "etag_" + userId + "_1");
+        long since = versionOf(etag);
+        MvcResult changed = mockMvc.perform(get("/api/progress/changes").param("userId", userId.toString())
+                        .param("since", Long.toString(since))
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.levels.length()").value(1))
+                .andExpect(jsonPath("$.changes.levels[0].completedWords").value(2))
+                .andReturn();
+        String newEtag = changed.getResponse().getHeader("ETag");
+        assertNotEquals(etag, newEtag);
+        assertEquals(since + 1, versionOf(newEtag));
+    }
+
+    // ETag de la forme "userId-version"
+    private static long versionOf(String etag) {
+        return Long.parseLong(etag.substring(etag.lastIndexOf('-') + 1, etag.length() - 1));
+    }
+}
@@ -0,0 +1,167 @@
+package user.biblio4.controller;
+
+import user.biblio4.Biblio4UsersApplication;
+import user.biblio4.model.LevelWord;
+import user.biblio4.model.Translation;
+import user.biblio4.model.User;
+import user.biblio4.model.UserProgress;
+import user.biblio4.repository.LevelWordRepository;
+import user.biblio4.repository.TranslationRepository;
+import user.biblio4.repository.UserProgressRepository;
+import user.biblio4.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Réponses réduites par {@code fields} : compteurs sans liste de mots, mots sans
+ * traduction lue, clés traduites d'une catégorie en une requête, champ inconnu refusé.
+ */
+@SpringBootTest(classes = Biblio4UsersApplication.class)
+@AutoConfigureMockMvc
+@WithMockUser
+class SparseFieldsTest {
+
+    private static final int LEVEL = 67;
+    private static final String LANGUAGE = "fr";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private LevelWordRepository levelWordRepository;
+
+    @SpyBean
+    private TranslationRepository translationRepository;
+
+    private Long userId;
+    private String category;
+
+    @BeforeEach
+    void seed() {
+        String name = "sparse" + System.nanoTime();
+        category = "cat_" + name;
+        User user = userRepository.save(new User(name, name + "@test.local", "hash", name,
+                User.Role.STUDENT, User.Level.BEGINNER));
+        userId = user.getId();
+
+        if (levelWordRepository.findByLevelNumberOrderByDisplayOrderAsc(LEVEL).isEmpty()) {
+            for (int i = 0; i < 3; i++) {
+                LevelWord word = new LevelWord();
+                word.setLevelNumber(LEVEL);
+                word.setWordKey("sparse_" + i);
+                word.setDisplayOrder(i);
+                word.setPoints(10);
+                word = levelWordRepository.save(word);
+                // Le dernier mot n'a pas de traduction
+                if (i < 2) {
+                    Translation translation = new Translation();
+                    translation.setWordKey(word.getWordKey());
+                    translation.setLanguageCode(LANGUAGE);
+                    translation.setText("mot " + i);
+                    translation.setLevelWord(word);
+                    translationRepository.save(translation);
+                }
+            }
+        }
+        for (LevelWord word : levelWordRepository.findByLevelNumberOrderByDisplayOrderAsc(LEVEL)) {
+            word.setCategory(category);
+            levelWordRepository.save(word);
+        }
+
+        UserProgress progress = new UserProgress(user, LEVEL);
+        progress.setCompletedWords(new ArrayList<>(List.of("sparse_0")));
+        userProgressRepository.save(progress);
+        clearInvocations(translationRepository);
+    }
+
+    @Test
+    void statsOnlyPageKeepsCountersWithoutWords() throws Exception {
+        mockMvc.perform(get("/api/levels/" + LEVEL).param("userId", userId.toString())
+                        .param("language", LANGUAGE).param("fields", "stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.level.totalWords").value(3))
+                .andExpect(jsonPath("$.level.learnedWords").value(1))
+                .andExpect(jsonPath("$.level.progressPercentage").value(33))
+                .andExpect(jsonPath("$.level.words").doesNotExist());
+
+        verify(translationRepository, never()).findByWordKeyAndLanguageCode(anyString(), anyString());
+    }
+
+    @Test
+    void wordKeysOnlyPageSkipsTranslations() throws Exception {
+        mockMvc.perform(get("/api/levels/" + LEVEL).param("userId", userId.toString())
+                        .param("language", LANGUAGE).param("fields", "words,points"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.level.learnedWords").value(1))
+                .andExpect(jsonPath("$.level.words.length()").value(3))
+                .andExpect(jsonPath("$.level.words[0].wordKey").value("sparse_0"))
+                .andExpect(jsonPath("$.level.words[0].points").value(10))
+                .andExpect(jsonPath("$.level.words[0].learned").value(true))
+                .andExpect(jsonPath("$.level.words[0].text").doesNotExist())
+                .andExpect(jsonPath("$.level.words[0].category").doesNotExist());
+
+        verify(translationRepository, never()).findByWordKeyAndLanguageCode(anyString(), anyString());
+    }
+
+    @Test
+    void textFieldReadsTranslations() throws Exception {
+        mockMvc.perform(get("/api/levels/" + LEVEL).param("userId", userId.toString())
+                        .param("language", LANGUAGE).param("fields", "text"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.level.words[0].text").value("mot 0"))
+                .andExpect(jsonPath("$.level.words[0].points").doesNotExist());
+
+        verify(translationRepository, atLeastOnce()).findByWordKeyAndLanguageCode(anyString(), eq(LANGUAGE));
+    }
+
+    @Test
+    void categoryWithoutTextUsesTranslatedKeysOnly() throws Exception {
+        mockMvc.perform(get("/api/translations/category").param("category", category)
+                        .param("language", LANGUAGE).param("fields", "points"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.words[*].wordKey", containsInAnyOrder("sparse_0", "sparse_1")))
+                .andExpect(jsonPath("$.words[0].points").value(10))
+                .andExpect(jsonPath("$.words[0].text").doesNotExist())
+                .andExpect(jsonPath("$.words[0].category").doesNotExist());
+
+        verify(translationRepository).findTranslatedWordKeys(eq(LANGUAGE), anyCollection());
+        verify(translationRepository, never()).findByWordKeyAndLanguageCode(anyString(), anyString());
+    }
+
+    @Test
+    void unknownFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/api/levels/" + LEVEL).param("userId", userId.toString())
+                        .param("fields", "stats,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value(startsWith("Champ inconnu : password")));
+
+        mockMvc.perform(get("/api/translations/category").param("category", category)
+                        .param("fields", "nope"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+}
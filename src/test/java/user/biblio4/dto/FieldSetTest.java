@@ -0,0 +1,60 @@
+package user.biblio4.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Paramètre {@code fields} : absent ou vide pour tout, champs inconnus refusés,
+ * clé stable quel que soit l'ordre, champs toujours renvoyés conservés.
+ */
+class FieldSetTest {
+
+    private static final Set<String> ALLOWED = Set.of("stats", "words", "text", "points");
+
+    @Test
+    void missingOrBlankMeansAll() {
+        assertSame(FieldSet.ALL, FieldSet.parse(null, ALLOWED));
+        assertSame(FieldSet.ALL, FieldSet.parse("  ", ALLOWED));
+        assertSame(FieldSet.ALL, FieldSet.parse(" , ,", ALLOWED));
+        assertTrue(FieldSet.ALL.isAll());
+        assertTrue(FieldSet.ALL.includes("anything"));
+        assertEquals("*", FieldSet.ALL.key());
+    }
+
+    @Test
+    void parsedFieldsAreTrimmedAndKeyedInOrder() {
+        FieldSet fields = FieldSet.parse(" words ,stats,,words", ALLOWED);
+
+        assertFalse(fields.isAll());
+        assertTrue(fields.includes("words"));
+        assertTrue(fields.includes("stats"));
+        assertFalse(fields.includes("text"));
+        assertTrue(fields.includesAny("text", "words"));
+        assertFalse(fields.includesAny("text", "points"));
+        assertEquals("stats,words", fields.key());
+        assertEquals(fields.key(), FieldSet.parse("stats,words", ALLOWED).key());
+    }
+
+    @Test
+    void unknownFieldIsRejected() {
+        RuntimeException error = assertThrows(RuntimeException.class, () -> FieldSet.parse("words,foo", ALLOWED));
+        assertEquals("Champ inconnu : foo (champs possibles : points, stats, text, words)", error.getMessage());
+    }
+
+    @Test
+    void retainKeepsRequestedAndAlwaysIncludedFields() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("wordKey", "livre");
+        values.put("text", "كتاب");
+        values.put("points", 10);
+
+        assertEquals(Map.of("wordKey", "livre", "points", 10),
+                FieldSet.parse("points", ALLOWED).retain(values, Set.of("wordKey")));
+        assertSame(values, FieldSet.ALL.retain(values, Set.of("wordKey")));
+    }
+}
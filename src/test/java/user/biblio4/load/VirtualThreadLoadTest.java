@@ -0,0 +1,137 @@
+package user.biblio4.load;
+
+import user.biblio4.Biblio4UsersApplication;
+import user.biblio4.model.User;
+import user.biblio4.security.JwtUtil;
+import user.biblio4.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Charge comparée : threads de plateforme (pool Tomcat) contre threads virtuels
+ * avec régulateur base de données, sur une lecture authentifiée en base
+ * (/api/users/profile). Plus de clients concurrents que de threads Tomcat
+ * et que de connexions Hikari.
+ *
+ * Exclu du build par défaut : mvn test -Pload -Dtest=VirtualThreadLoadTest
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final int CLIENTS = 300;
+    private static final int REQUESTS = 2_000;
+    private static final int WARMUP = 300;
+
+    private record Result(String mode, double throughput, long p50, long p99, int errors) {
+    }
+
+    @Test
+    void virtualThreadsWithGovernorSustainLoadLikePlatformThreads() throws Exception {
+        Result platform = run("platform", false);
+        Result virtual = run("virtual", true);
+
+        System.out.printf("%n%-10s %12s %8s %8s %7s%n", "mode", "req/s", "p50 ms", "p99 ms", "errors");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("%-10s %12.0f %8d %8d %7d%n",
+                    result.mode(), result.throughput(), result.p50(), result.p99(), result.errors());
+        }
+
+        // Aucune requête ne doit échouer sur le délai du pool ; le mode virtuel ne doit pas régresser
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+        assertTrue(virtual.p99() <= platform.p99() * 3 / 2,
+                "p99 virtuel " + virtual.p99() + " ms, plateforme " + platform.p99() + " ms");
+        assertTrue(virtual.throughput() >= platform.throughput() * 0.75,
+                "débit virtuel " + virtual.throughput() + " req/s, plateforme " + platform.throughput() + " req/s");
+    }
+
+    private Result run(String mode, boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Biblio4UsersApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load" + UUID.randomUUID() + ";MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "db.governor.enabled=" + virtual,
+                        "logging.level.user.biblio4=WARN")
+                .run()) {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            User user = context.getBean(UserService.class).createUser(
+                    new User("load" + mode, "load" + mode + "@test.local", "$2a$10$load", "Load", User.Role.STUDENT, null));
+            String token = context.getBean(JwtUtil.class).generateToken(user.getId(), user.getUsername(), "STUDENT", "BEGINNER");
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/profile"))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient http = HttpClient.newBuilder().executor(clients).version(HttpClient.Version.HTTP_1_1).build();
+                load(http, request, WARMUP, clients);
+                long start = System.nanoTime();
+                long[] latencies = new long[REQUESTS];
+                int errors = load(http, request, REQUESTS, clients, latencies);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                if (virtual) {
+                    MeterRegistry registry = context.getBean(MeterRegistry.class);
+                    assertTrue(registry.get("db.governor.wait").timer().count() > 0, "régulateur inactif");
+                }
+                Arrays.sort(latencies);
+                return new Result(mode, REQUESTS / seconds, latencies[REQUESTS / 2] / 1_000_000,
+                        latencies[(int) Math.ceil(REQUESTS * 0.99) - 1] / 1_000_000, errors);
+            }
+        }
+    }
+
+    private static int load(HttpClient http, HttpRequest request, int total, ExecutorService clients) throws Exception {
+        return load(http, request, total, clients, new long[total]);
+    }
+
+    // CLIENTS clients concurrents se partagent total requêtes ; latences en nanosecondes
+    private static int load(HttpClient http, HttpRequest request, int total, ExecutorService clients,
+                            long[] latencies) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(clients.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < total) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - start;
+                }
+                return null;
+            }));
+        }
+        for (var future : futures) {
+            future.get();
+        }
+        return errors.get();
+    }
+}
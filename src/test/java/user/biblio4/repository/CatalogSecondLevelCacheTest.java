@@ -0,0 +1,148 @@
+package user.biblio4.repository;
+
+import user.biblio4.Biblio4UsersApplication;
+import user.biblio4.config.HibernateCacheConfig;
+import user.biblio4.model.LevelWord;
+import user.biblio4.model.QuizQuestion;
+import user.biblio4.model.Translation;
+import user.biblio4.service.CatalogFragmentCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache de second niveau du catalogue : aucune requête SQL une fois le cache chaud
+ */
+@SpringBootTest(classes = Biblio4UsersApplication.class)
+class CatalogSecondLevelCacheTest {
+
+    private static final int LEVEL = 42;
+    private static final int WORDS = 5;
+
+    @Autowired
+    private LevelWordRepository levelWordRepository;
+
+    @Autowired
+    private TranslationRepository translationRepository;
+
+    @Autowired
+    private QuizQuestionRepository quizQuestionRepository;
+
+    @Autowired
+    private CatalogFragmentCache catalogFragmentCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < WORDS; i++) {
+            LevelWord word = new LevelWord();
+            word.setLevelNumber(LEVEL);
+            word.setWordKey("cache_" + i);
+            word.setDisplayOrder(i);
+            word.setPoints(10);
+            word = levelWordRepository.save(word);
+
+            Translation translation = new Translation();
+            translation.setWordKey("cache_" + i);
+            translation.setLanguageCode("fr");
+            translation.setText("mot " + i);
+            translation.setLevelWord(word);
+            translationRepository.save(translation);
+        }
+        QuizQuestion question = new QuizQuestion();
+        question.setLevelNumber(LEVEL);
+        question.setQuestionType("MULTIPLE_CHOICE");
+        question.setQuestionText("Question ?");
+        question.setCorrectAnswer("mot 0");
+        question.setOptions(List.of("mot 0", "mot 1"));
+        quizQuestionRepository.save(question);
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM translation WHERE word_key LIKE 'cache_%'");
+        jdbcTemplate.update("DELETE FROM level_word WHERE level_number = ?", LEVEL);
+        jdbcTemplate.update("DELETE FROM quiz_question WHERE level_number = ?", LEVEL);
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    @Test
+    void warmCatalogReadsIssueNoSql() {
+        readCatalog();
+
+        statistics.clear();
+        readCatalog();
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "requêtes SQL avec un cache chaud");
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+        assertTrue(statistics.getDomainDataRegionStatistics(HibernateCacheConfig.TRANSLATION_REGION).getHitCount() > 0);
+    }
+
+    @Test
+    void catalogVersionChangeEvictsCachedEntries() {
+        readCatalog();
+
+        // Modification hors Hibernate (script d'import), puis nouvelle version
+        jdbcTemplate.update("UPDATE translation SET text = 'modifié' WHERE word_key = 'cache_0'");
+        jdbcTemplate.update("UPDATE catalog_version SET version = version + 1 WHERE id = 1");
+        catalogFragmentCache.refreshVersion();
+
+        statistics.clear();
+        assertEquals("modifié", translationRepository.findByWordKeyAndLanguageCode("cache_0", "fr")
+                .orElseThrow().getText());
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+
+    }
+
+    @Test
+    void regionStatisticsArePublishedAsMetrics() {
+        readCatalog();
+        readCatalog();
+
+        FunctionCounter hits = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", HibernateCacheConfig.TRANSLATION_REGION)
+                .tag("result", "hit")
+                .functionCounter();
+        assertNotNull(hits);
+        assertTrue(hits.count() > 0);
+    }
+
+    private void readCatalog() {
+        List<LevelWord> words = levelWordRepository.findByLevelNumberOrderByDisplayOrderAsc(LEVEL);
+        assertEquals(WORDS, words.size());
+        for (LevelWord word : words) {
+            Translation translation = translationRepository
+                    .findByWordKeyAndLanguageCode(word.getWordKey(), "fr").orElseThrow();
+            assertTrue(translationRepository.findById(translation.getId()).isPresent());
+            assertEquals(1, translationRepository.findByWordKey(word.getWordKey()).size());
+            assertTrue(levelWordRepository.findByWordKey(word.getWordKey()).isPresent());
+        }
+        assertEquals(1, quizQuestionRepository.findByLevelNumber(LEVEL).size());
+    }
+}
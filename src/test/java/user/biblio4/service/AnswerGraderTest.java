@@ -0,0 +1,107 @@
+package user.biblio4.service;
+
+import user.biblio4.model.QuizQuestion;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Correction tolérante des réponses saisies : distance d'édition (Myers et repli
+ * au-delà de 64 caractères), normalisation des accents et du tashkeel, réponses vides.
+ */
+class AnswerGraderTest {
+
+    @Test
+    void exactAnswerMatchesWithoutTolerance() {
+        AnswerGrader.AnswerKey key = AnswerGrader.compile("bonjour");
+
+        assertTrue(AnswerGrader.matches(key, "bonjour", 0));
+        assertFalse(AnswerGrader.matches(key, "bonjoux", 0));
+    }
+
+    @Test
+    void distanceBelowAtAndAboveTolerance() {
+        AnswerGrader.AnswerKey key = AnswerGrader.compile("bibliotheque");
+
+        assertTrue(AnswerGrader.matches(key, "xibliotheque", 2));   // 1 substitution
+        assertTrue(AnswerGrader.matches(key, "biblioteque", 2));    // 1 suppression
+        assertTrue(AnswerGrader.matches(key, "xxbliotheque", 2));   // 2 : à la limite
+        assertTrue(AnswerGrader.matches(key, "bibliotequ", 2));     // 2 suppressions
+        assertFalse(AnswerGrader.matches(key, "xxxliotheque", 2));  // 3 : au-delà
+        assertFalse(AnswerGrader.matches(key, "bibliot", 2));       // écart de longueur
+        assertTrue(AnswerGrader.matches(key, "bibliothequeee", 2)); // 2 insertions
+    }
+
+    @Test
+    void defaultToleranceGrowsWithKeyLength() {
+        assertEquals(0, AnswerGrader.defaultTolerance(AnswerGrader.compile("chat")));
+        assertEquals(1, AnswerGrader.defaultTolerance(AnswerGrader.compile("maison")));
+        assertEquals(2, AnswerGrader.defaultTolerance(AnswerGrader.compile("bibliotheque")));
+        // Longueur après normalisation : accents et ponctuation ne comptent pas
+        assertEquals(0, AnswerGrader.defaultTolerance(AnswerGrader.compile("Été !")));
+    }
+
+    @Test
+    void keysOf64CharactersAndMoreUseTheFallback() {
+        String key64 = "abcdefgh".repeat(8);
+        AnswerGrader.AnswerKey myers = AnswerGrader.compile(key64);
+        assertEquals(64, myers.length());
+        assertTrue(AnswerGrader.matches(myers, key64, 0));
+        assertTrue(AnswerGrader.matches(myers, "x" + key64.substring(1), 1));
+        assertFalse(AnswerGrader.matches(myers, "xx" + key64.substring(2), 1));
+
+        String key70 = "abcdefghij".repeat(7);
+        AnswerGrader.AnswerKey longKey = AnswerGrader.compile(key70);
+        assertEquals(70, longKey.length());
+        assertTrue(AnswerGrader.matches(longKey, key70, 0));
+        assertTrue(AnswerGrader.matches(longKey, "xx" + key70.substring(2), 2));
+        assertTrue(AnswerGrader.matches(longKey, key70.substring(0, 68), 2));
+        assertFalse(AnswerGrader.matches(longKey, "xxx" + key70.substring(3), 2));
+        assertFalse(AnswerGrader.matches(longKey, key70.substring(0, 67), 2));
+    }
+
+    @Test
+    void accentsCaseAndPunctuationAreFolded() {
+        AnswerGrader.AnswerKey key = AnswerGrader.compile("Élève");
+
+        assertTrue(AnswerGrader.matches(key, "eleve", 0));
+        assertTrue(AnswerGrader.matches(key, "ÉLÈVE", 0));
+        assertTrue(AnswerGrader.matches(AnswerGrader.compile("bon-jour !"), "  Bon jour", 0));
+        assertTrue(AnswerGrader.matches(AnswerGrader.compile("straße"), "strase", 0));
+    }
+
+    @Test
+    void tashkeelAndArabicLetterVariantsAreFolded() {
+        assertTrue(AnswerGrader.matches(AnswerGrader.compile("كِتَاب"), "كتاب", 0));
+        assertTrue(AnswerGrader.matches(AnswerGrader.compile("كتاب"), "كتـــاب", 0)); // tatweel
+        assertTrue(AnswerGrader.matches(AnswerGrader.compile("أَسَد"), "اسد", 0));     // hamza
+        assertTrue(AnswerGrader.matches(AnswerGrader.compile("مستشفى"), "مستشفي", 0)); // alif maqsura
+        assertTrue(AnswerGrader.matches(AnswerGrader.compile("مدرسة"), "مدرسه", 0));   // taa marbuta
+        assertFalse(AnswerGrader.matches(AnswerGrader.compile("كتاب"), "كلب", 0));
+    }
+
+    @Test
+    void nullAndBlankAnswersAreWrong() {
+        AnswerGrader.AnswerKey key = AnswerGrader.compile("oui");
+
+        assertFalse(AnswerGrader.matches(key, null, 2));
+        assertFalse(AnswerGrader.matches(key, "", 0));
+        assertFalse(AnswerGrader.matches(key, "   ", 0));
+        assertFalse(AnswerGrader.matches(AnswerGrader.compile(null), null, 0));
+    }
+
+    @Test
+    void onlyTypedQuestionsAreTolerant() {
+        QuizQuestion typed = new QuizQuestion();
+        typed.setQuestionType(AnswerGrader.TYPED);
+        typed.setCorrectAnswer("bibliothèque");
+        assertTrue(typed.isTyped());
+        assertEquals(2, typed.getEffectiveTolerance());
+
+        QuizQuestion multipleChoice = new QuizQuestion();
+        multipleChoice.setQuestionType("MULTIPLE_CHOICE");
+        multipleChoice.setCorrectAnswer("bibliothèque");
+        assertFalse(multipleChoice.isTyped());
+        assertEquals(0, multipleChoice.getEffectiveTolerance());
+    }
+}
@@ -0,0 +1,92 @@
+package user.biblio4.service;
+
+import user.biblio4.Biblio4UsersApplication;
+import user.biblio4.dto.FieldSet;
+import user.biblio4.model.LevelWord;
+import user.biblio4.model.Translation;
+import user.biblio4.repository.LevelWordRepository;
+import user.biblio4.repository.TranslationRepository;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fragments JSON du catalogue : réutilisés tant que la version ne change pas,
+ * tous reconstruits après {@link CatalogFragmentCache#bumpVersion()}.
+ */
+@SpringBootTest(classes = Biblio4UsersApplication.class)
+class CatalogFragmentCacheTest {
+
+    private static final int LEVEL = 43;
+    private static final String WORD_KEY = "fragment_0";
+
+    @Autowired
+    private CatalogFragmentCache catalogFragmentCache;
+
+    @Autowired
+    private LevelWordRepository levelWordRepository;
+
+    @Autowired
+    private TranslationRepository translationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LevelWord word;
+
+    @BeforeEach
+    void seed() {
+        word = new LevelWord();
+        word.setLevelNumber(LEVEL);
+        word.setWordKey(WORD_KEY);
+        word.setDisplayOrder(0);
+        word.setPoints(10);
+        word = levelWordRepository.save(word);
+
+        Translation translation = new Translation();
+        translation.setWordKey(WORD_KEY);
+        translation.setLanguageCode("fr");
+        translation.setText("livre");
+        translation.setLevelWord(word);
+        translationRepository.save(translation);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM translation WHERE word_key = ?", WORD_KEY);
+        jdbcTemplate.update("DELETE FROM level_word WHERE level_number = ?", LEVEL);
+    }
+
+    @Test
+    void bumpVersionRebuildsEveryFragment() {
+        FieldSet textOnly = FieldSet.parse("text", Set.of("text"));
+        SerializedString full = catalogFragmentCache.wordFragment(word, "fr");
+        SerializedString sparse = catalogFragmentCache.wordFragment(word, "fr", textOnly);
+        assertTrue(full.getValue().contains("\"text\":\"livre\""));
+        assertTrue(sparse.getValue().contains("\"text\":\"livre\""));
+
+        // Modification hors de l'application : les fragments en place restent servis
+        jdbcTemplate.update("UPDATE translation SET text = 'cahier' WHERE word_key = ?", WORD_KEY);
+        assertSame(full, catalogFragmentCache.wordFragment(word, "fr"));
+        assertSame(sparse, catalogFragmentCache.wordFragment(word, "fr", textOnly));
+
+        long before = catalogFragmentCache.getCatalogVersion();
+        catalogFragmentCache.bumpVersion();
+        assertEquals(before + 1, catalogFragmentCache.getCatalogVersion());
+
+        SerializedString rebuilt = catalogFragmentCache.wordFragment(word, "fr");
+        SerializedString rebuiltSparse = catalogFragmentCache.wordFragment(word, "fr", textOnly);
+        assertNotSame(full, rebuilt);
+        assertTrue(rebuilt.getValue().contains("\"text\":\"cahier\""), rebuilt.getValue());
+        assertTrue(rebuiltSparse.getValue().contains("\"text\":\"cahier\""), rebuiltSparse.getValue());
+        assertSame(rebuilt, catalogFragmentCache.wordFragment(word, "fr"));
+    }
+}
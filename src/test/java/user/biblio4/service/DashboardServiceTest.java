@@ -0,0 +1,109 @@
+package user.biblio4.service;
+
+import user.biblio4.dto.LevelInfoDTO;
+import user.biblio4.dto.UserStatsDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Réponse partielle du tableau de bord : une partie trop lente est marquée
+ * « timeout », une partie en échec « error », les autres sont renvoyées.
+ */
+class DashboardServiceTest {
+
+    private static final long PART_TIMEOUT_MS = 200;
+    // Large : le premier appel (chargement des classes, simulacres) ne doit pas expirer
+    private static final long GENEROUS_TIMEOUT_MS = 10_000;
+    private static final Long USER = 1L;
+
+    private final LevelService levelService = mock(LevelService.class);
+    private final ProgressService progressService = mock(ProgressService.class);
+    private final RewardService rewardService = mock(RewardService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        when(levelService.getUserStats(USER)).thenReturn(new UserStatsDTO(USER, 4L, 1L, 40L, 0L, 0.0, 1L, 12));
+        when(levelService.getUserLevels(USER)).thenReturn(List.of(new LevelInfoDTO(
+                1, 4, 1, 40, false, null, null, null, null, "in_progress", 40)));
+        when(progressService.getWeeklyStats(USER)).thenReturn(Map.of("days", 7));
+        when(rewardService.getUserProgress(USER)).thenReturn(Map.of("coins", 15));
+        when(progressService.getLeaderboard("xp", 10)).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (dashboardService != null) {
+            dashboardService.shutdown();
+        }
+    }
+
+    @Test
+    void allPartsPresent() {
+        useTimeout(GENEROUS_TIMEOUT_MS);
+        Map<String, Object> dashboard = dashboardService.getDashboard(USER);
+
+        assertEquals(false, dashboard.get("partial"));
+        assertEquals(Map.of(), dashboard.get("missing"));
+        assertEquals(List.of("stats", "levels", "weeklyStats", "rewards", "leaderboard"),
+                List.copyOf(parts(dashboard).keySet()));
+    }
+
+    @Test
+    void slowPartIsReportedAsTimeout() {
+        when(progressService.getWeeklyStats(USER)).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Map.of("days", 7);
+        });
+        useTimeout(PART_TIMEOUT_MS);
+
+        long start = System.nanoTime();
+        Map<String, Object> dashboard = dashboardService.getDashboard(USER);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(true, dashboard.get("partial"));
+        assertEquals(Map.of("weeklyStats", DashboardService.TIMEOUT), dashboard.get("missing"));
+        assertFalse(parts(dashboard).containsKey("weeklyStats"));
+        assertEquals(Map.of("coins", 15), parts(dashboard).get("rewards"));
+        assertTrue(elapsedMs < PART_TIMEOUT_MS + 1000, "réponse en " + elapsedMs + " ms");
+        assertEquals(1, meterRegistry.get("dashboard.part").tag("part", "weeklyStats")
+                .tag("outcome", DashboardService.TIMEOUT).timer().count());
+    }
+
+    @Test
+    void failingPartIsReportedAsError() {
+        when(rewardService.getUserProgress(USER)).thenThrow(new RuntimeException("Utilisateur non trouvé"));
+        useTimeout(GENEROUS_TIMEOUT_MS);
+
+        Map<String, Object> dashboard = dashboardService.getDashboard(USER);
+
+        assertEquals(true, dashboard.get("partial"));
+        assertEquals(Map.of("rewards", DashboardService.ERROR), dashboard.get("missing"));
+        assertFalse(parts(dashboard).containsKey("rewards"));
+        assertEquals(4, parts(dashboard).size());
+    }
+
+    private void useTimeout(long partTimeoutMs) {
+        dashboardService = new DashboardService(levelService, progressService, rewardService,
+                mock(PlatformTransactionManager.class), meterRegistry, partTimeoutMs, 10);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parts(Map<String, Object> dashboard) {
+        return (Map<String, Object>) dashboard.get("parts");
+    }
+}
@@ -0,0 +1,142 @@
+package user.biblio4.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vidage des compteurs de difficulté : deltas exacts, remise en mémoire sur échec,
+ * et jamais plus de bonnes réponses que de tentatives dans les totaux écrits.
+ */
+class DifficultyStatsServiceTest {
+
+    private static final int ATTEMPTS = 4;
+    private static final int CORRECT = 5;
+
+    // Lignes envoyées par batchUpdate ; échec simulé sur demande
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+        final List<Object[]> rows = new ArrayList<>();
+        volatile boolean failing;
+
+        @Override
+        public synchronized int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (failing) {
+                throw new IllegalStateException("base indisponible");
+            }
+            rows.addAll(batchArgs);
+            return new int[batchArgs.size()];
+        }
+
+        synchronized long sum(int column) {
+            return rows.stream().mapToLong(row -> (Long) row[column]).sum();
+        }
+    }
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+    private final DifficultyStatsService service = new DifficultyStatsService(null, jdbcTemplate);
+
+    @Test
+    void flushWritesDeltasOnceThenNothing() {
+        service.recordQuestion(7L, 1, "FR", true);
+        service.recordQuestion(7L, 1, "fr", false);
+        service.recordQuestion(7L, 1, "fr", true);
+        service.recordWord("chat", 1, null, false);
+
+        assertEquals(2, service.flush());
+        Object[] question = row("QUESTION", "7");
+        assertEquals("fr", question[3]);
+        assertEquals(3L, question[ATTEMPTS]);
+        assertEquals(2L, question[CORRECT]);
+        Object[] word = row("WORD", "chat");
+        assertEquals(DifficultyStatsService.UNKNOWN_LANGUAGE, word[3]);
+        assertEquals(1L, word[ATTEMPTS]);
+        assertEquals(0L, word[CORRECT]);
+
+        assertEquals(0, service.flush());
+        assertEquals(2, jdbcTemplate.rows.size());
+    }
+
+    @Test
+    void failedFlushKeepsDeltasForTheNextOne() {
+        service.recordQuestion(9L, 2, "ar", true);
+        service.recordQuestion(9L, 2, "ar", false);
+
+        jdbcTemplate.failing = true;
+        assertEquals(0, service.flush());
+        service.recordQuestion(9L, 2, "ar", true);
+
+        jdbcTemplate.failing = false;
+        assertEquals(1, service.flush());
+        assertEquals(3L, row("QUESTION", "9")[ATTEMPTS]);
+        assertEquals(2L, row("QUESTION", "9")[CORRECT]);
+    }
+
+    @Test
+    void concurrentFlushesNeverStoreMoreCorrectThanAttempts() throws Exception {
+        int threads = 4;
+        int perThread = 50_000;
+        ExecutorService recorders = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean recording = new AtomicBoolean(true);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(recorders.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        service.recordQuestion(1L, 1, "fr", true);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            Thread flusher = new Thread(() -> {
+                while (recording.get()) {
+                    service.flush();
+                }
+            });
+            flusher.start();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            recording.set(false);
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } finally {
+            recorders.shutdownNow();
+        }
+        service.flush();
+
+        // Totaux de la ligne en base après chaque lot (l'upsert additionne les deltas)
+        long attempts = 0;
+        long correct = 0;
+        for (Object[] row : jdbcTemplate.rows) {
+            attempts += (Long) row[ATTEMPTS];
+            correct += (Long) row[CORRECT];
+            assertTrue(correct <= attempts, correct + " bonnes réponses pour " + attempts + " tentatives");
+        }
+        assertEquals((long) threads * perThread, jdbcTemplate.sum(ATTEMPTS));
+        assertEquals((long) threads * perThread, jdbcTemplate.sum(CORRECT));
+    }
+
+    private Object[] row(String type, String itemKey) {
+        return jdbcTemplate.rows.stream()
+                .filter(row -> type.equals(row[0]) && itemKey.equals(row[1]))
+                .reduce((first, second) -> {
+                    Object[] merged = first.clone();
+                    merged[ATTEMPTS] = (Long) first[ATTEMPTS] + (Long) second[ATTEMPTS];
+                    merged[CORRECT] = (Long) first[CORRECT] + (Long) second[CORRECT];
+                    return merged;
+                })
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,155 @@
+package user.biblio4.service;
+
+import user.biblio4.Biblio4UsersApplication;
+import user.biblio4.dto.OverallProgressDTO;
+import user.biblio4.event.ProgressChangedEvent;
+import user.biblio4.model.LevelWord;
+import user.biblio4.model.User;
+import user.biblio4.model.UserProgress;
+import user.biblio4.repository.LevelWordRepository;
+import user.biblio4.repository.UserProgressRepository;
+import user.biblio4.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Budget de latence de /api/progress/overall : requête agrégée non cachée et lecture en cache
+ */
+@SpringBootTest(classes = Biblio4UsersApplication.class)
+class ProgressServiceLatencyTest {
+
+    private static final int LEVELS = 10;
+    private static final int WORDS_PER_LEVEL = 20;
+    private static final long UNCACHED_P95_BUDGET_MICROS = 50_000;
+    private static final long CACHED_P95_BUDGET_MICROS = 2_000;
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private LevelService levelService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private LevelWordRepository levelWordRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        String name = "latency" + System.nanoTime();
+        User user = userRepository.save(new User(name, name + "@test.local", "hash", name,
+                User.Role.STUDENT, User.Level.BEGINNER));
+        userId = user.getId();
+
+        if (levelWordRepository.countByLevelNumber(1) == 0) {
+            List<LevelWord> words = new ArrayList<>();
+            for (int level = 1; level <= LEVELS; level++) {
+                for (int i = 0; i < WORDS_PER_LEVEL; i++) {
+                    LevelWord word = new LevelWord();
+                    word.setLevelNumber(level);
+                    word.setWordKey("w" + level + "_" + i);
+                    word.setDisplayOrder(i);
+                    word.setPoints(10);
+                    words.add(word);
+                }
+            }
+            levelWordRepository.saveAll(words);
+        }
+
+        for (int level = 1; level <= LEVELS - 2; level++) {
+            UserProgress progress = new UserProgress(user, level);
+            for (int i = 0; i < 10; i++) {
+                progress.getCompletedWords().add("w" + level + "_" + i);
+            }
+            for (int i = 0; i < 5; i++) {
+                progress.getMasteredWords().add("w" + level + "_" + i);
+            }
+            progress.setTotalPoints(100);
+            progress.setQuizPassed(level % 2 == 0);
+            progress.setQuizScore(60 + level);
+            userProgressRepository.save(progress);
+        }
+    }
+
+    @Test
+    void overallProgressIsAggregatedAndCorrect() {
+        OverallProgressDTO overall = progressService.getOverallProgress(userId);
+
+        assertEquals(LEVELS, overall.getLevels().size());
+        assertEquals(LEVELS - 2, overall.getLevelsUnlocked());
+        assertEquals((LEVELS - 2) / 2, overall.getLevelsCompleted());
+        assertEquals((LEVELS - 2) * 10L, overall.getWordsLearned());
+        assertEquals((LEVELS - 2) * 5L, overall.getWordsMastered());
+        assertEquals((long) LEVELS * WORDS_PER_LEVEL, overall.getTotalWords());
+        assertEquals(100, overall.getLevels().get(0).getCompletionPercentage());
+        assertFalse(overall.getLevels().get(LEVELS - 1).isUnlocked());
+    }
+
+    @Test
+    void uncachedAndCachedReadsStayWithinBudget() {
+        // Préchauffage (JIT, plan de requête)
+        for (int i = 0; i < 50; i++) {
+            evict();
+            progressService.getOverallProgress(userId);
+        }
+
+        long[] uncached = new long[200];
+        for (int i = 0; i < uncached.length; i++) {
+            evict();
+            long start = System.nanoTime();
+            progressService.getOverallProgress(userId);
+            uncached[i] = (System.nanoTime() - start) / 1_000;
+        }
+
+        long[] cached = new long[200];
+        for (int i = 0; i < cached.length; i++) {
+            long start = System.nanoTime();
+            progressService.getOverallProgress(userId);
+            cached[i] = (System.nanoTime() - start) / 1_000;
+        }
+
+        long uncachedP95 = p95(uncached);
+        long cachedP95 = p95(cached);
+        assertTrue(uncachedP95 <= UNCACHED_P95_BUDGET_MICROS,
+                "p95 non caché " + uncachedP95 + "µs > " + UNCACHED_P95_BUDGET_MICROS + "µs");
+        assertTrue(cachedP95 <= CACHED_P95_BUDGET_MICROS,
+                "p95 en cache " + cachedP95 + "µs > " + CACHED_P95_BUDGET_MICROS + "µs");
+    }
+
+    @Test
+    void progressWriteInvalidatesCachedOverview() {
+        OverallProgressDTO before = progressService.getOverallProgress(userId);
+
+        levelService.completeWord(userId, LEVELS - 1, "w" + (LEVELS - 1) + "_0");
+
+        OverallProgressDTO after = progressService.getOverallProgress(userId);
+        assertNotSame(before, after);
+        assertEquals(before.getWordsLearned() + 1, after.getWordsLearned());
+        assertEquals(before.getLevelsUnlocked() + 1, after.getLevelsUnlocked());
+    }
+
+    private void evict() {
+        progressService.onProgressChanged(new ProgressChangedEvent(Set.of(userId)));
+    }
+
+    private static long p95(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+    }
+}
@@ -0,0 +1,100 @@
+package user.biblio4.service;
+
+import user.biblio4.model.ReviewCard;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transitions SM-2 : intervalles 1, 6 puis intervalle × facilité, facilité selon
+ * la note (plancher 1,3), remise à zéro sur échec et plafond d'un an.
+ */
+class ReviewServiceTest {
+
+    private static final float DELTA = 1e-4f;
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 10, 9, 0);
+
+    @Test
+    void successfulReviewsFollowOneSixThenEase() {
+        ReviewCard card = newCard();
+
+        ReviewService.schedule(card, 5, NOW);
+        assertEquals(1, card.getRepetitions());
+        assertEquals(1f, card.getIntervalDays(), DELTA);
+        assertEquals(2.6f, card.getEase(), DELTA);
+        assertEquals(NOW.plusDays(1), card.getDueAt());
+        assertEquals(NOW, card.getLastReviewedAt());
+
+        ReviewService.schedule(card, 5, NOW);
+        assertEquals(2, card.getRepetitions());
+        assertEquals(6f, card.getIntervalDays(), DELTA);
+        assertEquals(2.7f, card.getEase(), DELTA);
+        assertEquals(NOW.plusDays(6), card.getDueAt());
+
+        // Troisième succès : intervalle précédent × facilité avant mise à jour
+        ReviewService.schedule(card, 4, NOW);
+        assertEquals(3, card.getRepetitions());
+        assertEquals(6f * 2.7f, card.getIntervalDays(), DELTA);
+        assertEquals(2.7f, card.getEase(), DELTA);
+        assertEquals(0, card.getLapses());
+    }
+
+    @Test
+    void easeDependsOnGrade() {
+        assertEquals(2.6f, easeAfter(5), DELTA);
+        assertEquals(2.5f, easeAfter(4), DELTA);
+        assertEquals(2.36f, easeAfter(3), DELTA);
+        assertEquals(2.18f, easeAfter(2), DELTA);
+        assertEquals(1.96f, easeAfter(1), DELTA);
+        assertEquals(1.7f, easeAfter(0), DELTA);
+    }
+
+    @Test
+    void failedReviewResetsRepetitionsAndCountsALapse() {
+        ReviewCard card = newCard();
+        ReviewService.schedule(card, 5, NOW);
+        ReviewService.schedule(card, 5, NOW);
+        ReviewService.schedule(card, 5, NOW);
+
+        ReviewService.schedule(card, 2, NOW);
+        assertEquals(0, card.getRepetitions());
+        assertEquals(1, card.getLapses());
+        assertEquals(1f, card.getIntervalDays(), DELTA);
+        assertEquals(NOW.plusDays(1), card.getDueAt());
+
+        // Reprise de la séquence 1, 6 après l'échec
+        ReviewService.schedule(card, 4, NOW);
+        assertEquals(1f, card.getIntervalDays(), DELTA);
+        ReviewService.schedule(card, 4, NOW);
+        assertEquals(6f, card.getIntervalDays(), DELTA);
+    }
+
+    @Test
+    void easeHasAFloorAndIntervalACeiling() {
+        ReviewCard failing = newCard();
+        for (int i = 0; i < 10; i++) {
+            ReviewService.schedule(failing, 0, NOW);
+        }
+        assertEquals(1.3f, failing.getEase(), DELTA);
+        assertEquals(10, failing.getLapses());
+
+        ReviewCard mastered = newCard();
+        for (int i = 0; i < 20; i++) {
+            ReviewService.schedule(mastered, 5, NOW);
+        }
+        assertEquals(365f, mastered.getIntervalDays(), DELTA);
+        assertEquals(NOW.plusDays(365), mastered.getDueAt());
+    }
+
+    private static float easeAfter(int grade) {
+        ReviewCard card = newCard();
+        ReviewService.schedule(card, grade, NOW);
+        return card.getEase();
+    }
+
+    private static ReviewCard newCard() {
+        return new ReviewCard(1L, 1, "kitab", NOW);
+    }
+}
@@ -0,0 +1,55 @@
+package user.biblio4.service;
+
+import user.biblio4.Biblio4UsersApplication;
+import user.biblio4.model.User;
+import user.biblio4.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lecture de la progression de récompenses d'un nouvel utilisateur : aucune
+ * écriture dans une transaction en lecture seule (tableau de bord compris).
+ */
+@SpringBootTest(classes = Biblio4UsersApplication.class)
+class RewardServiceTest {
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void readOnlyProgressOfNewUserIsNotPersisted() {
+        String name = "reward" + System.nanoTime();
+        Long userId = userRepository.save(new User(name, name + "@test.local", "hash", name,
+                User.Role.STUDENT, User.Level.BEGINNER)).getId();
+
+        Map<String, Object> progress = rewardService.getUserProgress(userId);
+        assertEquals(0, progress.get("totalXP"));
+        assertEquals(0, progress.get("coins"));
+        assertEquals(1, progress.get("currentLevel"));
+        assertEquals(0, rewardRows(userId));
+
+        Map<String, Object> dashboard = dashboardService.getDashboard(userId);
+        assertFalse(((Map<?, ?>) dashboard.get("missing")).containsKey("rewards"), dashboard.toString());
+        assertEquals(0, rewardRows(userId));
+    }
+
+    private long rewardRows(Long userId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_reward_progress WHERE user_id = ?", Long.class, userId);
+    }
+}
@@ -0,0 +1,112 @@
+package user.biblio4.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Filtres de disponibilité : jamais de faux négatif après un ajout (y compris
+ * concurrent), taux de faux positifs proche de la cible.
+ */
+class UserAvailabilityFilterTest {
+
+    private static final int ENTRIES = 10_000;
+    private static final double FPP = 0.01;
+
+    @Test
+    void noFalseNegativeAfterAdd() {
+        UserAvailabilityFilter.Bloom bloom = UserAvailabilityFilter.Bloom.create(ENTRIES, FPP);
+        for (int i = 0; i < ENTRIES; i++) {
+            bloom.put("user" + i);
+        }
+        for (int i = 0; i < ENTRIES; i++) {
+            assertTrue(bloom.mightContain("user" + i), "faux négatif pour user" + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        UserAvailabilityFilter.Bloom bloom = UserAvailabilityFilter.Bloom.create(ENTRIES, FPP);
+        for (int i = 0; i < ENTRIES; i++) {
+            bloom.put("user" + i);
+        }
+        long falsePositives = IntStream.range(0, ENTRIES).filter(i -> bloom.mightContain("absent" + i)).count();
+        assertTrue(falsePositives < ENTRIES * FPP * 2, falsePositives + " faux positifs");
+    }
+
+    @Test
+    void concurrentAddsAreNeverLost() throws Exception {
+        UserAvailabilityFilter.Bloom bloom = UserAvailabilityFilter.Bloom.create(ENTRIES, FPP);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = thread; i < ENTRIES; i += 8) {
+                        bloom.put("user" + i);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < ENTRIES; i++) {
+            assertTrue(bloom.mightContain("user" + i), "ajout perdu pour user" + i);
+        }
+    }
+
+    @Test
+    void addedValuesMightExistIgnoringCase() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM utilisateurs", Long.class)).thenReturn(0L);
+        UserAvailabilityFilter filter = new UserAvailabilityFilter(jdbcTemplate, new SimpleMeterRegistry(), 1000, FPP);
+
+        // Avant la construction : tout est « peut-être »
+        assertTrue(filter.mightExist(UserAvailabilityFilter.USERNAME, "nouveau"));
+
+        filter.rebuild();
+        filter.add("Nouveau", "Nouveau@Test.local");
+
+        assertTrue(filter.mightExist(UserAvailabilityFilter.USERNAME, "nouveau"));
+        assertTrue(filter.mightExist(UserAvailabilityFilter.USERNAME, " NOUVEAU "));
+        assertTrue(filter.mightExist(UserAvailabilityFilter.EMAIL, "nouveau@test.local"));
+        assertFalse(filter.mightExist(UserAvailabilityFilter.USERNAME, "nouveau@test.local"));
+    }
+
+    @Test
+    void addInsideTransactionWaitsForCommit() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM utilisateurs", Long.class)).thenReturn(0L);
+        UserAvailabilityFilter filter = new UserAvailabilityFilter(jdbcTemplate, new SimpleMeterRegistry(), 1000, FPP);
+        filter.rebuild();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            filter.add("pending", "pending@test.local");
+            // Pas encore commité : une reconstruction concurrente ne le verrait pas non plus
+            assertFalse(filter.mightExist(UserAvailabilityFilter.USERNAME, "pending"));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            assertTrue(filter.mightExist(UserAvailabilityFilter.USERNAME, "pending"));
+            assertTrue(filter.mightExist(UserAvailabilityFilter.EMAIL, "pending@test.local"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package user.biblio4.service;
+
+import user.biblio4.Biblio4UsersApplication;
+import user.biblio4.model.User;
+import user.biblio4.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compteurs de /api/users/admin/count : identiques aux comptages en base après
+ * création, modification et suppression, inchangés par une écriture annulée.
+ */
+@SpringBootTest(classes = Biblio4UsersApplication.class)
+class UserCountersTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCounters userCounters;
+
+    @Test
+    void countersFollowCreateUpdateAndDelete() {
+        // Les autres tests insèrent par le dépôt, sans passer par les compteurs
+        userCounters.refresh();
+        Map<String, Object> before = userService.getUserCounts();
+        assertMatchesDatabase(before);
+
+        String suffix = Long.toString(System.nanoTime());
+        User prof = userService.createUser(user("prof" + suffix, User.Role.PROF, User.Level.ADVANCED));
+        User student = userService.createUser(user("student" + suffix, User.Role.STUDENT, User.Level.BEGINNER));
+        Map<String, Object> created = userService.getUserCounts();
+        assertEquals(2, delta(before, created, "total"));
+        assertEquals(1, delta(before, created, "profs"));
+        assertEquals(1, delta(before, created, "students"));
+        assertEquals(1, delta(before, created, "advanced"));
+        assertEquals(1, delta(before, created, "beginners"));
+        assertMatchesDatabase(created);
+
+        // Étudiant promu professeur intermédiaire
+        User changes = user(student.getUsername(), User.Role.PROF, User.Level.INTERMEDIATE);
+        changes.setEmail(student.getEmail());
+        userService.updateUser(student.getId(), changes);
+        Map<String, Object> updated = userService.getUserCounts();
+        assertEquals(0, delta(created, updated, "total"));
+        assertEquals(1, delta(created, updated, "profs"));
+        assertEquals(-1, delta(created, updated, "students"));
+        assertEquals(-1, delta(created, updated, "beginners"));
+        assertEquals(1, delta(created, updated, "intermediates"));
+        assertMatchesDatabase(updated);
+
+        // Modification refusée (nom déjà pris) : rien n'est compté
+        User rejected = user(prof.getUsername(), User.Role.ADMIN, User.Level.BEGINNER);
+        rejected.setEmail(student.getEmail());
+        assertThrows(RuntimeException.class, () -> userService.updateUser(student.getId(), rejected));
+        assertEquals(updated, userService.getUserCounts());
+
+        userService.deleteUser(prof.getId());
+        Map<String, Object> deleted = userService.getUserCounts();
+        assertEquals(-1, delta(updated, deleted, "total"));
+        assertEquals(-1, delta(updated, deleted, "profs"));
+        assertEquals(-1, delta(updated, deleted, "advanced"));
+        assertMatchesDatabase(deleted);
+    }
+
+    private void assertMatchesDatabase(Map<String, Object> counts) {
+        assertEquals(userRepository.count(), counts.get("total"));
+        assertEquals(userRepository.countByRole(User.Role.ADMIN), counts.get("admins"));
+        assertEquals(userRepository.countByRole(User.Role.PROF), counts.get("profs"));
+        assertEquals(userRepository.countByRole(User.Role.STUDENT), counts.get("students"));
+        assertEquals(userRepository.countByLevel(User.Level.BEGINNER), counts.get("beginners"));
+        assertEquals(userRepository.countByLevel(User.Level.INTERMEDIATE), counts.get("intermediates"));
+        assertEquals(userRepository.countByLevel(User.Level.ADVANCED), counts.get("advanced"));
+    }
+
+    private static long delta(Map<String, Object> before, Map<String, Object> after, String key) {
+        return (Long) after.get(key) - (Long) before.get(key);
+    }
+
+    private static User user(String username, User.Role role, User.Level level) {
+        return new User(username, username + "@test.local", "secret", username, role, level);
+    }
+}
@@ -0,0 +1,105 @@
+package user.biblio4.service;
+
+import user.biblio4.Biblio4UsersApplication;
+import user.biblio4.dto.UserSummaryDTO;
+import user.biblio4.model.User;
+import user.biblio4.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Listes admin : pages par curseur sans chevauchement ni trou, export NDJSON
+ * d'une ligne par utilisateur, sans les utilisateurs supprimés en attente de purge.
+ */
+@SpringBootTest(classes = Biblio4UsersApplication.class)
+class UserExportTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void keysetPagesDoNotOverlap() {
+        List<User> seeded = seed("page", 7);
+        softDelete(seeded.get(3));
+
+        List<Long> seen = new ArrayList<>();
+        long after = 0;
+        List<UserSummaryDTO> page;
+        do {
+            page = userService.getUserSummaries(after, 3);
+            assertTrue(page.size() <= 3);
+            for (UserSummaryDTO summary : page) {
+                assertTrue(summary.id() > after, "identifiant " + summary.id() + " avant le curseur " + after);
+                seen.add(summary.id());
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).id();
+            }
+        } while (!page.isEmpty());
+
+        assertEquals(seen.size(), new HashSet<>(seen).size(), "pages qui se chevauchent");
+        assertEquals(activeIds(), seen);
+        assertFalse(seen.contains(seeded.get(3).getId()));
+    }
+
+    @Test
+    void exportCountsActiveUsersOnly() throws Exception {
+        List<User> seeded = seed("export", 4);
+        softDelete(seeded.get(0));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = userService.exportUsers(out, null);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+
+        long active = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM utilisateurs WHERE deleted_at IS NULL", Long.class);
+        assertEquals(active, count);
+        assertEquals(active, lines.size());
+        assertTrue(lines.stream().noneMatch(line -> line.contains(seeded.get(0).getEmail())));
+        assertTrue(lines.stream().anyMatch(line -> line.contains(seeded.get(1).getEmail())));
+        assertFalse(lines.get(0).contains("password"));
+
+        ByteArrayOutputStream profs = new ByteArrayOutputStream();
+        long profCount = userService.exportUsers(profs, "prof");
+        assertEquals(userRepository.countByRole(User.Role.PROF), profCount);
+        assertEquals(profCount, profs.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    private List<User> seed(String prefix, int count) {
+        String suffix = Long.toString(System.nanoTime());
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String name = prefix + i + "_" + suffix;
+            User.Role role = i % 2 == 0 ? User.Role.STUDENT : User.Role.PROF;
+            users.add(userRepository.save(new User(name, name + "@test.local", "hash", name, role, User.Level.BEGINNER)));
+        }
+        return users;
+    }
+
+    // Suppression logique sans passer par le service : la purge ne se déclenche pas
+    private void softDelete(User user) {
+        jdbcTemplate.update("UPDATE utilisateurs SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?", user.getId());
+    }
+
+    private List<Long> activeIds() {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM utilisateurs WHERE deleted_at IS NULL ORDER BY id", Long.class);
+    }
+}
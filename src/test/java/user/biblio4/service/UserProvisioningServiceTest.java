@@ -0,0 +1,139 @@
+package user.biblio4.service;
+
+import user.biblio4.Biblio4UsersApplication;
+import user.biblio4.dto.AuthRequest.CreateUserRequest;
+import user.biblio4.dto.ProvisioningRowDTO;
+import user.biblio4.model.User;
+import user.biblio4.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Import de cohorte : une ligne en double est rejetée sans rien écrire pour elle,
+ * un conflit d'unicité à l'insertion annule tout le lot.
+ */
+@SpringBootTest(classes = Biblio4UsersApplication.class)
+class UserProvisioningServiceTest {
+
+    @Autowired
+    private UserProvisioningService provisioningService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private UserCounters userCounters;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private UserAvailabilityFilter availabilityFilter;
+
+    @Test
+    void duplicateRowsAreRejectedWithoutWrites() {
+        String suffix = Long.toString(System.nanoTime());
+        long usersBefore = countAll("utilisateurs");
+        long progressBefore = countAll("user_progress");
+        long rewardsBefore = countAll("user_reward_progress");
+
+        List<ProvisioningRowDTO> report = provisioningService.provision(List.of(
+                request("alpha" + suffix, "alpha" + suffix),
+                request("beta" + suffix, "beta" + suffix),
+                request("ALPHA" + suffix, "other" + suffix),   // username en double (casse ignorée)
+                request("gamma" + suffix, "beta" + suffix)));  // email en double
+
+        assertEquals(List.of(ProvisioningRowDTO.CREATED, ProvisioningRowDTO.CREATED,
+                        ProvisioningRowDTO.REJECTED, ProvisioningRowDTO.REJECTED),
+                report.stream().map(ProvisioningRowDTO::status).toList());
+        assertEquals("Nom d'utilisateur en double dans la cohorte", report.get(2).error());
+        assertEquals("Email en double dans la cohorte", report.get(3).error());
+        assertNull(report.get(2).id());
+
+        assertEquals(usersBefore + 2, countAll("utilisateurs"));
+        assertEquals(progressBefore + 2, countAll("user_progress"));
+        assertEquals(rewardsBefore + 2, countAll("user_reward_progress"));
+        assertTrue(userRepository.findByUsername("gamma" + suffix).isEmpty());
+        assertTrue(userRepository.findByEmail("other" + suffix + "@test.local").isEmpty());
+        assertEquals("beta" + suffix, userRepository.findByEmail("beta" + suffix + "@test.local")
+                .orElseThrow().getUsername());
+    }
+
+    @Test
+    void conflictDuringInsertWritesNothing() {
+        String suffix = Long.toString(System.nanoTime());
+        String contested = "delta" + suffix;
+        AtomicBoolean raced = new AtomicBoolean();
+        // Le hachage a lieu entre la vérification d'unicité et l'insertion :
+        // une autre création prend le username de la troisième ligne à ce moment-là
+        PasswordEncoder racingEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (raced.compareAndSet(false, true)) {
+                    userRepository.save(new User(contested, "rival" + suffix + "@test.local", "hash",
+                            contested, User.Role.STUDENT, User.Level.BEGINNER));
+                }
+                return passwordEncoder.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return passwordEncoder.matches(rawPassword, encodedPassword);
+            }
+        };
+        // Lots de 2 : le conflit survient dans le second lot, après l'insertion du premier
+        UserProvisioningService service = new UserProvisioningService(jdbcTemplate, transactionManager,
+                racingEncoder, changeTracker, userCounters, userSearchService, availabilityFilter, 2, 100);
+
+        Map<String, Object> countsBefore = userCounters.snapshot();
+        long progressBefore = countAll("user_progress");
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> service.provision(List.of(
+                request("epsilon" + suffix, "epsilon" + suffix),
+                request("zeta" + suffix, "zeta" + suffix),
+                request(contested, "delta" + suffix))));
+        assertTrue(error.getMessage().startsWith("Conflit d'unicité"), error.getMessage());
+
+        assertTrue(userRepository.findByUsername("epsilon" + suffix).isEmpty());
+        assertTrue(userRepository.findByUsername("zeta" + suffix).isEmpty());
+        assertEquals("rival" + suffix + "@test.local",
+                userRepository.findByUsername(contested).orElseThrow().getEmail());
+        assertEquals(progressBefore, countAll("user_progress"));
+        // Compteurs publiés après commit seulement : rien à annuler
+        assertEquals(countsBefore, userCounters.snapshot());
+    }
+
+    private long countAll(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private static CreateUserRequest request(String username, String emailName) {
+        CreateUserRequest request = new CreateUserRequest();
+        request.setUsername(username);
+        request.setEmail(emailName + "@test.local");
+        request.setPassword("secret");
+        return request;
+    }
+}
@@ -0,0 +1,146 @@
+package user.biblio4.service;
+
+import user.biblio4.Biblio4UsersApplication;
+import user.biblio4.event.UserPurgedEvent;
+import user.biblio4.model.*;
+import user.biblio4.repository.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Purge d'un utilisateur supprimé : toutes les tables dépendantes vidées par
+ * tranches plus petites que le nombre de lignes, métriques et événement publiés.
+ */
+@SpringBootTest(classes = Biblio4UsersApplication.class, properties = "users.purge.chunk-size=2")
+@RecordApplicationEvents
+class UserPurgeServiceTest {
+
+    private static final Map<String, String> TABLES = Map.of(
+            "user_progress_completed_words",
+            "SELECT COUNT(*) FROM user_progress_completed_words WHERE progress_id IN " +
+            "(SELECT id FROM user_progress WHERE user_id = ?)",
+            "user_progress_mastered_words",
+            "SELECT COUNT(*) FROM user_progress_mastered_words WHERE progress_id IN " +
+            "(SELECT id FROM user_progress WHERE user_id = ?)",
+            "user_progress", "SELECT COUNT(*) FROM user_progress WHERE user_id = ?",
+            "user_reward_progress", "SELECT COUNT(*) FROM user_reward_progress WHERE user_id = ?",
+            "review_card", "SELECT COUNT(*) FROM review_card WHERE user_id = ?",
+            "user_ability", "SELECT COUNT(*) FROM user_ability WHERE user_id = ?",
+            "sync_receipt", "SELECT COUNT(*) FROM sync_receipt WHERE user_id = ?",
+            "outbox_event", "SELECT COUNT(*) FROM outbox_event WHERE user_id = ?",
+            "user_learning_summary", "SELECT COUNT(*) FROM user_learning_summary WHERE user_id = ?",
+            "user_sync_state", "SELECT COUNT(*) FROM user_sync_state WHERE user_id = ?");
+
+    @Autowired
+    private UserPurgeService purgeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private UserRewardProgressRepository rewardProgressRepository;
+
+    @Autowired
+    private ReviewCardRepository reviewCardRepository;
+
+    @Autowired
+    private SyncReceiptRepository syncReceiptRepository;
+
+    @Autowired
+    private UserLearningSummaryRepository summaryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void purgeEmptiesEveryTableInChunks() {
+        String name = "purge" + System.nanoTime();
+        User user = userRepository.save(new User(name, name + "@test.local", "hash", name,
+                User.Role.STUDENT, User.Level.BEGINNER));
+        Long userId = user.getId();
+
+        for (int level = 1; level <= 2; level++) {
+            UserProgress progress = new UserProgress(user, level);
+            progress.setCompletedWords(new ArrayList<>(List.of("w1", "w2", "w3", "w4", "w5")));
+            progress.setMasteredWords(new ArrayList<>(List.of("w1", "w2", "w3")));
+            userProgressRepository.save(progress);
+        }
+        rewardProgressRepository.save(new UserRewardProgress(user));
+        for (int i = 0; i < 5; i++) {
+            reviewCardRepository.save(new ReviewCard(userId, 1, "w" + i, LocalDateTime.now()));
+            syncReceiptRepository.save(new SyncReceipt(userId, "evt-" + i, "complete-word", 1, "APPLIED", null));
+        }
+        summaryRepository.save(new UserLearningSummary(userId, new long[8]));
+        jdbcTemplate.update("INSERT INTO user_ability (user_id, ratings, updated_at) VALUES (?, ?, ?)",
+                userId, new byte[16], LocalDateTime.now());
+        // Créée par le suivi des versions à l'écriture de la progression
+        if (count("SELECT COUNT(*) FROM user_sync_state WHERE user_id = ?", userId) == 0) {
+            jdbcTemplate.update("INSERT INTO user_sync_state (user_id, version, updated_at) VALUES (?, 3, ?)",
+                    userId, LocalDateTime.now());
+        }
+        // Déjà traités : le relais ne les reprend pas
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO outbox_event (event_type, user_id, payload, created_at, processed_at) " +
+                    "VALUES ('test', ?, '{}', ?, ?)", userId, LocalDateTime.now(), LocalDateTime.now());
+        }
+        TABLES.forEach((table, sql) ->
+                assertTrue(count(sql, userId) > 0, table + " non alimentée"));
+
+        double reviewRows = rows("review_card");
+        long reviewChunks = chunks("review_card");
+        double purgedUsers = meterRegistry.get("users.purge.users").tag("result", "purged").counter().count();
+
+        // Suppression logique sans passer par le service : pas de purge concurrente
+        jdbcTemplate.update("UPDATE utilisateurs SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?", userId);
+        assertTrue(purgeService.purgeUser(userId));
+
+        TABLES.forEach((table, sql) -> assertEquals(0, count(sql, userId), table + " non purgée"));
+        assertEquals(0, count("SELECT COUNT(*) FROM utilisateurs WHERE id = ?", userId));
+        // 5 cartes par tranches de 2 : 2 + 2 + 1. Les tables des collections, sans clé
+        // primaire, ne servent pas au décompte : H2 y renvoie un nombre de lignes inexact
+        // pour DELETE ... LIMIT
+        assertEquals(reviewRows + 5, rows("review_card"));
+        assertEquals(reviewChunks + 3, chunks("review_card"));
+        assertTrue(rows("user_progress_completed_words") > 0);
+        assertEquals(purgedUsers + 1,
+                meterRegistry.get("users.purge.users").tag("result", "purged").counter().count());
+        assertEquals(1, events.stream(UserPurgedEvent.class).filter(e -> e.userId().equals(userId)).count());
+    }
+
+    private long count(String sql, Long userId) {
+        return jdbcTemplate.queryForObject(sql, Long.class, userId);
+    }
+
+    private long chunks(String table) {
+        Timer timer = meterRegistry.find("users.purge.chunk").tag("table", table).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private double rows(String table) {
+        Counter counter = meterRegistry.find("users.purge.rows").tag("table", table).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,60 @@
+package user.biblio4.service;
+
+import user.biblio4.Biblio4UsersApplication;
+import user.biblio4.dto.UserSearchHitDTO;
+import user.biblio4.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Moteur de repli (H2) : index de trigrammes en mémoire, tolérant aux fautes et
+ * aux accents, tenu à jour après le commit des écritures de UserService.
+ */
+@SpringBootTest(classes = Biblio4UsersApplication.class)
+class UserSearchServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Test
+    void trigramFallbackRanksAndFollowsWrites() {
+        assertEquals("memory", userSearchService.getBackend());
+
+        User exact = userService.createUser(user("zephyrine", "Zéphyrine Quillebeuf", User.Role.STUDENT));
+        User close = userService.createUser(user("zephyr", "Zephyr Quintal", User.Role.PROF));
+
+        // Correspondance exacte devant la correspondance partielle
+        assertEquals(List.of(exact.getId(), close.getId()), ids(userService.searchUsers("zephyrine", null, null, 0, 10)));
+        // Accents et casse ignorés
+        assertEquals(ids(userService.searchUsers("zephyrine", null, null, 0, 10)),
+                ids(userService.searchUsers("ZÉPHYRINE", null, null, 0, 10)));
+        // Faute de frappe : retrouvé par les trigrammes communs
+        assertTrue(ids(userService.searchUsers("zefyrine", null, null, 0, 10)).contains(exact.getId()));
+        assertEquals(List.of(close.getId()), ids(userService.searchUsers("zephyrine", "prof", null, 0, 10)));
+        assertEquals(List.of(close.getId()), ids(userService.searchUsers("zephyrine", null, null, 1, 1)));
+        assertEquals(List.of(), userService.searchUsers("   ", null, null, 0, 10));
+
+        User changes = user(exact.getUsername(), "Anatole Quillebeuf", exact.getRole());
+        userService.updateUser(exact.getId(), changes);
+        assertTrue(ids(userService.searchUsers("anatole", null, null, 0, 10)).contains(exact.getId()));
+
+        userService.deleteUser(exact.getId());
+        assertEquals(List.of(close.getId()), ids(userService.searchUsers("zephyrine", null, null, 0, 10)));
+    }
+
+    private static List<Long> ids(List<UserSearchHitDTO> hits) {
+        return hits.stream().map(hit -> hit.user().id()).toList();
+    }
+
+    private static User user(String username, String nomComplet, User.Role role) {
+        return new User(username, username + "@test.local", "secret", nomComplet, role, User.Level.BEGINNER);
+    }
+}